@@ -0,0 +1,279 @@
+package com.ing.walletservice.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline verifier for the hash-chained audit files written by {@link JsonlAuditFileSink}.
+ *
+ * Each file holds whole segments (the writer seals the open segment before rolling), so
+ * files are verified independently on a pool of threads: every batch hash is recomputed
+ * from the event lines, the links inside the file are followed, and every segment's Merkle
+ * root is rebuilt. Only the boundary hashes of
+ * neighbouring files are then compared sequentially. Run it against a copy of the audit
+ * directory, for example:
+ *
+ * <pre>
+ * java -cp wallet-service.jar -Dloader.main=com.ing.walletservice.audit.AuditChainVerifier \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher logs [threads]
+ * </pre>
+ */
+public final class AuditChainVerifier {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final byte[] CHAIN_PREFIX = AuditHashChain.CHAIN_PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SEGMENT_PREFIX = AuditHashChain.SEGMENT_PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+    private AuditChainVerifier() {}
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "logs");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        Report report = verify(directory, threads);
+        for (FileResult file : report.getFiles()) {
+            System.out.printf("%s: batches %d to %d, %d events, %d segments%s%n", file.getFile().getFileName(),
+                    file.getFirstBatch(), file.getLastBatch(), file.getEvents(), file.getSegments(),
+                    file.getUnsealedBatches() > 0 ? ", " + file.getUnsealedBatches() + " unsealed batches" : "");
+        }
+        report.getErrors().forEach(error -> System.out.println("ERROR " + error));
+        System.out.printf("%s: %d files verified with %d threads in %d ms%n", report.isValid() ? "VALID" : "INVALID",
+                report.getFiles().size(), threads, (System.nanoTime() - start) / 1_000_000);
+        System.exit(report.isValid() ? 0 : 1);
+    }
+
+    /**
+     * Verifies every audit file in the directory, oldest first.
+     */
+    public static Report verify(Path directory, int threads) throws IOException, InterruptedException {
+        List<Path> files = new ArrayList<>(JsonlAuditFileSink.rolledFiles(directory));
+        Path active = JsonlAuditFileSink.activeFile(directory);
+        if (Files.exists(active)) {
+            files.add(active);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())));
+        try {
+            List<Callable<FileResult>> tasks = new ArrayList<>();
+            for (Path file : files) {
+                tasks.add(() -> verifyFile(file));
+            }
+            List<FileResult> results = new ArrayList<>();
+            for (Future<FileResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return new Report(results);
+        } catch (ExecutionException e) {
+            throw new IOException("Audit verification failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Recomputes the chain and segment roots of a single file. The event lines of a batch
+     * are contiguous in the file, so they are hashed in place straight from the file bytes.
+     */
+    static FileResult verifyFile(Path file) throws IOException {
+        FileResult result = new FileResult(file);
+        String name = file.getFileName().toString();
+        MessageDigest digest = AuditHashChain.sha256();
+        List<byte[]> segmentLeaves = new ArrayList<>();
+        long segmentFirstBatch = -1;
+        byte[] previous = null;
+        int batchStart = 0;
+        int batchEvents = 0;
+        int lineNumber = 0;
+
+        byte[] content = Files.readAllBytes(file);
+        int lineStart = 0;
+        while (lineStart < content.length) {
+            int lineEnd = indexOf(content, (byte) '\n', lineStart);
+            lineNumber++;
+            if (lineEnd < 0) {
+                result.errors.add(name + " line " + lineNumber + ": truncated last line");
+                break;
+            }
+            JsonNode record = isRecord(content, lineStart, lineEnd)
+                    ? OBJECT_MAPPER.readTree(content, lineStart, lineEnd - lineStart) : null;
+            if (record != null && record.has(AuditHashChain.CHAIN_FIELD)) {
+                JsonNode chain = record.get(AuditHashChain.CHAIN_FIELD);
+                long batch = chain.get("batch").asLong();
+                byte[] recordedPrevious = HEX.parseHex(chain.get("prev").asText());
+                byte[] recordedHash = HEX.parseHex(chain.get("hash").asText());
+                if (previous == null) {
+                    result.firstPrevious = recordedPrevious;
+                    result.firstBatch = batch;
+                } else if (!Arrays.equals(previous, recordedPrevious) || batch != result.lastBatch + 1) {
+                    result.errors.add(name + " line " + lineNumber + ": batch " + batch
+                            + " does not link to batch " + result.lastBatch);
+                }
+                digest.update(recordedPrevious);
+                digest.update(content, batchStart, lineStart - batchStart);
+                if (!Arrays.equals(digest.digest(), recordedHash)) {
+                    result.errors.add(name + " line " + lineNumber + ": batch " + batch
+                            + " content does not match its hash");
+                }
+                int recordedEvents = chain.get("events").asInt();
+                if (recordedEvents != batchEvents) {
+                    result.errors.add(name + " line " + lineNumber + ": batch " + batch + " should hold "
+                            + recordedEvents + " events but holds " + batchEvents);
+                }
+                if (segmentLeaves.isEmpty()) {
+                    segmentFirstBatch = batch;
+                }
+                segmentLeaves.add(recordedHash);
+                previous = recordedHash;
+                result.lastBatch = batch;
+                result.batches++;
+                result.events += batchEvents;
+                batchEvents = 0;
+                batchStart = lineEnd + 1;
+            } else if (record != null && record.has(AuditHashChain.SEGMENT_FIELD)) {
+                JsonNode segment = record.get(AuditHashChain.SEGMENT_FIELD);
+                byte[] root = AuditHashChain.merkleRoot(segmentLeaves, digest);
+                if (segment.get("firstBatch").asLong() != segmentFirstBatch
+                        || segment.get("batches").asInt() != segmentLeaves.size()
+                        || !Arrays.equals(root, HEX.parseHex(segment.get("root").asText()))) {
+                    result.errors.add(name + " line " + lineNumber + ": segment "
+                            + segment.get("index").asLong() + " Merkle root does not match its batches");
+                }
+                segmentLeaves.clear();
+                result.segments++;
+                batchStart = lineEnd + 1;
+            } else {
+                batchEvents++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (batchEvents > 0) {
+            result.errors.add(name + ": " + batchEvents + " event line(s) after the last chain record");
+        }
+        result.lastHash = previous;
+        result.unsealedBatches = segmentLeaves.size();
+        return result;
+    }
+
+    private static boolean isRecord(byte[] content, int start, int end) {
+        return startsWith(content, start, end, CHAIN_PREFIX) || startsWith(content, start, end, SEGMENT_PREFIX);
+    }
+
+    private static boolean startsWith(byte[] content, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (content[start + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] content, byte value, int from) {
+        for (int i = from; i < content.length; i++) {
+            if (content[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static final class Report {
+
+        private final List<FileResult> files;
+        private final List<String> errors = new ArrayList<>();
+
+        Report(List<FileResult> files) {
+            this.files = files;
+            FileResult previous = null;
+            for (FileResult file : files) {
+                errors.addAll(file.errors);
+                if (previous != null && previous.lastHash != null && file.firstPrevious != null
+                        && (!Arrays.equals(previous.lastHash, file.firstPrevious)
+                            || file.firstBatch != previous.lastBatch + 1)) {
+                    errors.add(file.getFile().getFileName() + " does not continue the chain of "
+                            + previous.getFile().getFileName());
+                }
+                if (file.firstPrevious != null) {
+                    previous = file;
+                }
+            }
+        }
+
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        public List<FileResult> getFiles() {
+            return files;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+
+    public static final class FileResult {
+
+        private final Path file;
+        private final List<String> errors = new ArrayList<>();
+        private byte[] firstPrevious;
+        private byte[] lastHash;
+        private long firstBatch = -1;
+        private long lastBatch = -1;
+        private long batches;
+        private long events;
+        private long segments;
+        private long unsealedBatches;
+
+        FileResult(Path file) {
+            this.file = file;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getFirstBatch() {
+            return firstBatch;
+        }
+
+        public long getLastBatch() {
+            return lastBatch;
+        }
+
+        public long getBatches() {
+            return batches;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        public long getSegments() {
+            return segments;
+        }
+
+        public long getUnsealedBatches() {
+            return unsealedBatches;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ing.walletservice.audit;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.Map;
+
+/**
+ * Immutable audit record as captured on the request thread.
+ *
+ * Only references are stored here; the message is formatted and the record serialized
+ * later on the audit writer thread. Fields are kept as alternating name/value pairs so
+ * each event type carries exactly the attributes it used to put into the MDC.
+ */
+public final class AuditEvent {
+
+    public enum Type {
+        WALLET_CREATION,
+        TRANSACTION_CREATION,
+        TRANSACTION_APPROVAL,
+        AUTH_SUCCESS,
+        AUTH_FAILURE,
+        UNAUTHORIZED_ACCESS,
+        BALANCE_CHANGE
+    }
+
+    public enum Level {
+        INFO,
+        WARN
+    }
+
+    private final long timestamp;
+    private final Type type;
+    private final Level level;
+    private final String messagePattern;
+    private final Object[] messageArgs;
+    private final Object[] fields;
+    private final Map<String, String> context;
+
+    public AuditEvent(long timestamp, Type type, Level level, String messagePattern, Object[] messageArgs,
+                      Object[] fields, Map<String, String> context) {
+        if (fields.length % 2 != 0) {
+            throw new IllegalArgumentException("Fields must be name/value pairs");
+        }
+        this.timestamp = timestamp;
+        this.type = type;
+        this.level = level;
+        this.messagePattern = messagePattern;
+        this.messageArgs = messageArgs;
+        this.fields = fields;
+        this.context = context;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public String getMessage() {
+        return MessageFormatter.arrayFormat(messagePattern, messageArgs).getMessage();
+    }
+
+    public int getFieldCount() {
+        return fields.length / 2;
+    }
+
+    public String getFieldName(int index) {
+        return (String) fields[index * 2];
+    }
+
+    public Object getFieldValue(int index) {
+        return fields[index * 2 + 1];
+    }
+
+    /**
+     * Returns the value of the named field, or {@code null} if the event does not carry it.
+     */
+    public Object getField(String name) {
+        for (int i = 0; i < fields.length; i += 2) {
+            if (fields[i].equals(name)) {
+                return fields[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * MDC of the calling thread at the time of the event, or {@code null} if it was empty.
+     */
+    public Map<String, String> getContext() {
+        return context;
+    }
+}
@@ -0,0 +1,224 @@
+package com.ing.walletservice.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Hash chain state of the audit file, owned by the audit writer thread.
+ *
+ * Every batch is linked as {@code hash = SHA-256(prev || batch bytes)}, where the batch
+ * bytes are exactly the event lines written for it, and recorded in a {@code @chain} line
+ * after them. Every {@code segmentBatches} batches (and whenever the file rolls) the batch
+ * hashes of the segment are folded into a Merkle root recorded in a {@code @segment} line,
+ * so a verifier can check segments independently and only compare their boundary hashes.
+ */
+final class AuditHashChain {
+
+    static final String CHAIN_FIELD = "@chain";
+    static final String SEGMENT_FIELD = "@segment";
+    static final String CHAIN_PREFIX = "{\"" + CHAIN_FIELD + "\"";
+    static final String SEGMENT_PREFIX = "{\"" + SEGMENT_FIELD + "\"";
+    static final byte[] GENESIS = new byte[32];
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final byte NODE_PREFIX = 1;
+
+    private final int segmentBatches;
+    private final MessageDigest digest = sha256();
+    private final List<byte[]> segmentLeaves = new ArrayList<>();
+
+    private byte[] previous = GENESIS;
+    private long nextBatch;
+    private long segmentIndex;
+    private long segmentFirstBatch;
+
+    AuditHashChain(int segmentBatches) {
+        if (segmentBatches < 1) {
+            throw new IllegalArgumentException("Segment must hold at least one batch");
+        }
+        this.segmentBatches = segmentBatches;
+    }
+
+    /**
+     * Links the next batch and returns its chain record. The chain does not move until the
+     * record has reached the file and {@link #commit} is called, so a failed write can be
+     * retried or followed by the next batch on the same link.
+     */
+    Link link(byte[] batch, int length, int events) {
+        digest.update(previous);
+        digest.update(batch, 0, length);
+        return new Link(nextBatch, events, previous, digest.digest());
+    }
+
+    /**
+     * Whether the segment is full once the next link is added to it.
+     */
+    boolean nextLinkFillsSegment() {
+        return segmentLeaves.size() + 1 >= segmentBatches;
+    }
+
+    boolean segmentOpen() {
+        return !segmentLeaves.isEmpty();
+    }
+
+    /**
+     * Record that closes the open segment, including the given pending link if not null.
+     * Like {@link #link}, it takes effect only on {@link #commit}.
+     */
+    Segment seal(Link link) {
+        List<byte[]> leaves = segmentLeaves;
+        if (link != null) {
+            leaves = new ArrayList<>(segmentLeaves);
+            leaves.add(link.hash);
+        }
+        return new Segment(segmentIndex, segmentFirstBatch, leaves.size(), merkleRoot(leaves, digest));
+    }
+
+    /**
+     * Advances the chain past a link and/or segment record once they are on disk.
+     */
+    void commit(Link link, Segment segment) {
+        if (link != null) {
+            previous = link.hash;
+            nextBatch = link.batch + 1;
+            segmentLeaves.add(link.hash);
+        }
+        if (segment != null) {
+            segmentIndex = segment.index + 1;
+            segmentLeaves.clear();
+            segmentFirstBatch = nextBatch;
+        }
+    }
+
+    /**
+     * Restores the chain from the chain and segment records of an existing audit file, so
+     * a restarted writer continues the same chain. Returns {@code true} if the file ends
+     * with event lines that no chain record covers, i.e. the previous writer died mid-batch.
+     */
+    boolean recover(Path file, ObjectMapper objectMapper) throws IOException {
+        boolean unchainedTail = false;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JsonNode record = isRecord(line) ? readRecord(line, objectMapper) : null;
+                if (record != null && record.has(CHAIN_FIELD)) {
+                    JsonNode chain = record.get(CHAIN_FIELD);
+                    previous = HEX.parseHex(chain.get("hash").asText());
+                    nextBatch = chain.get("batch").asLong() + 1;
+                    segmentLeaves.add(previous);
+                    unchainedTail = false;
+                } else if (record != null && record.has(SEGMENT_FIELD)) {
+                    segmentIndex = record.get(SEGMENT_FIELD).get("index").asLong() + 1;
+                    segmentLeaves.clear();
+                    segmentFirstBatch = nextBatch;
+                    unchainedTail = false;
+                } else {
+                    unchainedTail = true;
+                }
+            }
+        }
+        if (segmentLeaves.isEmpty()) {
+            segmentFirstBatch = nextBatch;
+        }
+        return unchainedTail;
+    }
+
+    /**
+     * Chain and segment records are the only lines that start with their field name.
+     */
+    static boolean isRecord(String line) {
+        return line.startsWith(CHAIN_PREFIX) || line.startsWith(SEGMENT_PREFIX);
+    }
+
+    private static JsonNode readRecord(String line, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    long nextBatch() {
+        return nextBatch;
+    }
+
+    /**
+     * Merkle root over the given leaves: parents are {@code SHA-256(0x01 || left || right)}
+     * and an odd node at the end of a level is promoted unchanged.
+     */
+    static byte[] merkleRoot(List<byte[]> leaves, MessageDigest digest) {
+        if (leaves.isEmpty()) {
+            return GENESIS;
+        }
+        List<byte[]> level = new ArrayList<>(leaves);
+        while (level.size() > 1) {
+            List<byte[]> parents = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                if (i + 1 == level.size()) {
+                    parents.add(level.get(i));
+                } else {
+                    digest.update(NODE_PREFIX);
+                    digest.update(level.get(i));
+                    digest.update(level.get(i + 1));
+                    parents.add(digest.digest());
+                }
+            }
+            level = parents;
+        }
+        return level.get(0);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String hex(byte[] hash) {
+        return HEX.formatHex(hash);
+    }
+
+    static final class Link {
+        final long batch;
+        final int events;
+        final byte[] previous;
+        final byte[] hash;
+
+        Link(long batch, int events, byte[] previous, byte[] hash) {
+            this.batch = batch;
+            this.events = events;
+            this.previous = previous;
+            this.hash = hash;
+        }
+    }
+
+    static final class Segment {
+        final long index;
+        final long firstBatch;
+        final int batches;
+        final byte[] root;
+
+        Segment(long index, long firstBatch, int batches, byte[] root) {
+            this.index = index;
+            this.firstBatch = firstBatch;
+            this.batches = batches;
+            this.root = root;
+        }
+    }
+}
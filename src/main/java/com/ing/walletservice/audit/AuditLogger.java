@@ -1,107 +1,88 @@
 package com.ing.walletservice.audit;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.ing.walletservice.audit.AuditEvent.Level;
+import com.ing.walletservice.audit.AuditEvent.Type;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 
+/**
+ * Records audit events. Each call only captures the event and the caller's MDC and hands
+ * it to the {@link AuditPipeline}; formatting and file I/O happen on the audit writer
+ * thread. The caller's MDC is read, never modified.
+ */
 @Service
+@Observed(name = "wallet.audit")
 public class AuditLogger {
-    
-    private static final Logger auditLog = LoggerFactory.getLogger("com.ing.walletservice.audit");
-    
+
+    private final AuditPipeline pipeline;
+
+    public AuditLogger(AuditPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
     public void logWalletCreation(Long customerId, String walletName, String currency, String username) {
-        MDC.put("eventType", "WALLET_CREATION");
-        MDC.put("customerId", String.valueOf(customerId));
-        MDC.put("walletName", walletName);
-        MDC.put("currency", currency);
-        MDC.put("username", username);
-        
-        auditLog.info("Wallet created: {} for customer {} by user {}", walletName, customerId, username);
-        
-        MDC.clear();
+        record(Type.WALLET_CREATION, Level.INFO,
+                "Wallet created: {} for customer {} by user {}",
+                new Object[] {walletName, customerId, username},
+                new Object[] {"customerId", customerId, "walletName", walletName, "currency", currency,
+                        "username", username});
     }
-    
-    public void logTransactionCreation(Long transactionId, String type, BigDecimal amount, 
+
+    public void logTransactionCreation(Long transactionId, String type, BigDecimal amount,
                                      Long walletId, String status, String username) {
-        MDC.put("eventType", "TRANSACTION_CREATION");
-        MDC.put("transactionId", String.valueOf(transactionId));
-        MDC.put("transactionType", type);
-        MDC.put("amount", amount.toString());
-        MDC.put("walletId", String.valueOf(walletId));
-        MDC.put("status", status);
-        MDC.put("username", username);
-        
-        auditLog.info("Transaction created: {} {} for wallet {} with status {} by user {}", 
-                     type, amount, walletId, status, username);
-        
-        MDC.clear();
+        record(Type.TRANSACTION_CREATION, Level.INFO,
+                "Transaction created: {} {} for wallet {} with status {} by user {}",
+                new Object[] {type, amount, walletId, status, username},
+                new Object[] {"transactionId", transactionId, "transactionType", type, "amount", amount,
+                        "walletId", walletId, "status", status, "username", username});
     }
-    
-    public void logTransactionApproval(Long transactionId, String oldStatus, String newStatus, 
+
+    public void logTransactionApproval(Long transactionId, String oldStatus, String newStatus,
                                      BigDecimal amount, String username) {
-        MDC.put("eventType", "TRANSACTION_APPROVAL");
-        MDC.put("transactionId", String.valueOf(transactionId));
-        MDC.put("oldStatus", oldStatus);
-        MDC.put("newStatus", newStatus);
-        MDC.put("amount", amount.toString());
-        MDC.put("username", username);
-        
-        auditLog.info("Transaction {} status changed from {} to {} (amount: {}) by user {}", 
-                     transactionId, oldStatus, newStatus, amount, username);
-        
-        MDC.clear();
+        record(Type.TRANSACTION_APPROVAL, Level.INFO,
+                "Transaction {} status changed from {} to {} (amount: {}) by user {}",
+                new Object[] {transactionId, oldStatus, newStatus, amount, username},
+                new Object[] {"transactionId", transactionId, "oldStatus", oldStatus, "newStatus", newStatus,
+                        "amount", amount, "username", username});
     }
-    
+
     public void logAuthenticationSuccess(String username, String role) {
-        MDC.put("eventType", "AUTH_SUCCESS");
-        MDC.put("username", username);
-        MDC.put("role", role);
-        
-        auditLog.info("User {} successfully authenticated with role {}", username, role);
-        
-        MDC.clear();
+        record(Type.AUTH_SUCCESS, Level.INFO,
+                "User {} successfully authenticated with role {}",
+                new Object[] {username, role},
+                new Object[] {"username", username, "role", role});
     }
-    
+
     public void logAuthenticationFailure(String username, String reason) {
-        MDC.put("eventType", "AUTH_FAILURE");
-        MDC.put("username", username);
-        MDC.put("reason", reason);
-        
-        auditLog.warn("Authentication failed for user {}: {}", username, reason);
-        
-        MDC.clear();
+        record(Type.AUTH_FAILURE, Level.WARN,
+                "Authentication failed for user {}: {}",
+                new Object[] {username, reason},
+                new Object[] {"username", username, "reason", reason});
     }
-    
+
     public void logUnauthorizedAccess(String username, String resource, String action) {
-        MDC.put("eventType", "UNAUTHORIZED_ACCESS");
-        MDC.put("username", username);
-        MDC.put("resource", resource);
-        MDC.put("action", action);
-        
-        auditLog.warn("Unauthorized access attempt by user {} to {} for action {}", 
-                     username, resource, action);
-        
-        MDC.clear();
+        record(Type.UNAUTHORIZED_ACCESS, Level.WARN,
+                "Unauthorized access attempt by user {} to {} for action {}",
+                new Object[] {username, resource, action},
+                new Object[] {"username", username, "resource", resource, "action", action});
     }
-    
-    public void logBalanceChange(Long walletId, BigDecimal oldBalance, BigDecimal newBalance, 
-                                BigDecimal oldUsableBalance, BigDecimal newUsableBalance, 
+
+    public void logBalanceChange(Long walletId, BigDecimal oldBalance, BigDecimal newBalance,
+                                BigDecimal oldUsableBalance, BigDecimal newUsableBalance,
                                 String reason, String username) {
-        MDC.put("eventType", "BALANCE_CHANGE");
-        MDC.put("walletId", String.valueOf(walletId));
-        MDC.put("oldBalance", oldBalance.toString());
-        MDC.put("newBalance", newBalance.toString());
-        MDC.put("oldUsableBalance", oldUsableBalance.toString());
-        MDC.put("newUsableBalance", newUsableBalance.toString());
-        MDC.put("reason", reason);
-        MDC.put("username", username);
-        
-        auditLog.info("Wallet {} balance changed: {} -> {} (usable: {} -> {}) due to {} by user {}", 
-                     walletId, oldBalance, newBalance, oldUsableBalance, newUsableBalance, reason, username);
-        
-        MDC.clear();
+        record(Type.BALANCE_CHANGE, Level.INFO,
+                "Wallet {} balance changed: {} -> {} (usable: {} -> {}) due to {} by user {}",
+                new Object[] {walletId, oldBalance, newBalance, oldUsableBalance, newUsableBalance, reason, username},
+                new Object[] {"walletId", walletId, "oldBalance", oldBalance, "newBalance", newBalance,
+                        "oldUsableBalance", oldUsableBalance, "newUsableBalance", newUsableBalance,
+                        "reason", reason, "username", username});
+    }
+
+    private void record(Type type, Level level, String pattern, Object[] args, Object[] fields) {
+        pipeline.publish(new AuditEvent(System.currentTimeMillis(), type, level, pattern, args, fields,
+                MDC.getCopyOfContextMap()));
     }
 }
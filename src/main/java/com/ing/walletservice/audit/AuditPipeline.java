@@ -0,0 +1,214 @@
+package com.ing.walletservice.audit;
+
+import com.ing.walletservice.diagnostics.AuditWriteEvent;
+import com.ing.walletservice.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves audit events off the request thread.
+ *
+ * Callers enqueue an {@link AuditEvent} into a bounded lock-free ring buffer and return.
+ * A single writer thread drains up to {@code app.audit.batch-size} events at a time and
+ * hands each batch to every {@link AuditSink}. When the buffer is full the configured
+ * {@link Backpressure} policy decides whether the caller waits for room or the event is
+ * dropped; either way drops are counted and reported by the writer.
+ */
+@Component
+public class AuditPipeline implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPipeline.class);
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    public enum Backpressure {
+        /** Drop the new event immediately when the buffer is full. */
+        DROP,
+        /** Wait up to {@code app.audit.block-timeout-ms} for room, then drop. */
+        BLOCK
+    }
+
+    private final List<AuditSink> sinks;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final Backpressure backpressure;
+    private final long blockTimeoutNanos;
+    private final long idleWaitNanos;
+    private final Thread writer;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failureCounter;
+    private final DistributionSummary batchSizes;
+    private final Timer batchWrite;
+
+    private volatile boolean running = true;
+    private volatile boolean writerIdle;
+    private long reportedDrops;
+
+    public AuditPipeline(List<AuditSink> sinks, MeterRegistry meterRegistry,
+                         @Value("${app.audit.queue-capacity:65536}") int queueCapacity,
+                         @Value("${app.audit.batch-size:512}") int batchSize,
+                         @Value("${app.audit.backpressure:BLOCK}") Backpressure backpressure,
+                         @Value("${app.audit.block-timeout-ms:500}") long blockTimeoutMs,
+                         @Value("${app.audit.idle-wait-ms:5}") long idleWaitMs) {
+        this.sinks = List.copyOf(sinks);
+        this.buffer = new MpscRingBuffer<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.backpressure = backpressure;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.idleWaitNanos = TimeUnit.MILLISECONDS.toNanos(idleWaitMs);
+        this.writer = new Thread(this::runWriter, "audit-writer");
+        this.writer.setDaemon(true);
+        this.droppedCounter = Counter.builder("audit.events.dropped").register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.events.written").register(meterRegistry);
+        this.failureCounter = Counter.builder("audit.write.failures").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.batch.size").register(meterRegistry);
+        this.batchWrite = Timer.builder("audit.batch.write").publishPercentileHistogram().register(meterRegistry);
+        meterRegistry.gauge("audit.queue.depth", buffer, MpscRingBuffer::size);
+        meterRegistry.gauge("audit.queue.capacity", buffer, MpscRingBuffer::capacity);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        writer.start();
+        logger.info("Audit pipeline started: capacity {}, batch size {}, backpressure {}, {} sink(s)",
+                buffer.capacity(), batchSize, backpressure, sinks.size());
+    }
+
+    /**
+     * Enqueues the event for the writer thread. Returns {@code false} if it was dropped.
+     */
+    public boolean publish(AuditEvent event) {
+        if (buffer.offer(event)) {
+            wakeWriterIfIdle();
+            return true;
+        }
+        if (backpressure == Backpressure.BLOCK && running) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            do {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (buffer.offer(event)) {
+                    return true;
+                }
+            } while (System.nanoTime() - deadline < 0);
+        }
+        dropped.incrementAndGet();
+        droppedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Waits until every event published before this call has been handed to the sinks and
+     * the sinks have stored it.
+     */
+    public boolean flush(Duration timeout) {
+        long target = buffer.offeredCount();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (processed.get() < target) {
+            if (System.nanoTime() - deadline >= 0 || !writer.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        for (AuditSink sink : sinks) {
+            if (!sink.flush(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    private void wakeWriterIfIdle() {
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            buffer.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                writerIdle = true;
+                if (buffer.isEmpty() && running) {
+                    LockSupport.parkNanos(this, idleWaitNanos);
+                }
+                writerIdle = false;
+                continue;
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        for (AuditSink sink : sinks) {
+            AuditWriteEvent event = new AuditWriteEvent();
+            event.begin();
+            try {
+                sink.write(batch);
+            } catch (Exception e) {
+                event.failed = true;
+                failureCounter.increment();
+                logger.error("Audit sink {} failed to write {} event(s)", sink.getClass().getSimpleName(), batch.size(), e);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.sink = sink.getClass().getSimpleName();
+                event.events = batch.size();
+                event.commit();
+            }
+        }
+        batchWrite.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        writtenCounter.increment(batch.size());
+        processed.addAndGet(batch.size());
+        long drops = dropped.get();
+        if (drops != reportedDrops) {
+            logger.warn("Audit buffer full: {} event(s) dropped since last report", drops - reportedDrops);
+            reportedDrops = drops;
+        }
+    }
+
+    /**
+     * Stops accepting the wait-for-room path and lets the writer drain what is queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(STOP_TIMEOUT_MILLIS);
+        if (writer.isAlive()) {
+            logger.warn("Audit writer did not drain within {} ms, {} event(s) left", STOP_TIMEOUT_MILLIS, buffer.size());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ing.walletservice.audit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Destination for audit batches. Called only from the audit writer thread, one batch at a
+ * time, so implementations need no synchronization of their own.
+ */
+public interface AuditSink {
+
+    void write(List<AuditEvent> batch) throws IOException;
+
+    /**
+     * Waits until batches already handed to {@link #write} are stored. Called from any
+     * thread; sinks that hand work to a thread of their own override it, synchronous sinks
+     * are done when write returns.
+     */
+    default boolean flush(Duration timeout) {
+        return true;
+    }
+}
@@ -0,0 +1,289 @@
+package com.ing.walletservice.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Copies audit batches into the {@code audit_events} table.
+ *
+ * The audit writer thread only hands each batch to a bounded queue of
+ * {@code app.audit.store.queue-batches} batches; a dedicated {@code audit-store} thread
+ * inserts them, so a slow or unavailable database never holds up the JSON lines file or
+ * the request threads behind the ring buffer. A batch is inserted in one transaction with
+ * multi-row {@code INSERT ... VALUES (...), (...)} statements of up to
+ * {@code app.audit.store.rows-per-insert} rows, so a failed attempt leaves nothing behind
+ * and is retried with exponential backoff up to {@code app.audit.store.max-attempts} times.
+ * While the database is down the queue fills up and further batches are dropped from the
+ * table only (counted in {@code audit.store.dropped}); the file still has every event.
+ * Identity ids cannot be batched through JPA, so the rows go through JDBC directly; the
+ * entity only defines schema and queries.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.store.enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcAuditSink implements AuditSink, SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcAuditSink.class);
+
+    private static final String INSERT_PREFIX = "INSERT INTO audit_events "
+            + "(event_time, event_type, level, username, wallet_id, transaction_id, customer_id, message, details) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MESSAGE_LENGTH = 1000;
+    private static final int DETAILS_LENGTH = 4000;
+    private static final long POLL_MILLIS = 100;
+    private static final long FLUSH_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int rowsPerInsert;
+    private final String fullInsert;
+    private final BlockingQueue<List<AuditEvent>> queue;
+    private final int maxAttempts;
+    private final long retryInitialMillis;
+    private final long retryMaxMillis;
+    private final Thread flusher;
+    private final AtomicLong handedEvents = new AtomicLong();
+    private final AtomicLong settledEvents = new AtomicLong();
+    private final Counter storedCounter;
+    private final Counter droppedCounter;
+    private final Counter retryCounter;
+
+    private volatile boolean running = true;
+
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         @Value("${app.audit.store.rows-per-insert:100}") int rowsPerInsert,
+                         @Value("${app.audit.store.queue-batches:256}") int queueBatches,
+                         @Value("${app.audit.store.max-attempts:8}") int maxAttempts,
+                         @Value("${app.audit.store.retry-initial-ms:100}") long retryInitialMillis,
+                         @Value("${app.audit.store.retry-max-ms:30000}") long retryMaxMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.rowsPerInsert = rowsPerInsert;
+        this.fullInsert = insertFor(rowsPerInsert);
+        this.queue = new ArrayBlockingQueue<>(queueBatches);
+        this.maxAttempts = maxAttempts;
+        this.retryInitialMillis = retryInitialMillis;
+        this.retryMaxMillis = retryMaxMillis;
+        this.flusher = new Thread(this::runFlusher, "audit-store");
+        this.flusher.setDaemon(true);
+        this.storedCounter = Counter.builder("audit.store.stored").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.store.dropped").register(meterRegistry);
+        this.retryCounter = Counter.builder("audit.store.retries").register(meterRegistry);
+        meterRegistry.gauge("audit.store.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        flusher.start();
+    }
+
+    /**
+     * Queues a copy of the batch for the store thread; never waits for the database.
+     */
+    @Override
+    public void write(List<AuditEvent> batch) {
+        handedEvents.addAndGet(batch.size());
+        if (!queue.offer(List.copyOf(batch))) {
+            drop(batch.size());
+            logger.warn("Audit store queue full, {} event(s) not copied to the audit table", batch.size());
+        }
+    }
+
+    /**
+     * Waits until every batch already handed to this sink has been inserted or given up on.
+     */
+    @Override
+    public boolean flush(Duration timeout) {
+        long target = handedEvents.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (settledEvents.get() < target) {
+            if (System.nanoTime() - deadline >= 0 || !flusher.isAlive()) {
+                return false;
+            }
+            LockSupport.parkNanos(FLUSH_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private void runFlusher() {
+        while (running || !queue.isEmpty()) {
+            List<AuditEvent> batch;
+            try {
+                batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (batch != null) {
+                store(batch);
+            }
+        }
+    }
+
+    private void store(List<AuditEvent> batch) {
+        long backoff = retryInitialMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+                storedCounter.increment(batch.size());
+                settledEvents.addAndGet(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                // Once shutting down, whatever is left gets a single attempt
+                if (attempt >= maxAttempts || !running) {
+                    drop(batch.size());
+                    logger.error("Audit store gave up on {} event(s) after {} attempt(s)", batch.size(), attempt, e);
+                    return;
+                }
+                retryCounter.increment();
+                logger.warn("Audit store insert of {} event(s) failed (attempt {} of {}), retrying in {} ms: {}",
+                        batch.size(), attempt, maxAttempts, backoff, e.getMessage());
+                if (!sleep(backoff)) {
+                    drop(batch.size());
+                    return;
+                }
+                backoff = Math.min(backoff * 2, retryMaxMillis);
+            }
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        for (int from = 0; from < batch.size(); from += rowsPerInsert) {
+            List<AuditEvent> rows = batch.subList(from, Math.min(batch.size(), from + rowsPerInsert));
+            String sql = rows.size() == rowsPerInsert ? fullInsert : insertFor(rows.size());
+            jdbcTemplate.update(sql, statement -> bind(statement, rows));
+        }
+    }
+
+    private void drop(int events) {
+        droppedCounter.increment(events);
+        settledEvents.addAndGet(events);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Inserts what is still queued. The pipeline has already drained into this sink by the
+     * time this runs, because it depends on this bean and is therefore destroyed first.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        flusher.join(STOP_TIMEOUT_MILLIS);
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            logger.warn("Audit store did not drain within {} ms, {} batch(es) left", STOP_TIMEOUT_MILLIS, queue.size());
+        }
+    }
+
+    private void bind(PreparedStatement statement, List<AuditEvent> rows) throws SQLException {
+        int index = 1;
+        for (AuditEvent event : rows) {
+            LocalDateTime eventTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault());
+            statement.setTimestamp(index++, Timestamp.valueOf(eventTime));
+            statement.setString(index++, event.getType().name());
+            statement.setString(index++, event.getLevel().name());
+            setString(statement, index++, event.getField("username"), 100);
+            setLong(statement, index++, event.getField("walletId"));
+            setLong(statement, index++, event.getField("transactionId"));
+            setLong(statement, index++, event.getField("customerId"));
+            statement.setString(index++, truncate(event.getMessage(), MESSAGE_LENGTH));
+            statement.setString(index++, truncate(details(event), DETAILS_LENGTH));
+        }
+    }
+
+    private String details(AuditEvent event) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (int i = 0; i < event.getFieldCount(); i++) {
+            String name = event.getFieldName(i);
+            if (!isColumn(name)) {
+                Object value = event.getFieldValue(i);
+                details.put(name, value == null ? null : value.toString());
+            }
+        }
+        if (event.getContext() != null) {
+            details.put("context", event.getContext());
+        }
+        if (details.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static boolean isColumn(String field) {
+        return field.equals("username") || field.equals("walletId")
+                || field.equals("transactionId") || field.equals("customerId");
+    }
+
+    private static void setString(PreparedStatement statement, int index, Object value, int maxLength) throws SQLException {
+        statement.setString(index, value == null ? null : truncate(value.toString(), maxLength));
+    }
+
+    private static void setLong(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value instanceof Long longValue) {
+            statement.setLong(index, longValue);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static String insertFor(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,367 @@
+package com.ing.walletservice.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes audit batches as JSON lines to {@code <directory>/wallet-service-audit.jsonl}.
+ *
+ * A batch is serialized into memory, hashed into the {@link AuditHashChain}, and pushed to
+ * the file together with its {@code @chain} record (and a {@code @segment} record when a
+ * segment fills up) with a single flush, optionally followed by an fsync. The active file
+ * is rolled to {@code wallet-service-audit.<date>.<index>.jsonl} when the UTC day changes
+ * or it grows past the configured size; the open segment is sealed first, so every file
+ * holds whole segments. Rolled files older than the retention window are deleted.
+ */
+@Component
+public class JsonlAuditFileSink implements AuditSink, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonlAuditFileSink.class);
+
+    static final String BASE_NAME = "wallet-service-audit";
+    private static final String EXTENSION = ".jsonl";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final Path activeFile;
+    private final long maxFileBytes;
+    private final int maxHistoryDays;
+    private final boolean fsync;
+    private final AuditHashChain chain;
+    private final BatchBuffer batchBuffer = new BatchBuffer();
+    private final JsonFactory jsonFactory = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    private FileOutputStream file;
+    private JsonGenerator generator;
+    private LocalDate fileDay;
+    private boolean chainRecovered;
+
+    public JsonlAuditFileSink(@Value("${app.audit.directory:logs}") String directory,
+                              @Value("${app.audit.max-file-size-mb:10}") long maxFileSizeMb,
+                              @Value("${app.audit.max-history-days:90}") int maxHistoryDays,
+                              @Value("${app.audit.fsync:false}") boolean fsync,
+                              @Value("${app.audit.chain.segment-batches:1024}") int segmentBatches) {
+        this.directory = Paths.get(directory);
+        this.activeFile = activeFile(this.directory);
+        this.maxFileBytes = maxFileSizeMb * 1024 * 1024;
+        this.maxHistoryDays = maxHistoryDays;
+        this.fsync = fsync;
+        this.chain = new AuditHashChain(segmentBatches);
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (generator == null) {
+            open(today);
+        } else if (!today.equals(fileDay) || file.getChannel().position() >= maxFileBytes) {
+            roll(today);
+        }
+        long position = file.getChannel().position();
+        try {
+            for (AuditEvent event : batch) {
+                writeEvent(event);
+            }
+            generator.flush();
+            AuditHashChain.Link link = chain.link(batchBuffer.buffer(), batchBuffer.size(), batch.size());
+            writeChainRecord(link);
+            AuditHashChain.Segment segment = chain.nextLinkFillsSegment() ? chain.seal(link) : null;
+            if (segment != null) {
+                writeSegmentRecord(segment);
+            }
+            flushToFile();
+            chain.commit(link, segment);
+            logSealed(segment);
+        } catch (IOException | RuntimeException e) {
+            discard(position);
+            throw e;
+        }
+    }
+
+    private void flushToFile() throws IOException {
+        generator.flush();
+        batchBuffer.writeTo(file);
+        batchBuffer.reset();
+        if (fsync) {
+            file.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Drops a batch that failed half way: the buffered bytes and the generator state are
+     * thrown away and anything that reached the file is cut off again, so the next batch
+     * links to the last batch that is actually on disk.
+     */
+    private void discard(long position) {
+        batchBuffer.reset();
+        try {
+            generator = newGenerator();
+            if (file.getChannel().size() > position) {
+                file.getChannel().truncate(position);
+            }
+        } catch (IOException e) {
+            logger.error("Could not discard a failed audit batch from {}: {}", activeFile.getFileName(), e.getMessage());
+        }
+    }
+
+    private void writeChainRecord(AuditHashChain.Link link) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart(AuditHashChain.CHAIN_FIELD);
+        generator.writeNumberField("batch", link.batch);
+        generator.writeNumberField("events", link.events);
+        generator.writeStringField("prev", AuditHashChain.hex(link.previous));
+        generator.writeStringField("hash", AuditHashChain.hex(link.hash));
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeSegmentRecord(AuditHashChain.Segment segment) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart(AuditHashChain.SEGMENT_FIELD);
+        generator.writeNumberField("index", segment.index);
+        generator.writeNumberField("firstBatch", segment.firstBatch);
+        generator.writeNumberField("batches", segment.batches);
+        generator.writeStringField("root", AuditHashChain.hex(segment.root));
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void logSealed(AuditHashChain.Segment segment) {
+        if (segment != null) {
+            logger.info("Sealed audit segment {} (batches {} to {}) with Merkle root {}", segment.index,
+                    segment.firstBatch, segment.firstBatch + segment.batches - 1, AuditHashChain.hex(segment.root));
+        }
+    }
+
+    private void sealOpenSegment() throws IOException {
+        if (generator != null && chain.segmentOpen()) {
+            long position = file.getChannel().position();
+            AuditHashChain.Segment segment = chain.seal(null);
+            try {
+                writeSegmentRecord(segment);
+                flushToFile();
+            } catch (IOException | RuntimeException e) {
+                discard(position);
+                throw e;
+            }
+            chain.commit(null, segment);
+            logSealed(segment);
+        }
+    }
+
+    private void writeEvent(AuditEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("@timestamp",
+                DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(event.getTimestamp())));
+        generator.writeStringField("level", event.getLevel().name());
+        generator.writeStringField("eventType", event.getType().name());
+        generator.writeStringField("message", event.getMessage());
+        for (int i = 0; i < event.getFieldCount(); i++) {
+            writeField(event.getFieldName(i), event.getFieldValue(i));
+        }
+        Map<String, String> context = event.getContext();
+        if (context != null) {
+            generator.writeObjectFieldStart("context");
+            for (Map.Entry<String, String> entry : context.entrySet()) {
+                generator.writeStringField(entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeField(String name, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else if (value instanceof Long longValue) {
+            generator.writeNumberField(name, longValue);
+        } else if (value instanceof BigDecimal decimal) {
+            generator.writeNumberField(name, decimal);
+        } else {
+            generator.writeStringField(name, value.toString());
+        }
+    }
+
+    private void open(LocalDate today) throws IOException {
+        Files.createDirectories(directory);
+        boolean unchainedTail = false;
+        if (!chainRecovered) {
+            unchainedTail = recoverChain();
+            chainRecovered = true;
+        }
+        if (Files.exists(activeFile)) {
+            LocalDate lastWritten = Files.getLastModifiedTime(activeFile).toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+            if (!lastWritten.equals(today) || unchainedTail) {
+                openFile();
+                sealOpenSegment();
+                closeFile();
+                rename(lastWritten);
+            }
+        }
+        openFile();
+        fileDay = today;
+    }
+
+    private void openFile() throws IOException {
+        file = openStream(activeFile);
+        generator = newGenerator();
+    }
+
+    FileOutputStream openStream(Path path) throws IOException {
+        return new FileOutputStream(path.toFile(), true);
+    }
+
+    private JsonGenerator newGenerator() throws IOException {
+        JsonGenerator created = jsonFactory.createGenerator(batchBuffer);
+        created.setRootValueSeparator(null);
+        return created;
+    }
+
+    private void roll(LocalDate today) throws IOException {
+        sealOpenSegment();
+        closeFile();
+        rename(fileDay);
+        deleteExpired(today);
+        open(today);
+    }
+
+    /**
+     * Continues the chain of the newest existing audit file. Returns {@code true} if the
+     * active file's last batch was cut short by a crash; it is then sealed and rolled aside
+     * so the new file starts on a clean link.
+     */
+    private boolean recoverChain() throws IOException {
+        Path latest = Files.exists(activeFile) ? activeFile : newestRolledFile();
+        if (latest == null) {
+            return false;
+        }
+        boolean unchainedTail = chain.recover(latest, new ObjectMapper());
+        logger.info("Continuing audit hash chain from {} at batch {}", latest.getFileName(), chain.nextBatch());
+        if (unchainedTail) {
+            logger.warn("Audit file {} ends with unchained event lines, rolling it aside", latest.getFileName());
+        }
+        return unchainedTail && latest.equals(activeFile);
+    }
+
+    private Path newestRolledFile() throws IOException {
+        return rolledFiles(directory).stream().reduce((first, second) -> second).orElse(null);
+    }
+
+    /**
+     * Rolled audit files in the order they were written.
+     */
+    static List<Path> rolledFiles(Path directory) throws IOException {
+        List<Path> rolled = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, BASE_NAME + ".*" + EXTENSION)) {
+            for (Path path : paths) {
+                if (path.getFileName().toString().split("\\.").length == 4) {
+                    rolled.add(path);
+                }
+            }
+        }
+        rolled.sort(Comparator.comparing((Path path) -> path.getFileName().toString().split("\\.")[1])
+                .thenComparingInt(path -> Integer.parseInt(path.getFileName().toString().split("\\.")[2])));
+        return rolled;
+    }
+
+    static Path activeFile(Path directory) {
+        return directory.resolve(BASE_NAME + EXTENSION);
+    }
+
+    private void rename(LocalDate day) throws IOException {
+        int index = 0;
+        Path target;
+        do {
+            target = directory.resolve(BASE_NAME + "." + day + "." + index++ + EXTENSION);
+        } while (Files.exists(target));
+        Files.move(activeFile, target, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Rolled audit file to {}", target.getFileName());
+    }
+
+    private void deleteExpired(LocalDate today) {
+        LocalDate oldestKept = today.minusDays(maxHistoryDays);
+        try (DirectoryStream<Path> rolled = Files.newDirectoryStream(directory, BASE_NAME + ".*" + EXTENSION)) {
+            for (Path path : rolled) {
+                String name = path.getFileName().toString();
+                String[] parts = name.split("\\.");
+                if (parts.length < 4) {
+                    continue;
+                }
+                try {
+                    if (LocalDate.parse(parts[1]).isBefore(oldestKept)) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (DateTimeParseException e) {
+                    logger.debug("Skipping unexpected audit file {}", name);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not apply audit file retention in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void closeFile() throws IOException {
+        if (generator != null) {
+            generator.close();
+            batchBuffer.writeTo(file);
+            batchBuffer.reset();
+            file.close();
+            generator = null;
+            file = null;
+        }
+    }
+
+    /**
+     * Seals the open segment and closes the active file. The pipeline has already drained
+     * by the time this runs, because it depends on this bean and is therefore destroyed first.
+     */
+    @Override
+    public void destroy() throws IOException {
+        sealOpenSegment();
+        closeFile();
+    }
+
+    /**
+     * Serialization buffer whose contents can be hashed without copying.
+     */
+    private static final class BatchBuffer extends ByteArrayOutputStream {
+
+        BatchBuffer() {
+            super(BUFFER_SIZE);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ing.walletservice.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-endpoint rate limits, bound from {@code app.rate-limit.*}. Rules are matched in order
+ * and the first rule whose method and path pattern match a request applies. Rules are
+ * validated at startup: a zero refill rate or capacity would make the bucket arithmetic
+ * overflow and admit or reject requests arbitrarily.
+ */
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    private long idleEvictionSeconds = 600;
+    private long maxBuckets = 100_000;
+    @Valid
+    private List<Rule> rules = new ArrayList<>();
+    
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getIdleEvictionSeconds() {
+        return idleEvictionSeconds;
+    }
+    
+    public void setIdleEvictionSeconds(long idleEvictionSeconds) {
+        this.idleEvictionSeconds = idleEvictionSeconds;
+    }
+    
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+    
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+    
+    public List<Rule> getRules() {
+        return rules;
+    }
+    
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+    
+    public static class Rule {
+        
+        // HTTP method to match, or null for any method
+        private String method;
+        @NotBlank
+        private String path;
+        @Positive
+        private int capacity;
+        @Positive
+        private double refillPerSecond;
+        
+        // Constructors
+        public Rule() {}
+        
+        public Rule(String method, String path, int capacity, double refillPerSecond) {
+            this.method = method;
+            this.path = path;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+        
+        // Getters and Setters
+        public String getMethod() {
+            return method;
+        }
+        
+        public void setMethod(String method) {
+            this.method = method;
+        }
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public void setPath(String path) {
+            this.path = path;
+        }
+        
+        public int getCapacity() {
+            return capacity;
+        }
+        
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+        
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
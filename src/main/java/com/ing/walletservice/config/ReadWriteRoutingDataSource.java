@@ -0,0 +1,117 @@
+package com.ing.walletservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Routes read-only transactions to the replica pool and everything else to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the target is only chosen when the first
+ * statement runs, after the transaction manager has marked the transaction read-only. The
+ * choice holds for as long as the connection does, which is one transaction because
+ * open-in-view is off; a session kept open across transactions would carry a replica
+ * connection into later writes.
+ *
+ * Read-your-writes: when a user's read-write transaction commits they are pinned to the
+ * primary for a short window, so their next reads never hit a replica that lags behind.
+ * The window starts at the commit rather than at the first statement, so a write that waits
+ * long on a row lock still leaves its user pinned afterwards.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+    
+    // Expired pins are normally dropped on the user's next read; sweep when the map grows past this
+    private static final int PIN_SWEEP_THRESHOLD = 10_000;
+    
+    private final long pinWindowNanos;
+    private final ConcurrentMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    
+    private final Counter primaryWrites;
+    private final Counter primaryPinnedReads;
+    private final Counter replicaReads;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long pinWindowMillis,
+                                      MeterRegistry meterRegistry) {
+        this.pinWindowNanos = pinWindowMillis * 1_000_000L;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        
+        this.primaryWrites = routingCounter(meterRegistry, "primary", "write");
+        this.primaryPinnedReads = routingCounter(meterRegistry, "primary", "pinned");
+        this.replicaReads = routingCounter(meterRegistry, "replica", "read");
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        
+        if (!readOnly) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        pin(user);
+                    }
+                });
+            }
+            primaryWrites.increment();
+            return Target.PRIMARY;
+        }
+        
+        if (user != null && isPinned(user)) {
+            primaryPinnedReads.increment();
+            return Target.PRIMARY;
+        }
+        
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+    
+    private void pin(String user) {
+        long now = System.nanoTime();
+        pinnedUntil.put(user, now + pinWindowNanos);
+        if (pinnedUntil.size() > PIN_SWEEP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until - now <= 0);
+        }
+    }
+    
+    private boolean isPinned(String user) {
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(user, until);
+        return false;
+    }
+    
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+    
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("wallet.datasource.routing")
+                .description("Connections routed by the read/write routing data source")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
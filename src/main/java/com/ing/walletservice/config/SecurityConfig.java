@@ -1,9 +1,19 @@
 package com.ing.walletservice.config;
 
 import com.ing.walletservice.security.AuthTokenFilter;
+import com.ing.walletservice.security.CachedUserDetailsService;
 import com.ing.walletservice.security.CustomUserDetailsService;
 import com.ing.walletservice.security.JwtUtils;
+import com.ing.walletservice.security.RateLimitFilter;
+import com.ing.walletservice.security.TokenRevocationList;
+import com.ing.walletservice.security.TokenVersionRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,6 +31,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.Arrays;
 
 @Configuration
@@ -36,13 +48,35 @@ public class SecurityConfig {
     @Value("${app.cors.enabled:true}")
     private boolean corsEnabled;
     
+    // Separate actuator port; -1 when actuator shares the application port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+    
     public SecurityConfig(CustomUserDetailsService userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
     
     @Bean
-    public AuthTokenFilter authenticationJwtTokenFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService) {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+    public AuthTokenFilter authenticationJwtTokenFilter(JwtUtils jwtUtils, CachedUserDetailsService userDetailsService,
+                                                        TokenVersionRegistry tokenVersionRegistry,
+                                                        TokenRevocationList tokenRevocationList,
+                                                        ObservationRegistry observationRegistry) {
+        return new AuthTokenFilter(jwtUtils, userDetailsService, tokenVersionRegistry, tokenRevocationList,
+                observationRegistry);
+    }
+    
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties rateLimitProperties, ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) {
+        return new RateLimitFilter(rateLimitProperties, objectMapper, meterRegistry);
+    }
+    
+    // The filter only runs inside the security chain, after the principal has been resolved
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
     }
     
     @Bean
@@ -66,7 +100,9 @@ public class SecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, AuthTokenFilter authTokenFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthTokenFilter authTokenFilter,
+                                           RateLimitFilter rateLimitFilter,
+                                           RateLimitProperties rateLimitProperties) throws Exception {
         // Configure CORS based on profile
         if (corsEnabled) {
             http.cors(cors -> cors
@@ -80,10 +116,14 @@ public class SecurityConfig {
         
         http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async dispatches finish event streams that were authorized when they were opened
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                .requestMatchers(this::isLocalPrometheusScrape).permitAll()
+                .requestMatchers("/actuator/**").hasRole("EMPLOYEE")
                 .anyRequest().authenticated()
             );
         
@@ -93,10 +133,30 @@ public class SecurityConfig {
         
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitProperties.isEnabled()) {
+            http.addFilterAfter(rateLimitFilter, AuthTokenFilter.class);
+        }
         
         return http.build();
     }
     
+    /**
+     * Prometheus is scraped without a token only from the same host, on the separate
+     * management port. On the application port it needs an EMPLOYEE token like the rest
+     * of the actuator.
+     */
+    private boolean isLocalPrometheusScrape(HttpServletRequest request) {
+        if (managementPort <= 0 || request.getLocalPort() != managementPort
+                || !"/actuator/prometheus".equals(request.getRequestURI())) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         if (!corsEnabled) {
@@ -115,9 +175,10 @@ public class SecurityConfig {
             "Accept", 
             "Origin", 
             "Access-Control-Request-Method", 
-            "Access-Control-Request-Headers"
+            "Access-Control-Request-Headers",
+            "If-None-Match"
         ));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag"));
         configuration.setAllowCredentials(false); // No cookies, no credentials needed
         configuration.setMaxAge(3600L); // Cache preflight response for 1 hour
         
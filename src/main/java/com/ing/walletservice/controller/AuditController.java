@@ -0,0 +1,40 @@
+package com.ing.walletservice.controller;
+
+import com.ing.walletservice.dto.request.AuditSearchRequest;
+import com.ing.walletservice.dto.response.ApiResponse;
+import com.ing.walletservice.dto.response.AuditEventResponse;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
+import com.ing.walletservice.service.AuditQueryService;
+import io.micrometer.observation.annotation.Observed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Observed(name = "wallet.controller")
+@RequestMapping("/api/audit")
+@Tag(name = "Audit", description = "Audit trail API")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AuditController {
+    
+    private final AuditQueryService auditQueryService;
+    
+    public AuditController(AuditQueryService auditQueryService) {
+        this.auditQueryService = auditQueryService;
+    }
+    
+    @GetMapping("/events")
+    @Operation(summary = "Search audit events by wallet, transaction, user, type and time range (employee only)")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<AuditEventResponse>>> searchEvents(
+            @ModelAttribute AuditSearchRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
+        CursorPagedResponse<AuditEventResponse> events =
+                auditQueryService.searchEvents(request, cursor, size, authentication);
+        return ResponseEntity.ok(ApiResponse.success("Audit events retrieved successfully", events));
+    }
+}
@@ -2,77 +2,128 @@ package com.ing.walletservice.controller;
 
 import com.ing.walletservice.audit.AuditLogger;
 import com.ing.walletservice.dto.request.LoginRequest;
+import com.ing.walletservice.dto.request.RefreshTokenRequest;
 import com.ing.walletservice.dto.response.ApiResponse;
 import com.ing.walletservice.dto.response.LoginResponse;
+import com.ing.walletservice.exception.TooManyRequestsException;
 import com.ing.walletservice.security.JwtUtils;
+import com.ing.walletservice.security.LoginExecutor;
+import com.ing.walletservice.security.LoginThrottle;
 import com.ing.walletservice.security.UserPrincipal;
+import com.ing.walletservice.service.TokenService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
+@Observed(name = "wallet.controller")
 @RequestMapping("/api/auth")
 public class AuthController {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     
-    private final AuthenticationManager authenticationManager;
+    private final LoginExecutor loginExecutor;
+    private final LoginThrottle loginThrottle;
+    private final TokenService tokenService;
     private final JwtUtils jwtUtils;
     private final AuditLogger auditLogger;
     
-    public AuthController(AuthenticationManager authenticationManager, JwtUtils jwtUtils, AuditLogger auditLogger) {
-        this.authenticationManager = authenticationManager;
+    public AuthController(LoginExecutor loginExecutor, LoginThrottle loginThrottle, TokenService tokenService,
+                          JwtUtils jwtUtils, AuditLogger auditLogger) {
+        this.loginExecutor = loginExecutor;
+        this.loginThrottle = loginThrottle;
+        this.tokenService = tokenService;
         this.jwtUtils = jwtUtils;
         this.auditLogger = auditLogger;
     }
     
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResponse>>> authenticateUser(
+            @Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        String username = loginRequest.getUsername();
+        String clientIp = request.getRemoteAddr();
+        logger.info("Authentication attempt for user: {}", username);
+        
+        long retryAfter = loginThrottle.retryAfterSeconds(username, clientIp);
+        if (retryAfter > 0) {
+            auditLogger.logAuthenticationFailure(username, "Locked out after repeated failures");
+            logger.warn("Authentication rejected for user {} from {}: locked out", username, clientIp);
+            throw new TooManyRequestsException("Too many failed login attempts, please retry later", retryAfter);
+        }
+        
+        return loginExecutor.authenticate(new UsernamePasswordAuthenticationToken(username, loginRequest.getPassword()))
+                .handle((authentication, error) -> error == null
+                        ? loginSucceeded(authentication)
+                        : loginFailed(username, clientIp, error instanceof CompletionException ? error.getCause() : error));
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<LoginResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
         try {
-            logger.info("Authentication attempt for user: {}", loginRequest.getUsername());
-            
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
-            
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
-            
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            String role = userPrincipal.getAuthorities().iterator().next().getAuthority();
-            
-            LoginResponse response = new LoginResponse(jwt, userPrincipal.getId(), 
-                                                     userPrincipal.getUsername(), role);
-            
-            auditLogger.logAuthenticationSuccess(userPrincipal.getUsername(), role);
-            logger.info("User {} successfully authenticated with role {}", 
-                       userPrincipal.getUsername(), role);
-            
-            return ResponseEntity.ok(ApiResponse.success("Login successful", response));
-            
+            LoginResponse response = tokenService.refresh(request.getRefreshToken());
+            logger.info("Tokens refreshed for user {}", response.getUsername());
+            return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", response));
         } catch (BadCredentialsException e) {
-            auditLogger.logAuthenticationFailure(loginRequest.getUsername(), "Invalid credentials");
-            logger.warn("Authentication failed for user {}: Invalid credentials", loginRequest.getUsername());
+            logger.warn("Token refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(401)
+                    .body(ApiResponse.error("Invalid refresh token"));
+        }
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                                    @RequestHeader(value = "Authorization", required = false) String authorization) {
+        Claims accessTokenClaims = authorization != null && authorization.startsWith("Bearer ")
+                ? jwtUtils.verifyJwtToken(authorization.substring(7))
+                : null;
+        tokenService.logout(request.getRefreshToken(), accessTokenClaims);
+        logger.info("User {} logged out", accessTokenClaims != null ? accessTokenClaims.getSubject() : "unknown");
+        return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
+    }
+    
+    private ResponseEntity<ApiResponse<LoginResponse>> loginSucceeded(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        LoginResponse response = tokenService.issueTokens(userPrincipal);
+        String role = response.getRole();
+        
+        loginThrottle.recordSuccess(userPrincipal.getUsername());
+        auditLogger.logAuthenticationSuccess(userPrincipal.getUsername(), role);
+        logger.info("User {} successfully authenticated with role {}", 
+                   userPrincipal.getUsername(), role);
+        
+        return ResponseEntity.ok(ApiResponse.success("Login successful", response));
+    }
+    
+    private ResponseEntity<ApiResponse<LoginResponse>> loginFailed(String username, String clientIp, Throwable e) {
+        if (e instanceof BadCredentialsException) {
+            loginThrottle.recordFailure(username, clientIp);
+            auditLogger.logAuthenticationFailure(username, "Invalid credentials");
+            logger.warn("Authentication failed for user {}: Invalid credentials", username);
             return ResponseEntity.status(401)
                     .body(ApiResponse.error("Invalid username or password"));
-        } catch (AuthenticationException e) {
-            auditLogger.logAuthenticationFailure(loginRequest.getUsername(), e.getMessage());
-            logger.error("Authentication failed for user {}: {}", loginRequest.getUsername(), e.getMessage());
+        } else if (e instanceof AuthenticationException) {
+            loginThrottle.recordFailure(username, clientIp);
+            auditLogger.logAuthenticationFailure(username, e.getMessage());
+            logger.error("Authentication failed for user {}: {}", username, e.getMessage());
             return ResponseEntity.status(401)
                     .body(ApiResponse.error("Authentication failed"));
-        } catch (Exception e) {
-            logger.error("Unexpected error during authentication for user {}: {}", 
-                        loginRequest.getUsername(), e.getMessage(), e);
-            return ResponseEntity.status(500)
-                    .body(ApiResponse.error("An unexpected error occurred"));
         }
+        logger.error("Unexpected error during authentication for user {}: {}", 
+                    username, e.getMessage(), e);
+        return ResponseEntity.status(500)
+                .body(ApiResponse.error("An unexpected error occurred"));
     }
 }
@@ -2,10 +2,17 @@ package com.ing.walletservice.controller;
 
 import com.ing.walletservice.dto.request.ApprovalRequest;
 import com.ing.walletservice.dto.request.DepositRequest;
+import com.ing.walletservice.dto.request.TransactionSearchRequest;
 import com.ing.walletservice.dto.request.WithdrawRequest;
 import com.ing.walletservice.dto.response.ApiResponse;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
+import com.ing.walletservice.dto.response.PagedResponse;
+import com.ing.walletservice.dto.response.PendingDashboardResponse;
 import com.ing.walletservice.dto.response.TransactionResponse;
+import com.ing.walletservice.service.PendingQueueService;
 import com.ing.walletservice.service.TransactionService;
+import com.ing.walletservice.service.WalletVersionService;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,20 +20,27 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
 
 @RestController
+@Observed(name = "wallet.controller")
 @RequestMapping("/api/transactions")
 @Tag(name = "Transaction", description = "Transaction management API")
 @SecurityRequirement(name = "Bearer Authentication")
 public class TransactionController {
     
     private final TransactionService transactionService;
+    private final PendingQueueService pendingQueueService;
+    private final WalletVersionService walletVersionService;
     
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, PendingQueueService pendingQueueService,
+                                 WalletVersionService walletVersionService) {
         this.transactionService = transactionService;
+        this.pendingQueueService = pendingQueueService;
+        this.walletVersionService = walletVersionService;
     }
     
     @PostMapping("/deposit")
@@ -53,11 +67,55 @@ public class TransactionController {
     @Operation(summary = "List transactions for a wallet")
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> listTransactions(
             @PathVariable Long walletId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
+        // Take the ETag before loading so a concurrent change can only make it stale, never the data
+        String etag = walletVersionService.transactionsETag(walletId);
+        // checkNotModified sets the 304 status and ETag header on the response
+        if (walletVersionService.isKnownReadable(walletId, authentication) && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
         List<TransactionResponse> transactions = transactionService.listTransactions(walletId, authentication);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(ApiResponse.success("Transactions retrieved successfully", transactions));
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search transactions across all wallets (employee only)")
+    public ResponseEntity<ApiResponse<PagedResponse<TransactionResponse>>> searchTransactions(
+            @ModelAttribute TransactionSearchRequest request,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        PagedResponse<TransactionResponse> transactions = 
+                transactionService.searchTransactions(request, page, size, authentication);
         return ResponseEntity.ok(ApiResponse.success("Transactions retrieved successfully", transactions));
     }
     
+    @GetMapping("/counterparty")
+    @Operation(summary = "Find transactions to or from an IBAN or IBAN prefix across all wallets (employee only)")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<TransactionResponse>>> searchByCounterparty(
+            @RequestParam String iban,
+            @RequestParam(defaultValue = "false") boolean prefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        CursorPagedResponse<TransactionResponse> transactions =
+                transactionService.searchByCounterparty(iban, prefix, cursor, size, authentication);
+        return ResponseEntity.ok(ApiResponse.success("Transactions retrieved successfully", transactions));
+    }
+    
+    @GetMapping("/pending/dashboard")
+    @Operation(summary = "Pending approval queue totals by currency, wallet and age (employee only)")
+    public ResponseEntity<ApiResponse<PendingDashboardResponse>> getPendingDashboard(
+            @RequestParam(defaultValue = "10") int topWallets,
+            Authentication authentication) {
+        PendingDashboardResponse dashboard = pendingQueueService.getDashboard(topWallets, authentication);
+        return ResponseEntity.ok(ApiResponse.success("Pending dashboard retrieved successfully", dashboard));
+    }
+    
     @PostMapping("/approve")
     @Operation(summary = "Approve or deny a pending transaction")
     public ResponseEntity<ApiResponse<TransactionResponse>> approveTransaction(
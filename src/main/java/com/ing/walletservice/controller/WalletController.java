@@ -1,32 +1,58 @@
 package com.ing.walletservice.controller;
 
 import com.ing.walletservice.dto.request.CreateWalletRequest;
+import com.ing.walletservice.dto.request.WalletSearchRequest;
 import com.ing.walletservice.dto.response.ApiResponse;
+import com.ing.walletservice.dto.response.BalanceAsOfResponse;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
 import com.ing.walletservice.dto.response.WalletResponse;
+import com.ing.walletservice.dto.response.WalletStatementResponse;
 import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.security.UserPrincipal;
+import com.ing.walletservice.service.BalanceCheckpointService;
+import com.ing.walletservice.service.WalletEventBroadcaster;
 import com.ing.walletservice.service.WalletService;
+import com.ing.walletservice.service.WalletStatementService;
+import com.ing.walletservice.service.WalletVersionService;
+import io.micrometer.observation.annotation.Observed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
+@Observed(name = "wallet.controller")
 @RequestMapping("/api/wallets")
 @Tag(name = "Wallet", description = "Wallet management API")
 @SecurityRequirement(name = "Bearer Authentication")
 public class WalletController {
     
     private final WalletService walletService;
+    private final WalletStatementService walletStatementService;
+    private final WalletVersionService walletVersionService;
+    private final WalletEventBroadcaster walletEventBroadcaster;
+    private final BalanceCheckpointService balanceCheckpointService;
     
-    public WalletController(WalletService walletService) {
+    public WalletController(WalletService walletService, WalletStatementService walletStatementService,
+                            WalletVersionService walletVersionService, WalletEventBroadcaster walletEventBroadcaster,
+                            BalanceCheckpointService balanceCheckpointService) {
         this.walletService = walletService;
+        this.walletStatementService = walletStatementService;
+        this.walletVersionService = walletVersionService;
+        this.walletEventBroadcaster = walletEventBroadcaster;
+        this.balanceCheckpointService = balanceCheckpointService;
     }
     
     @PostMapping
@@ -45,8 +71,33 @@ public class WalletController {
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) Wallet.Currency currency,
             @RequestParam(required = false) BigDecimal minBalance,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
+        // Customers always list their own wallets; employees must name the customer
+        Long principalId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        Long targetCustomerId = customerId != null ? customerId : principalId;
+        String etag = walletVersionService.walletListETag(targetCustomerId, currency, minBalance);
+        
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        boolean mayShortCircuit = isEmployee ? customerId != null : targetCustomerId.equals(principalId);
+        if (mayShortCircuit && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
         List<WalletResponse> wallets = walletService.listWallets(customerId, currency, minBalance, authentication);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(ApiResponse.success("Wallets retrieved successfully", wallets));
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search wallets across all customers with keyset pagination (employee only)")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<WalletResponse>>> searchWallets(
+            @ModelAttribute WalletSearchRequest request,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        CursorPagedResponse<WalletResponse> wallets = walletService.searchWallets(request, size, authentication);
         return ResponseEntity.ok(ApiResponse.success("Wallets retrieved successfully", wallets));
     }
     
@@ -54,8 +105,47 @@ public class WalletController {
     @Operation(summary = "Get wallet by ID")
     public ResponseEntity<ApiResponse<WalletResponse>> getWallet(
             @PathVariable Long walletId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
+        // Take the ETag before loading so a concurrent change can only make it stale, never the data
+        String etag = walletVersionService.walletETag(walletId);
+        // checkNotModified sets the 304 status and ETag header on the response
+        if (walletVersionService.isKnownReadable(walletId, authentication) && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
         WalletResponse wallet = walletService.getWallet(walletId, authentication);
-        return ResponseEntity.ok(ApiResponse.success("Wallet retrieved successfully", wallet));
+        walletVersionService.rememberOwner(walletId, wallet.getCustomerId());
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(ApiResponse.success("Wallet retrieved successfully", wallet));
+    }
+    
+    @GetMapping("/{walletId}/statement")
+    @Operation(summary = "Get daily deposit and withdrawal totals for a wallet")
+    public ResponseEntity<ApiResponse<WalletStatementResponse>> getStatement(
+            @PathVariable Long walletId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        WalletStatementResponse statement = walletStatementService.getStatement(walletId, from, to, authentication);
+        return ResponseEntity.ok(ApiResponse.success("Statement retrieved successfully", statement));
+    }
+    
+    @GetMapping("/{walletId}/balance")
+    @Operation(summary = "Get a wallet's balance and usable balance at a point in time")
+    public ResponseEntity<ApiResponse<BalanceAsOfResponse>> getBalanceAsOf(
+            @PathVariable Long walletId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            Authentication authentication) {
+        BalanceAsOfResponse balance = balanceCheckpointService.getBalanceAsOf(walletId, asOf, authentication);
+        return ResponseEntity.ok(ApiResponse.success("Balance retrieved successfully", balance));
+    }
+    
+    @GetMapping("/{walletId}/events")
+    @Operation(summary = "Stream balance and transaction status changes for a wallet as Server-Sent Events")
+    public SseEmitter streamEvents(@PathVariable Long walletId, Authentication authentication) {
+        // getWallet enforces ownership and provides the initial snapshot once the stream is registered
+        return walletEventBroadcaster.subscribe(walletId, () -> walletService.getWallet(walletId, authentication));
     }
 }
@@ -0,0 +1,23 @@
+package com.ing.walletservice.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.math.BigDecimal;
+
+@Name("com.ing.walletservice.Approval")
+@Label("Approval")
+@Description("Pending transaction approved or denied; status is the decision")
+public class ApprovalEvent extends WalletOperationEvent {
+
+    @Label("Transaction Id")
+    long transactionId;
+
+    public void complete(Long transactionId, Long walletId, BigDecimal amount, Enum<?> status) {
+        if (isEnabled()) {
+            this.transactionId = transactionId != null ? transactionId : 0;
+        }
+        complete(walletId, amount, status);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ing.walletservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ing.walletservice.AuditWrite")
+@Label("Audit Write")
+@Description("One audit batch written to one sink on the audit writer thread")
+@Category({"Wallet Service", "Audit"})
+@StackTrace(false)
+public class AuditWriteEvent extends Event {
+
+    @Label("Sink")
+    public String sink;
+
+    @Label("Events")
+    public int events;
+
+    @Label("Failed")
+    public boolean failed;
+}
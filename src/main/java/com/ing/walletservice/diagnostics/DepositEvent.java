@@ -0,0 +1,11 @@
+package com.ing.walletservice.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ing.walletservice.Deposit")
+@Label("Deposit")
+@Description("Deposit created; status is the initial transaction status")
+public class DepositEvent extends WalletOperationEvent {
+}
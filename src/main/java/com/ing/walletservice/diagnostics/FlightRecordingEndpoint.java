@@ -0,0 +1,150 @@
+package com.ing.walletservice.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts and stops a Java Flight Recorder recording at {@code /actuator/flightrecording}.
+ *
+ * <ul>
+ *   <li>{@code POST} starts a recording with the JDK {@code default} or {@code profile}
+ *       settings; the wallet service events are enabled in both.</li>
+ *   <li>{@code DELETE} stops it and dumps it to {@code app.jfr.directory}.</li>
+ *   <li>{@code GET} reports the state, {@code GET /{file}} downloads the last dump.</li>
+ * </ul>
+ *
+ * Only one recording runs at a time and only the last dump is kept. A running recording
+ * keeps at most {@code app.jfr.max-age-minutes} of data, so one left running is bounded.
+ */
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingEndpoint.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final String defaultSettings;
+    private final Duration maxAge;
+
+    private Recording recording;
+    private Path lastDump;
+
+    public FlightRecordingEndpoint(@Value("${app.jfr.directory:logs}") String directory,
+                                   @Value("${app.jfr.settings:profile}") String defaultSettings,
+                                   @Value("${app.jfr.max-age-minutes:30}") long maxAgeMinutes) {
+        this.directory = Paths.get(directory);
+        this.defaultSettings = defaultSettings;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? RecordingState.CLOSED.name() : recording.getState().name());
+        if (recording != null) {
+            status.put("name", recording.getName());
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+        }
+        if (lastDump != null) {
+            status.put("file", lastDump.getFileName().toString());
+            status.put("fileSize", lastDump.toFile().length());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        String settingsName = settings != null ? settings : defaultSettings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            logger.warn("Unknown flight recorder settings {}: {}", settingsName, e.getMessage());
+            return new WebEndpointResponse<>(Map.of("error", "Unknown settings: " + settingsName),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        closeRecording();
+        recording = new Recording(configuration);
+        recording.setName("wallet-service-" + LocalDateTime.now().format(FILE_TIMESTAMP));
+        recording.setMaxAge(maxAge);
+        recording.setToDisk(true);
+        recording.enable(DepositEvent.class);
+        recording.enable(WithdrawEvent.class);
+        recording.enable(ApprovalEvent.class);
+        recording.enable(WalletLockWaitEvent.class);
+        recording.enable(AuditWriteEvent.class);
+        recording.start();
+        logger.info("Flight recording {} started with {} settings", recording.getName(), settingsName);
+        return new WebEndpointResponse<>(status());
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> stop() throws IOException {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        recording.stop();
+        Files.createDirectories(directory);
+        Path dump = directory.resolve(recording.getName() + ".jfr");
+        recording.dump(dump);
+        closeRecording();
+        if (lastDump != null && !lastDump.equals(dump)) {
+            Files.deleteIfExists(lastDump);
+        }
+        lastDump = dump;
+        logger.info("Flight recording stopped and written to {} ({} bytes)", dump, Files.size(dump));
+        return new WebEndpointResponse<>(status());
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector String file) {
+        if (lastDump == null || !lastDump.getFileName().toString().equals(file) || !Files.exists(lastDump)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(lastDump));
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closeRecording();
+    }
+}
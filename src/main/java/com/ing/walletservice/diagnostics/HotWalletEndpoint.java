@@ -0,0 +1,31 @@
+package com.ing.walletservice.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Hot wallets at {@code /actuator/hotwallets?top=10}: the wallets with the most lock
+ * requests and the most lock wait time in the current and the last completed window,
+ * with per-second rates and the sketch's maximum overcount for each.
+ */
+@Component
+@Endpoint(id = "hotwallets")
+public class HotWalletEndpoint {
+
+    private static final int DEFAULT_TOP = 10;
+
+    private final HotWalletTracker tracker;
+
+    public HotWalletEndpoint(HotWalletTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report(@Nullable Integer top) {
+        return tracker.report(top != null && top > 0 ? top : DEFAULT_TOP);
+    }
+}
@@ -0,0 +1,257 @@
+package com.ing.walletservice.diagnostics;
+
+import com.ing.walletservice.event.HotWalletEvent;
+import com.ing.walletservice.util.SpaceSavingSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming heavy-hitters view of wallet lock contention.
+ *
+ * Every wallet lock ({@code findByIdForUpdate} and its customer-scoped variant) is counted
+ * in two {@link SpaceSavingSketch}es, one weighted by 1 (lock requests) and one by the time
+ * spent acquiring the lock, so memory stays fixed however many wallets are active. Counts
+ * are kept per tumbling window of {@code app.hot-wallets.window-seconds}; the last completed
+ * window is kept for reporting.
+ *
+ * Recording happens on request threads that hold a row lock, so the sketches are striped
+ * by wallet id: each stripe has its own lock and {@code app.hot-wallets.capacity} counters,
+ * and only locks of wallets that hash to the same stripe ever wait for each other. A wallet
+ * always lands in the same stripe, so {@link #report} merges the stripes' top lists exactly.
+ *
+ * When a wallet's guaranteed count ({@code count - error}) in the current window reaches
+ * either alert threshold, a {@link HotWalletEvent} is published once for that wallet and
+ * window. A threshold of 0 disables it.
+ */
+@Component
+public class HotWalletTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotWalletTracker.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter alertCounter;
+    private final int capacity;
+    private final long windowNanos;
+    private final long windowSeconds;
+    private final long alertRequests;
+    private final long alertLockWaitNanos;
+    private final long originNanos;
+    private final Instant origin;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    @Autowired
+    public HotWalletTracker(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                            @Value("${app.hot-wallets.capacity:64}") int capacity,
+                            @Value("${app.hot-wallets.window-seconds:60}") long windowSeconds,
+                            @Value("${app.hot-wallets.alert-requests-per-window:600}") long alertRequests,
+                            @Value("${app.hot-wallets.alert-lock-wait-ms-per-window:5000}") long alertLockWaitMs) {
+        this(eventPublisher, meterRegistry, capacity, windowSeconds, alertRequests, alertLockWaitMs,
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2);
+    }
+
+    HotWalletTracker(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, int capacity,
+                     long windowSeconds, long alertRequests, long alertLockWaitMs, int stripeCount) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+        this.eventPublisher = eventPublisher;
+        this.alertCounter = Counter.builder("wallet.hot.alerts")
+                .description("Wallets that crossed a lock contention threshold within a window")
+                .register(meterRegistry);
+        this.capacity = capacity;
+        this.windowSeconds = windowSeconds;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.alertRequests = alertRequests;
+        this.alertLockWaitNanos = TimeUnit.MILLISECONDS.toNanos(alertLockWaitMs);
+        this.originNanos = System.nanoTime();
+        this.origin = Instant.now();
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public void record(Long walletId, long lockWaitNanos) {
+        if (walletId == null || walletId <= 0) {
+            return;
+        }
+        long window = windowAt(System.nanoTime());
+        Stripe stripe = stripeOf(walletId);
+        HotWalletEvent alert = null;
+        synchronized (stripe) {
+            stripe.roll(window);
+            int requestCounter = stripe.requests.add(walletId, 1);
+            int waitCounter = stripe.lockWait.add(walletId, Math.max(0, lockWaitNanos));
+            long guaranteedRequests = stripe.requests.count(requestCounter) - stripe.requests.error(requestCounter);
+            long guaranteedWait = stripe.lockWait.count(waitCounter) - stripe.lockWait.error(waitCounter);
+            if (((alertRequests > 0 && guaranteedRequests >= alertRequests)
+                    || (alertLockWaitNanos > 0 && guaranteedWait >= alertLockWaitNanos))
+                    && stripe.alerted.add(walletId)) {
+                alert = new HotWalletEvent(walletId, stripe.requests.count(requestCounter),
+                        TimeUnit.NANOSECONDS.toMillis(stripe.lockWait.count(waitCounter)), windowStart(window),
+                        windowSeconds);
+            }
+        }
+        if (alert != null) {
+            alertCounter.increment();
+            logger.warn("Hot wallet {}: {} lock requests and {} ms lock wait in the window started at {}",
+                    alert.getWalletId(), alert.getRequests(), alert.getLockWaitMillis(), alert.getWindowStart());
+            eventPublisher.publishEvent(alert);
+        }
+    }
+
+    /**
+     * Top wallets by lock requests and by lock wait, for the current and the last completed window.
+     */
+    public Map<String, Object> report(int top) {
+        long now = System.nanoTime();
+        long window = windowAt(now);
+        Totals current = new Totals();
+        Totals previous = new Totals();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.roll(window);
+                current.add(stripe.requests, stripe.lockWait, top);
+                previous.add(stripe.previousRequests, stripe.previousLockWait, top);
+            }
+        }
+        double currentSeconds = Math.max(1.0, (now - originNanos - window * windowNanos) / 1e9);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("windowSeconds", windowSeconds);
+        report.put("capacity", capacity);
+        report.put("stripes", stripes.length);
+        report.put("alertRequestsPerWindow", alertRequests);
+        report.put("alertLockWaitMsPerWindow", TimeUnit.NANOSECONDS.toMillis(alertLockWaitNanos));
+        report.put("current", current.toMap(windowStart(window), currentSeconds, top));
+        report.put("previous", window == 0 ? null : previous.toMap(windowStart(window - 1), windowSeconds, top));
+        return report;
+    }
+
+    private Stripe stripeOf(long walletId) {
+        int hash = Long.hashCode(walletId * 0x9E3779B97F4A7C15L);
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private long windowAt(long nanos) {
+        return (nanos - originNanos) / windowNanos;
+    }
+
+    private Instant windowStart(long window) {
+        return origin.plusNanos(window * windowNanos);
+    }
+
+    /**
+     * Sketches of the wallets hashing to one stripe, guarded by the stripe's monitor.
+     */
+    private static final class Stripe {
+
+        private SpaceSavingSketch requests;
+        private SpaceSavingSketch lockWait;
+        private SpaceSavingSketch previousRequests;
+        private SpaceSavingSketch previousLockWait;
+        private final Set<Long> alerted = new HashSet<>();
+        private long window;
+
+        Stripe(int capacity) {
+            this.requests = new SpaceSavingSketch(capacity);
+            this.lockWait = new SpaceSavingSketch(capacity);
+            this.previousRequests = new SpaceSavingSketch(capacity);
+            this.previousLockWait = new SpaceSavingSketch(capacity);
+        }
+
+        void roll(long current) {
+            if (current == window) {
+                return;
+            }
+            if (current == window + 1) {
+                SpaceSavingSketch swap = previousRequests;
+                previousRequests = requests;
+                requests = swap;
+                swap = previousLockWait;
+                previousLockWait = lockWait;
+                lockWait = swap;
+            } else {
+                // Nothing was recorded in the window before this one
+                previousRequests.clear();
+                previousLockWait.clear();
+            }
+            requests.clear();
+            lockWait.clear();
+            alerted.clear();
+            window = current;
+        }
+    }
+
+    /**
+     * One window merged across stripes. Every wallet lives in exactly one stripe, so the
+     * global top K is contained in the union of the stripes' top K.
+     */
+    private static final class Totals {
+
+        private long requests;
+        private long lockWaitNanos;
+        private final List<SpaceSavingSketch.Entry> byRequests = new ArrayList<>();
+        private final List<SpaceSavingSketch.Entry> byLockWait = new ArrayList<>();
+
+        void add(SpaceSavingSketch requestSketch, SpaceSavingSketch lockWaitSketch, int top) {
+            requests += requestSketch.totalWeight();
+            lockWaitNanos += lockWaitSketch.totalWeight();
+            byRequests.addAll(requestSketch.top(top));
+            byLockWait.addAll(lockWaitSketch.top(top));
+        }
+
+        Map<String, Object> toMap(Instant start, double seconds, int top) {
+            Comparator<SpaceSavingSketch.Entry> highestFirst =
+                    Comparator.comparingLong(SpaceSavingSketch.Entry::getCount).reversed();
+            byRequests.sort(highestFirst);
+            byLockWait.sort(highestFirst);
+
+            Map<String, Object> window = new LinkedHashMap<>();
+            window.put("start", start);
+            window.put("requests", requests);
+            window.put("lockWaitMs", TimeUnit.NANOSECONDS.toMillis(lockWaitNanos));
+
+            List<Map<String, Object>> walletsByRequests = new ArrayList<>();
+            for (SpaceSavingSketch.Entry entry : byRequests.subList(0, Math.min(top, byRequests.size()))) {
+                Map<String, Object> wallet = new LinkedHashMap<>();
+                wallet.put("walletId", entry.getKey());
+                wallet.put("requests", entry.getCount());
+                wallet.put("maxOvercount", entry.getError());
+                wallet.put("requestsPerSecond", entry.getCount() / seconds);
+                walletsByRequests.add(wallet);
+            }
+            window.put("byRequests", walletsByRequests);
+
+            List<Map<String, Object>> walletsByLockWait = new ArrayList<>();
+            for (SpaceSavingSketch.Entry entry : byLockWait.subList(0, Math.min(top, byLockWait.size()))) {
+                Map<String, Object> wallet = new LinkedHashMap<>();
+                wallet.put("walletId", entry.getKey());
+                wallet.put("lockWaitMs", TimeUnit.NANOSECONDS.toMillis(entry.getCount()));
+                wallet.put("maxOvercountMs", TimeUnit.NANOSECONDS.toMillis(entry.getError()));
+                wallet.put("lockWaitMsPerSecond", entry.getCount() / 1e6 / seconds);
+                walletsByLockWait.add(wallet);
+            }
+            window.put("byLockWait", walletsByLockWait);
+            return window;
+        }
+    }
+}
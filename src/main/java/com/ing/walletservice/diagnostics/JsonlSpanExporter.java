@@ -0,0 +1,148 @@
+package com.ing.walletservice.diagnostics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for an OpenTelemetry collector: writes finished spans as JSON lines to
+ * {@code <directory>/wallet-service-spans.jsonl}, one object per span with its trace and
+ * parent ids, timings, status and attributes. Spring Boot feeds it from a batch span
+ * processor, so export runs on the processor's thread and a full queue drops spans
+ * rather than blocking requests. When the file passes {@code app.tracing.max-file-size-mb}
+ * it is moved to {@code wallet-service-spans.1.jsonl}, replacing the previous one.
+ */
+@Component
+public class JsonlSpanExporter implements SpanExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonlSpanExporter.class);
+
+    static final String FILE_NAME = "wallet-service-spans.jsonl";
+    private static final String ROLLED_FILE_NAME = "wallet-service-spans.1.jsonl";
+
+    private final Path directory;
+    private final Path file;
+    private final long maxFileBytes;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final AtomicLong exportedSpans = new AtomicLong();
+
+    private FileOutputStream output;
+    private JsonGenerator generator;
+
+    public JsonlSpanExporter(@Value("${app.tracing.directory:logs}") String directory,
+                             @Value("${app.tracing.max-file-size-mb:50}") long maxFileSizeMb) {
+        this.directory = Paths.get(directory);
+        this.file = this.directory.resolve(FILE_NAME);
+        this.maxFileBytes = maxFileSizeMb * 1024 * 1024;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            if (generator == null) {
+                open();
+            } else if (output.getChannel().position() >= maxFileBytes) {
+                roll();
+            }
+            for (SpanData span : spans) {
+                writeSpan(span);
+            }
+            generator.flush();
+            exportedSpans.addAndGet(spans.size());
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            logger.warn("Could not export {} span(s) to {}: {}", spans.size(), file, e.getMessage());
+            closeFile();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private void writeSpan(SpanData span) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("traceId", span.getTraceId());
+        generator.writeStringField("spanId", span.getSpanId());
+        if (SpanId.isValid(span.getParentSpanId())) {
+            generator.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        generator.writeStringField("name", span.getName());
+        generator.writeStringField("kind", span.getKind().name());
+        generator.writeNumberField("startEpochMicros", span.getStartEpochNanos() / 1_000);
+        generator.writeNumberField("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+        generator.writeStringField("status", span.getStatus().getStatusCode().name());
+        if (!span.getAttributes().isEmpty()) {
+            generator.writeObjectFieldStart("attributes");
+            span.getAttributes().forEach((key, value) -> {
+                try {
+                    generator.writeStringField(key.getKey(), String.valueOf(value));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        output = new FileOutputStream(file.toFile(), true);
+        generator = jsonFactory.createGenerator(new BufferedOutputStream(output, 64 * 1024), JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        Files.move(file, directory.resolve(ROLLED_FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private void closeFile() {
+        if (generator != null) {
+            try {
+                generator.close();
+            } catch (IOException e) {
+                logger.debug("Could not close span file {}: {}", file, e.getMessage());
+            }
+            generator = null;
+            output = null;
+        }
+    }
+
+    public long getExportedSpans() {
+        return exportedSpans.get();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        closeFile();
+        return CompletableResultCode.ofSuccess();
+    }
+}
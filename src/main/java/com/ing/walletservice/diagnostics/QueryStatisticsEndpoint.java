@@ -0,0 +1,110 @@
+package com.ing.walletservice.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate query statistics at {@code /actuator/querystats}.
+ *
+ * <ul>
+ *   <li>{@code GET} returns the session factory totals and the queries with the most total
+ *       execution time ({@code ?top=}, default 50).</li>
+ *   <li>{@code POST} changes the slow query threshold or switches collection on and off.</li>
+ *   <li>{@code DELETE} clears all statistics.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "querystats")
+public class QueryStatisticsEndpoint {
+
+    private static final int DEFAULT_TOP = 50;
+
+    private final Statistics statistics;
+    private final QueryStatisticsFactory statisticsFactory;
+
+    public QueryStatisticsEndpoint(EntityManagerFactory entityManagerFactory,
+                                   QueryStatisticsFactory statisticsFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statisticsFactory = statisticsFactory;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report(@Nullable Integer top) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", statistics.isStatisticsEnabled());
+        report.put("since", statistics.getStart());
+        report.put("slowThresholdMs", statisticsFactory.getSlowThresholdMs());
+        report.put("slowQueries", statisticsFactory.getSlowQueries());
+        report.put("queryExecutions", statistics.getQueryExecutionCount());
+        report.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        report.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        report.put("preparedStatements", statistics.getPrepareStatementCount());
+        report.put("entityLoads", statistics.getEntityLoadCount());
+        report.put("entityFetches", statistics.getEntityFetchCount());
+        report.put("secondLevelCache", cacheCounts(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        report.put("queryCache", cacheCounts(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        report.put("queries", topQueries(top != null ? Math.max(0, top) : DEFAULT_TOP));
+        return report;
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Long slowThresholdMs, @Nullable Boolean enabled) {
+        if (slowThresholdMs != null) {
+            statisticsFactory.setSlowThresholdMs(slowThresholdMs);
+        }
+        if (enabled != null) {
+            statistics.setStatisticsEnabled(enabled);
+        }
+        return report(0);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        statistics.clear();
+        statisticsFactory.resetSlowQueries();
+        return report(0);
+    }
+
+    private List<Map<String, Object>> topQueries(int top) {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("query", query);
+            entry.put("parameters", QueryStatisticsFactory.parameterShape(query));
+            entry.put("executions", stats.getExecutionCount());
+            entry.put("totalTimeMs", stats.getExecutionTotalTime());
+            entry.put("maxTimeMs", stats.getExecutionMaxTime());
+            entry.put("avgTimeMs", stats.getExecutionAvgTimeAsDouble());
+            entry.put("rows", stats.getExecutionRowCount());
+            entry.put("cache", cacheCounts(stats.getCacheHitCount(), stats.getCacheMissCount(), stats.getCachePutCount()));
+            queries.add(entry);
+        }
+        queries.sort(Comparator.comparingLong((Map<String, Object> entry) -> (Long) entry.get("totalTimeMs")).reversed());
+        return queries.size() > top ? queries.subList(0, top) : queries;
+    }
+
+    private static Map<String, Long> cacheCounts(long hits, long misses, long puts) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        return counts;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ing.walletservice.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.SessionEventSettings;
+import org.hibernate.cfg.StatisticsSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns on Hibernate statistics and plugs in a statistics implementation that flags slow
+ * queries.
+ *
+ * Hibernate keeps per-query execution count, total/max time, rows and query cache
+ * hits/misses in concurrent maps keyed by query string, which is cheap enough to leave
+ * on in production. A query whose execution takes at least {@code app.query-stats.slow-threshold-ms}
+ * is logged with its query string and the names of its bind parameters; bound values are
+ * never available here, so they cannot leak into the log. The threshold can be changed
+ * at runtime through {@link QueryStatisticsEndpoint}.
+ */
+@Component
+public class QueryStatisticsFactory implements StatisticsFactory, HibernatePropertiesCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatisticsFactory.class);
+
+    private static final Pattern PARAMETER = Pattern.compile(":\\w+|\\?\\d*");
+
+    private final boolean enabled;
+    private final Counter slowQueryCounter;
+    private final AtomicLong slowQueries = new AtomicLong();
+    private volatile long slowThresholdMs;
+
+    public QueryStatisticsFactory(MeterRegistry meterRegistry,
+                                  @Value("${app.query-stats.enabled:true}") boolean enabled,
+                                  @Value("${app.query-stats.slow-threshold-ms:200}") long slowThresholdMs) {
+        this.enabled = enabled;
+        this.slowThresholdMs = slowThresholdMs;
+        this.slowQueryCounter = Counter.builder("db.queries.slow")
+                .description("Queries slower than app.query-stats.slow-threshold-ms")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(StatisticsSettings.GENERATE_STATISTICS, enabled);
+        hibernateProperties.put(StatisticsSettings.STATS_BUILDER, this);
+        // Statistics would otherwise turn on Hibernate's per-session metrics block at INFO
+        hibernateProperties.put(SessionEventSettings.LOG_SESSION_METRICS, false);
+    }
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new SlowQueryStatistics(sessionFactory);
+    }
+
+    public long getSlowThresholdMs() {
+        return slowThresholdMs;
+    }
+
+    public void setSlowThresholdMs(long slowThresholdMs) {
+        this.slowThresholdMs = slowThresholdMs;
+        logger.info("Slow query threshold set to {} ms", slowThresholdMs);
+    }
+
+    public long getSlowQueries() {
+        return slowQueries.get();
+    }
+
+    void resetSlowQueries() {
+        slowQueries.set(0);
+    }
+
+    /**
+     * Bind parameters of a query in order of appearance: HQL names and ordinals once each,
+     * e.g. {@code [:id, :customerId]}, and every JDBC {@code ?} of a criteria query's SQL.
+     */
+    static List<String> parameterShape(String query) {
+        List<String> parameters = new ArrayList<>();
+        Matcher matcher = PARAMETER.matcher(query);
+        while (matcher.find()) {
+            String parameter = matcher.group();
+            if (parameter.equals("?") || !parameters.contains(parameter)) {
+                parameters.add(parameter);
+            }
+        }
+        return parameters;
+    }
+
+    private final class SlowQueryStatistics extends StatisticsImpl {
+
+        SlowQueryStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void queryExecuted(String query, int rows, long time) {
+            super.queryExecuted(query, rows, time);
+            if (time >= slowThresholdMs) {
+                slowQueries.incrementAndGet();
+                slowQueryCounter.increment();
+                logger.warn("Slow query took {} ms and returned {} rows: {} parameters={}",
+                        time, rows, query, parameterShape(query));
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ing.walletservice.diagnostics;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Parent-based trace id ratio sampler whose probability can be changed while the
+ * application runs (see {@link TracingEndpoint}). The decision is made once per trace at
+ * the first span in this process and inherited by every local child, so a trace is either
+ * recorded whole or not at all. The sampled flag of an inbound {@code traceparent} is not
+ * trusted: remote parents go through the same ratio, otherwise any client could force all
+ * of its requests to be recorded. Replaces the fixed sampler Spring Boot would configure
+ * from the same property.
+ */
+@Component
+public class RuntimeSampler implements Sampler {
+
+    private volatile double probability;
+    private volatile Sampler delegate;
+
+    public RuntimeSampler(@Value("${management.tracing.sampling.probability:0.1}") double probability) {
+        setProbability(probability);
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    public void setProbability(double probability) {
+        if (probability < 0.0 || probability > 1.0) {
+            throw new IllegalArgumentException("Sampling probability must be between 0 and 1");
+        }
+        Sampler ratio = Sampler.traceIdRatioBased(probability);
+        this.delegate = Sampler.parentBasedBuilder(ratio)
+                .setRemoteParentSampled(ratio)
+                .setRemoteParentNotSampled(ratio)
+                .build();
+        this.probability = probability;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        return delegate.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    @Override
+    public String getDescription() {
+        return "RuntimeSampler{" + delegate.getDescription() + "}";
+    }
+}
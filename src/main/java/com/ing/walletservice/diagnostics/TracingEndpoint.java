@@ -0,0 +1,48 @@
+package com.ing.walletservice.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tracing state at {@code /actuator/tracing}: {@code GET} shows the sampling probability
+ * and the span file, {@code POST {"probability": 0.05}} changes the probability for new
+ * traces without a restart.
+ */
+@Component
+@Endpoint(id = "tracing")
+public class TracingEndpoint {
+
+    private final RuntimeSampler sampler;
+    private final JsonlSpanExporter exporter;
+
+    public TracingEndpoint(RuntimeSampler sampler, JsonlSpanExporter exporter) {
+        this.sampler = sampler;
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("probability", sampler.getProbability());
+        status.put("sampler", sampler.getDescription());
+        status.put("exportedSpans", exporter.getExportedSpans());
+        status.put("file", exporter.getFile().toString());
+        return status;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> setProbability(double probability) {
+        try {
+            sampler.setProbability(probability);
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return new WebEndpointResponse<>(status());
+    }
+}
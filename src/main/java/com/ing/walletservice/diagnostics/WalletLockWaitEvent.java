@@ -0,0 +1,23 @@
+package com.ing.walletservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ing.walletservice.WalletLockWait")
+@Label("Wallet Lock Wait")
+@Description("SELECT ... FOR UPDATE on a wallet row, including the wait for concurrent holders to commit")
+@Category({"Wallet Service", "Database"})
+@StackTrace(false)
+public class WalletLockWaitEvent extends Event {
+
+    @Label("Wallet Id")
+    public long walletId;
+
+    @Label("Acquired")
+    @Description("False if the wallet was not found or not accessible to the caller")
+    public boolean acquired;
+}
@@ -0,0 +1,52 @@
+package com.ing.walletservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.math.BigDecimal;
+
+/**
+ * Base of the JFR events for deposits, withdrawals and approvals. The event spans the
+ * service method up to (not including) the commit; it is only committed for operations
+ * that complete, and the amount is recorded as a coarse band rather than its value.
+ *
+ * Usage is {@code begin()} on entry and {@link #complete} before returning. With no
+ * recording running, or the event disabled, both are no-ops.
+ */
+@Category({"Wallet Service", "Transactions"})
+@StackTrace(false)
+public abstract class WalletOperationEvent extends Event {
+
+    private static final long[] BAND_LIMITS = {100, 1_000, 10_000, 100_000};
+    private static final String[] BANDS = {"<100", "100-1K", "1K-10K", "10K-100K", ">=100K"};
+
+    @Label("Wallet Id")
+    long walletId;
+
+    @Label("Amount Band")
+    String amountBand;
+
+    @Label("Status")
+    String status;
+
+    public void complete(Long walletId, BigDecimal amount, Enum<?> status) {
+        end();
+        if (shouldCommit()) {
+            this.walletId = walletId != null ? walletId : 0;
+            this.amountBand = amountBand(amount);
+            this.status = status.name();
+            commit();
+        }
+    }
+
+    static String amountBand(BigDecimal amount) {
+        for (int i = 0; i < BAND_LIMITS.length; i++) {
+            if (amount.compareTo(BigDecimal.valueOf(BAND_LIMITS[i])) < 0) {
+                return BANDS[i];
+            }
+        }
+        return BANDS[BANDS.length - 1];
+    }
+}
@@ -0,0 +1,11 @@
+package com.ing.walletservice.diagnostics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.ing.walletservice.Withdraw")
+@Label("Withdraw")
+@Description("Withdrawal created; status is the initial transaction status")
+public class WithdrawEvent extends WalletOperationEvent {
+}
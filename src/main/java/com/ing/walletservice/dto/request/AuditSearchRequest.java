@@ -0,0 +1,75 @@
+package com.ing.walletservice.dto.request;
+
+import com.ing.walletservice.audit.AuditEvent;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+public class AuditSearchRequest {
+    
+    private Long walletId;
+    
+    private Long transactionId;
+    
+    private String username;
+    
+    private AuditEvent.Type eventType;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+    
+    // Constructors
+    public AuditSearchRequest() {}
+    
+    // Getters and Setters
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public Long getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public AuditEvent.Type getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(AuditEvent.Type eventType) {
+        this.eventType = eventType;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ing.walletservice.dto.request;
+
+import com.ing.walletservice.entity.Transaction;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TransactionSearchRequest {
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+    
+    private Transaction.TransactionType type;
+    
+    private Transaction.TransactionStatus status;
+    
+    private Transaction.OppositePartyType oppositePartyType;
+    
+    private BigDecimal minAmount;
+    
+    private BigDecimal maxAmount;
+    
+    // Constructors
+    public TransactionSearchRequest() {}
+    
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+    
+    public Transaction.TransactionType getType() {
+        return type;
+    }
+    
+    public void setType(Transaction.TransactionType type) {
+        this.type = type;
+    }
+    
+    public Transaction.TransactionStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Transaction.TransactionStatus status) {
+        this.status = status;
+    }
+    
+    public Transaction.OppositePartyType getOppositePartyType() {
+        return oppositePartyType;
+    }
+    
+    public void setOppositePartyType(Transaction.OppositePartyType oppositePartyType) {
+        this.oppositePartyType = oppositePartyType;
+    }
+    
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+    
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+    
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+    
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ing.walletservice.dto.request;
+
+import com.ing.walletservice.entity.Wallet;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+public class WalletSearchRequest {
+    
+    private Wallet.Currency currency;
+    
+    private BigDecimal minBalance;
+    
+    private BigDecimal maxBalance;
+    
+    private Boolean activeForShopping;
+    
+    private Boolean activeForWithdraw;
+    
+    private SortField sortBy = SortField.ID;
+    
+    private Sort.Direction direction = Sort.Direction.ASC;
+    
+    private String cursor;
+    
+    // Constructors
+    public WalletSearchRequest() {}
+    
+    // Getters and Setters
+    public Wallet.Currency getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(Wallet.Currency currency) {
+        this.currency = currency;
+    }
+    
+    public BigDecimal getMinBalance() {
+        return minBalance;
+    }
+    
+    public void setMinBalance(BigDecimal minBalance) {
+        this.minBalance = minBalance;
+    }
+    
+    public BigDecimal getMaxBalance() {
+        return maxBalance;
+    }
+    
+    public void setMaxBalance(BigDecimal maxBalance) {
+        this.maxBalance = maxBalance;
+    }
+    
+    public Boolean getActiveForShopping() {
+        return activeForShopping;
+    }
+    
+    public void setActiveForShopping(Boolean activeForShopping) {
+        this.activeForShopping = activeForShopping;
+    }
+    
+    public Boolean getActiveForWithdraw() {
+        return activeForWithdraw;
+    }
+    
+    public void setActiveForWithdraw(Boolean activeForWithdraw) {
+        this.activeForWithdraw = activeForWithdraw;
+    }
+    
+    public SortField getSortBy() {
+        return sortBy;
+    }
+    
+    public void setSortBy(SortField sortBy) {
+        this.sortBy = sortBy;
+    }
+    
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+    
+    public void setDirection(Sort.Direction direction) {
+        this.direction = direction;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
+    public enum SortField {
+        ID, BALANCE
+    }
+}
@@ -0,0 +1,117 @@
+package com.ing.walletservice.dto.response;
+
+import com.ing.walletservice.audit.AuditEvent;
+import com.ing.walletservice.entity.AuditRecord;
+
+import java.time.LocalDateTime;
+
+public class AuditEventResponse {
+    
+    private Long id;
+    private LocalDateTime eventTime;
+    private AuditEvent.Type eventType;
+    private AuditEvent.Level level;
+    private String username;
+    private Long walletId;
+    private Long transactionId;
+    private Long customerId;
+    private String message;
+    private String details;
+    
+    // Constructors
+    public AuditEventResponse() {}
+    
+    public AuditEventResponse(AuditRecord record) {
+        this.id = record.getId();
+        this.eventTime = record.getEventTime();
+        this.eventType = record.getEventType();
+        this.level = record.getLevel();
+        this.username = record.getUsername();
+        this.walletId = record.getWalletId();
+        this.transactionId = record.getTransactionId();
+        this.customerId = record.getCustomerId();
+        this.message = record.getMessage();
+        this.details = record.getDetails();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDateTime getEventTime() {
+        return eventTime;
+    }
+    
+    public void setEventTime(LocalDateTime eventTime) {
+        this.eventTime = eventTime;
+    }
+    
+    public AuditEvent.Type getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(AuditEvent.Type eventType) {
+        this.eventType = eventType;
+    }
+    
+    public AuditEvent.Level getLevel() {
+        return level;
+    }
+    
+    public void setLevel(AuditEvent.Level level) {
+        this.level = level;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public Long getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public Long getCustomerId() {
+        return customerId;
+    }
+    
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getDetails() {
+        return details;
+    }
+    
+    public void setDetails(String details) {
+        this.details = details;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ing.walletservice.dto.response;
+
+import com.ing.walletservice.entity.Wallet;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class BalanceAsOfResponse {
+    
+    private Long walletId;
+    private Wallet.Currency currency;
+    private LocalDateTime asOf;
+    private BigDecimal balance;
+    private BigDecimal usableBalance;
+    private LocalDateTime checkpointTime;
+    private int replayedTransactions;
+    
+    // Constructors
+    public BalanceAsOfResponse() {}
+    
+    public BalanceAsOfResponse(Long walletId, Wallet.Currency currency, LocalDateTime asOf,
+                               BigDecimal balance, BigDecimal usableBalance,
+                               LocalDateTime checkpointTime, int replayedTransactions) {
+        this.walletId = walletId;
+        this.currency = currency;
+        this.asOf = asOf;
+        this.balance = balance;
+        this.usableBalance = usableBalance;
+        this.checkpointTime = checkpointTime;
+        this.replayedTransactions = replayedTransactions;
+    }
+    
+    // Getters and Setters
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public Wallet.Currency getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(Wallet.Currency currency) {
+        this.currency = currency;
+    }
+    
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+    
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+    
+    public BigDecimal getBalance() {
+        return balance;
+    }
+    
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+    
+    public BigDecimal getUsableBalance() {
+        return usableBalance;
+    }
+    
+    public void setUsableBalance(BigDecimal usableBalance) {
+        this.usableBalance = usableBalance;
+    }
+    
+    public LocalDateTime getCheckpointTime() {
+        return checkpointTime;
+    }
+    
+    public void setCheckpointTime(LocalDateTime checkpointTime) {
+        this.checkpointTime = checkpointTime;
+    }
+    
+    public int getReplayedTransactions() {
+        return replayedTransactions;
+    }
+    
+    public void setReplayedTransactions(int replayedTransactions) {
+        this.replayedTransactions = replayedTransactions;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ing.walletservice.dto.response;
+
+import com.ing.walletservice.entity.WalletDailyStats;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailyStatsResponse {
+    
+    private LocalDate date;
+    private long depositCount;
+    private BigDecimal depositTotal;
+    private long withdrawCount;
+    private BigDecimal withdrawTotal;
+    
+    // Constructors
+    public DailyStatsResponse() {}
+    
+    public DailyStatsResponse(WalletDailyStats stats) {
+        this.date = stats.getStatDate();
+        this.depositCount = stats.getDepositCount();
+        this.depositTotal = stats.getDepositTotal();
+        this.withdrawCount = stats.getWithdrawCount();
+        this.withdrawTotal = stats.getWithdrawTotal();
+    }
+    
+    // Getters and Setters
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public long getDepositCount() {
+        return depositCount;
+    }
+    
+    public void setDepositCount(long depositCount) {
+        this.depositCount = depositCount;
+    }
+    
+    public BigDecimal getDepositTotal() {
+        return depositTotal;
+    }
+    
+    public void setDepositTotal(BigDecimal depositTotal) {
+        this.depositTotal = depositTotal;
+    }
+    
+    public long getWithdrawCount() {
+        return withdrawCount;
+    }
+    
+    public void setWithdrawCount(long withdrawCount) {
+        this.withdrawCount = withdrawCount;
+    }
+    
+    public BigDecimal getWithdrawTotal() {
+        return withdrawTotal;
+    }
+    
+    public void setWithdrawTotal(BigDecimal withdrawTotal) {
+        this.withdrawTotal = withdrawTotal;
+    }
+}
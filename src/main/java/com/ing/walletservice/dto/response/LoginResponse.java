@@ -7,6 +7,8 @@ public class LoginResponse {
     private Long id;
     private String username;
     private String role;
+    private String refreshToken;
+    private long expiresIn;
     
     // Constructors
     public LoginResponse() {}
@@ -18,6 +20,12 @@ public class LoginResponse {
         this.role = role;
     }
     
+    public LoginResponse(String token, Long id, String username, String role, String refreshToken, long expiresIn) {
+        this(token, id, username, role);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+    
     // Getters and Setters
     public String getToken() {
         return token;
@@ -58,4 +66,20 @@ public class LoginResponse {
     public void setRole(String role) {
         this.role = role;
     }
+    
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+    
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
 }
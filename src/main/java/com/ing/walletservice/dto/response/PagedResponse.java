@@ -0,0 +1,63 @@
+package com.ing.walletservice.dto.response;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class PagedResponse<T> {
+    
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    
+    // Constructors
+    public PagedResponse() {}
+    
+    public PagedResponse(List<T> content, int page, int size, boolean hasNext) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+    
+    // Static factory methods
+    public static <S, T> PagedResponse<T> of(Slice<S> slice, Function<S, T> mapper) {
+        return new PagedResponse<>(slice.map(mapper).getContent(), slice.getNumber(), 
+                                   slice.getSize(), slice.hasNext());
+    }
+    
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public boolean isHasNext() {
+        return hasNext;
+    }
+    
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
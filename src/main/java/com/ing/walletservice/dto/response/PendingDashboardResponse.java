@@ -0,0 +1,70 @@
+package com.ing.walletservice.dto.response;
+
+import com.ing.walletservice.entity.Wallet;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class PendingDashboardResponse {
+    
+    private long totalCount;
+    private Map<Wallet.Currency, PendingTotalsResponse> byCurrency;
+    private Map<String, Map<Wallet.Currency, PendingTotalsResponse>> byAgeBucket;
+    private List<PendingWalletResponse> topWallets;
+    private LocalDateTime generatedAt;
+    
+    // Constructors
+    public PendingDashboardResponse() {}
+    
+    public PendingDashboardResponse(long totalCount, Map<Wallet.Currency, PendingTotalsResponse> byCurrency,
+                                    Map<String, Map<Wallet.Currency, PendingTotalsResponse>> byAgeBucket,
+                                    List<PendingWalletResponse> topWallets, LocalDateTime generatedAt) {
+        this.totalCount = totalCount;
+        this.byCurrency = byCurrency;
+        this.byAgeBucket = byAgeBucket;
+        this.topWallets = topWallets;
+        this.generatedAt = generatedAt;
+    }
+    
+    // Getters and Setters
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+    
+    public Map<Wallet.Currency, PendingTotalsResponse> getByCurrency() {
+        return byCurrency;
+    }
+    
+    public void setByCurrency(Map<Wallet.Currency, PendingTotalsResponse> byCurrency) {
+        this.byCurrency = byCurrency;
+    }
+    
+    public Map<String, Map<Wallet.Currency, PendingTotalsResponse>> getByAgeBucket() {
+        return byAgeBucket;
+    }
+    
+    public void setByAgeBucket(Map<String, Map<Wallet.Currency, PendingTotalsResponse>> byAgeBucket) {
+        this.byAgeBucket = byAgeBucket;
+    }
+    
+    public List<PendingWalletResponse> getTopWallets() {
+        return topWallets;
+    }
+    
+    public void setTopWallets(List<PendingWalletResponse> topWallets) {
+        this.topWallets = topWallets;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ing.walletservice.dto.response;
+
+import java.math.BigDecimal;
+
+public class PendingTotalsResponse {
+    
+    private long count;
+    private BigDecimal amount;
+    
+    // Constructors
+    public PendingTotalsResponse() {}
+    
+    public PendingTotalsResponse(long count, BigDecimal amount) {
+        this.count = count;
+        this.amount = amount;
+    }
+    
+    // Getters and Setters
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ing.walletservice.dto.response;
+
+import com.ing.walletservice.entity.Wallet;
+
+import java.math.BigDecimal;
+
+public class PendingWalletResponse {
+    
+    private Long walletId;
+    private Wallet.Currency currency;
+    private long count;
+    private BigDecimal amount;
+    
+    // Constructors
+    public PendingWalletResponse() {}
+    
+    public PendingWalletResponse(Long walletId, Wallet.Currency currency, long count, BigDecimal amount) {
+        this.walletId = walletId;
+        this.currency = currency;
+        this.count = count;
+        this.amount = amount;
+    }
+    
+    // Getters and Setters
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public Wallet.Currency getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(Wallet.Currency currency) {
+        this.currency = currency;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
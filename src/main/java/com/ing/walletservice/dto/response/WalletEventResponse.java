@@ -0,0 +1,97 @@
+package com.ing.walletservice.dto.response;
+
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.event.WalletTransactionEvent;
+
+import java.math.BigDecimal;
+
+public class WalletEventResponse {
+    
+    private Long walletId;
+    private Long transactionId;
+    private Transaction.TransactionType type;
+    private BigDecimal amount;
+    private Transaction.TransactionStatus previousStatus;
+    private Transaction.TransactionStatus status;
+    private BigDecimal balance;
+    private BigDecimal usableBalance;
+    
+    // Constructors
+    public WalletEventResponse() {}
+    
+    public WalletEventResponse(WalletTransactionEvent event) {
+        this.walletId = event.getWalletId();
+        this.transactionId = event.getTransactionId();
+        this.type = event.getType();
+        this.amount = event.getAmount();
+        this.previousStatus = event.getPreviousStatus();
+        this.status = event.getStatus();
+        this.balance = event.getBalance();
+        this.usableBalance = event.getUsableBalance();
+    }
+    
+    // Getters and Setters
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public Long getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public Transaction.TransactionType getType() {
+        return type;
+    }
+    
+    public void setType(Transaction.TransactionType type) {
+        this.type = type;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public Transaction.TransactionStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public void setPreviousStatus(Transaction.TransactionStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+    
+    public Transaction.TransactionStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Transaction.TransactionStatus status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getBalance() {
+        return balance;
+    }
+    
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+    
+    public BigDecimal getUsableBalance() {
+        return usableBalance;
+    }
+    
+    public void setUsableBalance(BigDecimal usableBalance) {
+        this.usableBalance = usableBalance;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ing.walletservice.dto.response;
+
+import com.ing.walletservice.entity.Wallet;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class WalletStatementResponse {
+    
+    private Long walletId;
+    private Wallet.Currency currency;
+    private LocalDate from;
+    private LocalDate to;
+    private long depositCount;
+    private BigDecimal depositTotal;
+    private long withdrawCount;
+    private BigDecimal withdrawTotal;
+    private BigDecimal netChange;
+    private List<DailyStatsResponse> days;
+    
+    // Constructors
+    public WalletStatementResponse() {}
+    
+    public WalletStatementResponse(Long walletId, Wallet.Currency currency, LocalDate from, LocalDate to,
+                                   List<DailyStatsResponse> days) {
+        this.walletId = walletId;
+        this.currency = currency;
+        this.from = from;
+        this.to = to;
+        this.days = days;
+        this.depositTotal = BigDecimal.ZERO;
+        this.withdrawTotal = BigDecimal.ZERO;
+        for (DailyStatsResponse day : days) {
+            this.depositCount += day.getDepositCount();
+            this.depositTotal = this.depositTotal.add(day.getDepositTotal());
+            this.withdrawCount += day.getWithdrawCount();
+            this.withdrawTotal = this.withdrawTotal.add(day.getWithdrawTotal());
+        }
+        this.netChange = this.depositTotal.subtract(this.withdrawTotal);
+    }
+    
+    // Getters and Setters
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public Wallet.Currency getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(Wallet.Currency currency) {
+        this.currency = currency;
+    }
+    
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+    
+    public long getDepositCount() {
+        return depositCount;
+    }
+    
+    public void setDepositCount(long depositCount) {
+        this.depositCount = depositCount;
+    }
+    
+    public BigDecimal getDepositTotal() {
+        return depositTotal;
+    }
+    
+    public void setDepositTotal(BigDecimal depositTotal) {
+        this.depositTotal = depositTotal;
+    }
+    
+    public long getWithdrawCount() {
+        return withdrawCount;
+    }
+    
+    public void setWithdrawCount(long withdrawCount) {
+        this.withdrawCount = withdrawCount;
+    }
+    
+    public BigDecimal getWithdrawTotal() {
+        return withdrawTotal;
+    }
+    
+    public void setWithdrawTotal(BigDecimal withdrawTotal) {
+        this.withdrawTotal = withdrawTotal;
+    }
+    
+    public BigDecimal getNetChange() {
+        return netChange;
+    }
+    
+    public void setNetChange(BigDecimal netChange) {
+        this.netChange = netChange;
+    }
+    
+    public List<DailyStatsResponse> getDays() {
+        return days;
+    }
+    
+    public void setDays(List<DailyStatsResponse> days) {
+        this.days = days;
+    }
+}
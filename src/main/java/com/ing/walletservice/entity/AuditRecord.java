@@ -0,0 +1,137 @@
+package com.ing.walletservice.entity;
+
+import com.ing.walletservice.audit.AuditEvent;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted copy of an audit event. Rows are only ever inserted, in multi-row batches by
+ * {@code JdbcAuditSink}; JPA is used for the schema and the employee search. Each lookup
+ * column is indexed together with the id so keyset pages are index range scans.
+ */
+@Entity
+@Table(name = "audit_events", indexes = {
+    @Index(name = "idx_audit_events_wallet_id", columnList = "walletId, id"),
+    @Index(name = "idx_audit_events_transaction_id", columnList = "transactionId, id"),
+    @Index(name = "idx_audit_events_username_id", columnList = "username, id"),
+    @Index(name = "idx_audit_events_type_id", columnList = "eventType, id"),
+    @Index(name = "idx_audit_events_time", columnList = "eventTime")
+})
+public class AuditRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDateTime eventTime;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AuditEvent.Type eventType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private AuditEvent.Level level;
+    
+    @Column(length = 100)
+    private String username;
+    
+    private Long walletId;
+    
+    private Long transactionId;
+    
+    private Long customerId;
+    
+    @Column(nullable = false, length = 1000)
+    private String message;
+    
+    // Remaining event fields and the caller's MDC as a JSON object
+    @Column(length = 4000)
+    private String details;
+    
+    // Constructors
+    public AuditRecord() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDateTime getEventTime() {
+        return eventTime;
+    }
+    
+    public void setEventTime(LocalDateTime eventTime) {
+        this.eventTime = eventTime;
+    }
+    
+    public AuditEvent.Type getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(AuditEvent.Type eventType) {
+        this.eventType = eventType;
+    }
+    
+    public AuditEvent.Level getLevel() {
+        return level;
+    }
+    
+    public void setLevel(AuditEvent.Level level) {
+        this.level = level;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public Long getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public Long getCustomerId() {
+        return customerId;
+    }
+    
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getDetails() {
+        return details;
+    }
+    
+    public void setDetails(String details) {
+        this.details = details;
+    }
+}
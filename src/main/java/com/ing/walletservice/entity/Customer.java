@@ -3,6 +3,7 @@ package com.ing.walletservice.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -41,6 +42,11 @@ public class Customer {
     @Column(nullable = false)
     private Role role = Role.CUSTOMER;
     
+    // Bumped to revoke every token issued to this customer so far
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion;
+    
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Wallet> wallets;
     
@@ -113,6 +119,14 @@ public class Customer {
         this.role = role;
     }
     
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
     public List<Wallet> getWallets() {
         return wallets;
     }
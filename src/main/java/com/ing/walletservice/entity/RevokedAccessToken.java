@@ -0,0 +1,48 @@
+package com.ing.walletservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id of an access token revoked before its expiry. Rows are loaded into memory at startup
+ * and deleted once the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_access_tokens", indexes = {
+    @Index(name = "idx_revoked_access_tokens_expires_at", columnList = "expiresAt")
+})
+public class RevokedAccessToken {
+    
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public RevokedAccessToken() {}
+    
+    public RevokedAccessToken(String tokenId, LocalDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public String getTokenId() {
+        return tokenId;
+    }
+    
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
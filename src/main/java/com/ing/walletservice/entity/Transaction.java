@@ -6,9 +6,17 @@ import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_wallet_created", columnList = "wallet_id, createdDate"),
+    @Index(name = "idx_transactions_created_amount", columnList = "createdDate, amount"),
+    @Index(name = "idx_transactions_status_created", columnList = "status, createdDate"),
+    @Index(name = "idx_transactions_type_created", columnList = "type, createdDate"),
+    @Index(name = "idx_transactions_party_type_created", columnList = "oppositePartyType, createdDate"),
+    @Index(name = "idx_transactions_party_key", columnList = "oppositePartyKey, id")
+})
 public class Transaction {
     
     @Id
@@ -39,6 +47,10 @@ public class Transaction {
     @Column(nullable = false)
     private String oppositeParty;
     
+    // Normalized oppositeParty for exact and prefix counterparty lookups
+    @Column
+    private String oppositePartyKey;
+    
     @NotNull(message = "Status is required")
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -68,6 +80,21 @@ public class Transaction {
         this.createdDate = LocalDateTime.now();
     }
     
+    @PrePersist
+    @PreUpdate
+    void updateOppositePartyKey() {
+        this.oppositePartyKey = normalizeCounterparty(oppositeParty);
+    }
+    
+    /**
+     * Normalizes an IBAN or other counterparty identifier by dropping spaces and hyphens and
+     * upper-casing it, so "tr33 0006-1005" and "TR3300061005" share a key.
+     */
+    public static String normalizeCounterparty(String counterparty) {
+        return counterparty == null ? null
+                : counterparty.replace(" ", "").replace("-", "").toUpperCase(Locale.ROOT);
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -117,6 +144,10 @@ public class Transaction {
         this.oppositeParty = oppositeParty;
     }
     
+    public String getOppositePartyKey() {
+        return oppositePartyKey;
+    }
+    
     public TransactionStatus getStatus() {
         return status;
     }
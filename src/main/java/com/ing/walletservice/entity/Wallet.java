@@ -9,7 +9,10 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
-@Table(name = "wallets")
+@Table(name = "wallets", indexes = {
+    @Index(name = "idx_wallets_currency_balance", columnList = "currency, balance"),
+    @Index(name = "idx_wallets_balance", columnList = "balance")
+})
 public class Wallet {
     
     @Id
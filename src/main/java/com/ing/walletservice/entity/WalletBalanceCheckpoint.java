@@ -0,0 +1,85 @@
+package com.ing.walletservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "wallet_balance_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_wallet_balance_checkpoints_wallet_time",
+                      columnNames = {"wallet_id", "checkpoint_time"})
+})
+public class WalletBalanceCheckpoint {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull(message = "Wallet ID is required")
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+    
+    @NotNull(message = "Checkpoint time is required")
+    @Column(name = "checkpoint_time", nullable = false)
+    private LocalDateTime checkpointTime;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal usableBalance;
+    
+    // Constructors
+    public WalletBalanceCheckpoint() {}
+    
+    public WalletBalanceCheckpoint(Long walletId, LocalDateTime checkpointTime,
+                                   BigDecimal balance, BigDecimal usableBalance) {
+        this.walletId = walletId;
+        this.checkpointTime = checkpointTime;
+        this.balance = balance;
+        this.usableBalance = usableBalance;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public LocalDateTime getCheckpointTime() {
+        return checkpointTime;
+    }
+    
+    public void setCheckpointTime(LocalDateTime checkpointTime) {
+        this.checkpointTime = checkpointTime;
+    }
+    
+    public BigDecimal getBalance() {
+        return balance;
+    }
+    
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+    
+    public BigDecimal getUsableBalance() {
+        return usableBalance;
+    }
+    
+    public void setUsableBalance(BigDecimal usableBalance) {
+        this.usableBalance = usableBalance;
+    }
+}
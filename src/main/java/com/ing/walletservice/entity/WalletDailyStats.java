@@ -0,0 +1,115 @@
+package com.ing.walletservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "wallet_daily_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_wallet_daily_stats_wallet_date", columnNames = {"wallet_id", "stat_date"})
+})
+public class WalletDailyStats {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull(message = "Wallet ID is required")
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+    
+    @NotNull(message = "Stat date is required")
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+    
+    @Column(nullable = false)
+    private long depositCount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal depositTotal = BigDecimal.ZERO;
+    
+    @Column(nullable = false)
+    private long withdrawCount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal withdrawTotal = BigDecimal.ZERO;
+    
+    // Constructors
+    public WalletDailyStats() {}
+    
+    public WalletDailyStats(Long walletId, LocalDate statDate) {
+        this.walletId = walletId;
+        this.statDate = statDate;
+        this.depositTotal = BigDecimal.ZERO;
+        this.withdrawTotal = BigDecimal.ZERO;
+    }
+    
+    public void addDeposit(long count, BigDecimal amount) {
+        this.depositCount += count;
+        this.depositTotal = this.depositTotal.add(amount);
+    }
+    
+    public void addWithdraw(long count, BigDecimal amount) {
+        this.withdrawCount += count;
+        this.withdrawTotal = this.withdrawTotal.add(amount);
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+    
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+    
+    public long getDepositCount() {
+        return depositCount;
+    }
+    
+    public void setDepositCount(long depositCount) {
+        this.depositCount = depositCount;
+    }
+    
+    public BigDecimal getDepositTotal() {
+        return depositTotal;
+    }
+    
+    public void setDepositTotal(BigDecimal depositTotal) {
+        this.depositTotal = depositTotal;
+    }
+    
+    public long getWithdrawCount() {
+        return withdrawCount;
+    }
+    
+    public void setWithdrawCount(long withdrawCount) {
+        this.withdrawCount = withdrawCount;
+    }
+    
+    public BigDecimal getWithdrawTotal() {
+        return withdrawTotal;
+    }
+    
+    public void setWithdrawTotal(BigDecimal withdrawTotal) {
+        this.withdrawTotal = withdrawTotal;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ing.walletservice.event;
+
+/**
+ * Published when a customer's role or password changes, after their tokens have been revoked.
+ */
+public class CustomerCredentialsChangedEvent {
+    
+    private final Long customerId;
+    private final String username;
+    
+    public CustomerCredentialsChangedEvent(Long customerId, String username) {
+        this.customerId = customerId;
+        this.username = username;
+    }
+    
+    public Long getCustomerId() {
+        return customerId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+}
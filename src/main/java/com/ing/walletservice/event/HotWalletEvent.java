@@ -0,0 +1,44 @@
+package com.ing.walletservice.event;
+
+import java.time.Instant;
+
+/**
+ * Published by HotWalletTracker the first time in a window that a wallet's lock requests
+ * or lock wait time cross the configured contention threshold.
+ */
+public class HotWalletEvent {
+    
+    private final Long walletId;
+    private final long requests;
+    private final long lockWaitMillis;
+    private final Instant windowStart;
+    private final long windowSeconds;
+    
+    public HotWalletEvent(Long walletId, long requests, long lockWaitMillis, Instant windowStart, long windowSeconds) {
+        this.walletId = walletId;
+        this.requests = requests;
+        this.lockWaitMillis = lockWaitMillis;
+        this.windowStart = windowStart;
+        this.windowSeconds = windowSeconds;
+    }
+    
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public long getRequests() {
+        return requests;
+    }
+    
+    public long getLockWaitMillis() {
+        return lockWaitMillis;
+    }
+    
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+    
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ing.walletservice.event;
+
+import com.ing.walletservice.entity.Wallet;
+
+/**
+ * Published by WalletService after a wallet row has been inserted.
+ */
+public class WalletCreatedEvent {
+    
+    private final Long walletId;
+    private final Long customerId;
+    private final Wallet.Currency currency;
+    
+    public WalletCreatedEvent(Wallet wallet) {
+        this.walletId = wallet.getId();
+        this.customerId = wallet.getCustomer().getId();
+        this.currency = wallet.getCurrency();
+    }
+    
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public Long getCustomerId() {
+        return customerId;
+    }
+    
+    public Wallet.Currency getCurrency() {
+        return currency;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ing.walletservice.event;
+
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by TransactionService whenever a transaction is created or changes status.
+ * Carries the wallet balances after the change so listeners never have to reload them.
+ * Listeners that keep derived state should use {@code @TransactionalEventListener} so they
+ * only observe committed changes.
+ */
+public class WalletTransactionEvent {
+    
+    private final Long walletId;
+    private final Long customerId;
+    private final Wallet.Currency currency;
+    private final Long transactionId;
+    private final Transaction.TransactionType type;
+    private final BigDecimal amount;
+    private final Transaction.TransactionStatus previousStatus;
+    private final Transaction.TransactionStatus status;
+    private final LocalDateTime createdDate;
+    private final BigDecimal balance;
+    private final BigDecimal usableBalance;
+    
+    public WalletTransactionEvent(Wallet wallet, Transaction transaction,
+                                  Transaction.TransactionStatus previousStatus) {
+        this.walletId = wallet.getId();
+        this.customerId = wallet.getCustomer().getId();
+        this.currency = wallet.getCurrency();
+        this.transactionId = transaction.getId();
+        this.type = transaction.getType();
+        this.amount = transaction.getAmount();
+        this.previousStatus = previousStatus;
+        this.status = transaction.getStatus();
+        this.createdDate = transaction.getCreatedDate();
+        this.balance = wallet.getBalance();
+        this.usableBalance = wallet.getUsableBalance();
+    }
+    
+    public Long getWalletId() {
+        return walletId;
+    }
+    
+    public Long getCustomerId() {
+        return customerId;
+    }
+    
+    public Wallet.Currency getCurrency() {
+        return currency;
+    }
+    
+    public Long getTransactionId() {
+        return transactionId;
+    }
+    
+    public Transaction.TransactionType getType() {
+        return type;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    /**
+     * Status before the change, or null when the transaction was just created.
+     */
+    public Transaction.TransactionStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public Transaction.TransactionStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+    
+    public BigDecimal getBalance() {
+        return balance;
+    }
+    
+    public BigDecimal getUsableBalance() {
+        return usableBalance;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ing.walletservice.repository;
+
+import com.ing.walletservice.audit.AuditEvent;
+import com.ing.walletservice.entity.AuditRecord;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Specification building blocks for the employee audit search. Like
+ * {@link TransactionSpecifications}, each factory returns null for a missing value.
+ */
+public final class AuditRecordSpecifications {
+    
+    private AuditRecordSpecifications() {}
+    
+    public static Specification<AuditRecord> hasWalletId(Long walletId) {
+        return walletId == null ? null : (root, query, cb) -> cb.equal(root.get("walletId"), walletId);
+    }
+    
+    public static Specification<AuditRecord> hasTransactionId(Long transactionId) {
+        return transactionId == null ? null : (root, query, cb) -> cb.equal(root.get("transactionId"), transactionId);
+    }
+    
+    public static Specification<AuditRecord> hasUsername(String username) {
+        return username == null || username.isBlank() ? null
+                : (root, query, cb) -> cb.equal(root.get("username"), username);
+    }
+    
+    public static Specification<AuditRecord> hasEventType(AuditEvent.Type eventType) {
+        return eventType == null ? null : (root, query, cb) -> cb.equal(root.get("eventType"), eventType);
+    }
+    
+    public static Specification<AuditRecord> occurredFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("eventTime"), from);
+    }
+    
+    public static Specification<AuditRecord> occurredTo(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("eventTime"), to);
+    }
+    
+    /**
+     * Keyset condition for the page after the given id in descending id order.
+     */
+    public static Specification<AuditRecord> idBefore(Long id) {
+        return id == null ? null : (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+}
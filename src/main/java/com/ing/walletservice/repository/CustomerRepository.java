@@ -2,8 +2,12 @@ package com.ing.walletservice.repository;
 
 import com.ing.walletservice.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +20,14 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByTckn(String tckn);
+    
+    @Query("SELECT c.id AS customerId, c.tokenVersion AS tokenVersion FROM Customer c WHERE c.tokenVersion > 0")
+    List<CustomerTokenVersion> findRevokedTokenVersions();
+    
+    @Modifying
+    @Query("UPDATE Customer c SET c.tokenVersion = c.tokenVersion + 1 WHERE c.id = :customerId")
+    int incrementTokenVersion(@Param("customerId") Long customerId);
+    
+    @Query("SELECT c.tokenVersion FROM Customer c WHERE c.id = :customerId")
+    Optional<Integer> findTokenVersion(@Param("customerId") Long customerId);
 }
@@ -0,0 +1,11 @@
+package com.ing.walletservice.repository;
+
+/**
+ * Token version of a customer whose tokens have been revoked at least once.
+ */
+public interface CustomerTokenVersion {
+    
+    Long getCustomerId();
+    
+    int getTokenVersion();
+}
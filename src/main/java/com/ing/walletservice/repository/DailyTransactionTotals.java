@@ -0,0 +1,22 @@
+package com.ing.walletservice.repository;
+
+import com.ing.walletservice.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of approved transaction totals grouped by wallet, day and type.
+ */
+public interface DailyTransactionTotals {
+    
+    Long getWalletId();
+    
+    LocalDate getStatDate();
+    
+    Transaction.TransactionType getType();
+    
+    Long getTransactionCount();
+    
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,20 @@
+package com.ing.walletservice.repository;
+
+import com.ing.walletservice.entity.Wallet;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Minimal projection of a pending transaction, used to rebuild in-memory queue counters.
+ */
+public interface PendingTransactionView {
+    
+    Long getWalletId();
+    
+    Wallet.Currency getCurrency();
+    
+    BigDecimal getAmount();
+    
+    LocalDateTime getCreatedDate();
+}
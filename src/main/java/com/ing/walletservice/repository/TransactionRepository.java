@@ -2,16 +2,68 @@ package com.ing.walletservice.repository;
 
 import com.ing.walletservice.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
     
     List<Transaction> findByWalletIdOrderByCreatedDateDesc(Long walletId);
     
     List<Transaction> findByWalletCustomerIdOrderByCreatedDateDesc(Long customerId);
     
     List<Transaction> findByStatus(Transaction.TransactionStatus status);
+    
+    @Query("SELECT w.id AS walletId, w.currency AS currency, t.amount AS amount, t.createdDate AS createdDate " +
+           "FROM Transaction t JOIN t.wallet w WHERE t.status = :status")
+    List<PendingTransactionView> findViewsByStatus(@Param("status") Transaction.TransactionStatus status);
+    
+    // A transaction affects balances on the day it is processed, or on creation when auto-approved
+    @Query("SELECT t.wallet.id AS walletId, " +
+           "CAST(COALESCE(t.processedDate, t.createdDate) AS LocalDate) AS statDate, " +
+           "t.type AS type, COUNT(t) AS transactionCount, SUM(t.amount) AS totalAmount " +
+           "FROM Transaction t WHERE t.status = :status " +
+           "AND t.wallet.id BETWEEN :fromWalletId AND :toWalletId " +
+           "GROUP BY t.wallet.id, CAST(COALESCE(t.processedDate, t.createdDate) AS LocalDate), t.type")
+    List<DailyTransactionTotals> sumByWalletAndDay(@Param("status") Transaction.TransactionStatus status,
+                                                  @Param("fromWalletId") Long fromWalletId,
+                                                  @Param("toWalletId") Long toWalletId);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.wallet.id BETWEEN :fromWalletId AND :toWalletId " +
+           "AND ((t.createdDate > :since AND t.createdDate <= :until) " +
+           "OR (t.processedDate > :since AND t.processedDate <= :until))")
+    List<Transaction> findBalanceChangesBetween(@Param("fromWalletId") Long fromWalletId,
+                                                @Param("toWalletId") Long toWalletId,
+                                                @Param("since") LocalDateTime since,
+                                                @Param("until") LocalDateTime until);
+    
+    // Changes after each wallet's own latest checkpoint, for the wallets in the range that have one
+    @Query("SELECT t FROM Transaction t, WalletBalanceCheckpoint c " +
+           "WHERE c.walletId BETWEEN :fromWalletId AND :toWalletId AND t.wallet.id = c.walletId " +
+           "AND c.checkpointTime = (SELECT MAX(c2.checkpointTime) FROM WalletBalanceCheckpoint c2 " +
+           "WHERE c2.walletId = c.walletId) " +
+           "AND ((t.createdDate > c.checkpointTime AND t.createdDate <= :until) " +
+           "OR (t.processedDate > c.checkpointTime AND t.processedDate <= :until))")
+    List<Transaction> findBalanceChangesSinceLatestCheckpoint(@Param("fromWalletId") Long fromWalletId,
+                                                              @Param("toWalletId") Long toWalletId,
+                                                              @Param("until") LocalDateTime until);
+    
+    // Full history up to until of the wallets in the range that have no checkpoint yet
+    @Query("SELECT t FROM Transaction t WHERE t.wallet.id BETWEEN :fromWalletId AND :toWalletId " +
+           "AND t.createdDate <= :until AND NOT EXISTS (SELECT c FROM WalletBalanceCheckpoint c " +
+           "WHERE c.walletId = t.wallet.id)")
+    List<Transaction> findBalanceChangesWithoutCheckpoint(@Param("fromWalletId") Long fromWalletId,
+                                                          @Param("toWalletId") Long toWalletId,
+                                                          @Param("until") LocalDateTime until);
+    
+    @Modifying
+    @Query("UPDATE Transaction t SET t.oppositePartyKey = " +
+           "UPPER(REPLACE(REPLACE(t.oppositeParty, ' ', ''), '-', '')) WHERE t.oppositePartyKey IS NULL")
+    int fillMissingOppositePartyKeys();
 }
@@ -0,0 +1,70 @@
+package com.ing.walletservice.repository;
+
+import com.ing.walletservice.entity.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Specification building blocks for the employee transaction search.
+ * Each factory returns null for a missing value so callers can combine them with
+ * {@link Specification#allOf(Specification[])} without null checks.
+ */
+public final class TransactionSpecifications {
+    
+    private TransactionSpecifications() {}
+    
+    public static Specification<Transaction> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdDate"), from);
+    }
+    
+    public static Specification<Transaction> createdTo(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdDate"), to);
+    }
+    
+    public static Specification<Transaction> hasType(Transaction.TransactionType type) {
+        return type == null ? null : (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+    
+    public static Specification<Transaction> hasStatus(Transaction.TransactionStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+    
+    public static Specification<Transaction> hasOppositePartyType(Transaction.OppositePartyType oppositePartyType) {
+        return oppositePartyType == null ? null
+                : (root, query, cb) -> cb.equal(root.get("oppositePartyType"), oppositePartyType);
+    }
+    
+    public static Specification<Transaction> amountAtLeast(BigDecimal minAmount) {
+        return minAmount == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+    
+    public static Specification<Transaction> amountAtMost(BigDecimal maxAmount) {
+        return maxAmount == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+    
+    public static Specification<Transaction> counterpartyEquals(String key) {
+        return key == null ? null : (root, query, cb) -> cb.equal(root.get("oppositePartyKey"), key);
+    }
+    
+    public static Specification<Transaction> counterpartyStartsWith(String keyPrefix) {
+        if (keyPrefix == null) {
+            return null;
+        }
+        String pattern = keyPrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("oppositePartyKey"), pattern, '\\');
+    }
+    
+    /**
+     * Keyset condition for the page after the given (counterparty key, id) position in
+     * descending order of both.
+     */
+    public static Specification<Transaction> counterpartyBefore(String key, Long id) {
+        if (key == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(cb.lessThan(root.get("oppositePartyKey"), key),
+                cb.and(cb.equal(root.get("oppositePartyKey"), key), cb.lessThan(root.get("id"), id)));
+    }
+}
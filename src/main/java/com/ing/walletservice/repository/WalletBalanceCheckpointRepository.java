@@ -0,0 +1,24 @@
+package com.ing.walletservice.repository;
+
+import com.ing.walletservice.entity.WalletBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WalletBalanceCheckpointRepository extends JpaRepository<WalletBalanceCheckpoint, Long> {
+    
+    Optional<WalletBalanceCheckpoint> findFirstByWalletIdAndCheckpointTimeLessThanEqualOrderByCheckpointTimeDesc(
+            Long walletId, LocalDateTime asOf);
+    
+    @Query("SELECT c FROM WalletBalanceCheckpoint c WHERE c.walletId BETWEEN :fromWalletId AND :toWalletId " +
+           "AND c.checkpointTime = (SELECT MAX(c2.checkpointTime) FROM WalletBalanceCheckpoint c2 " +
+           "WHERE c2.walletId = c.walletId)")
+    List<WalletBalanceCheckpoint> findLatestByWalletIdRange(@Param("fromWalletId") Long fromWalletId,
+                                                            @Param("toWalletId") Long toWalletId);
+}
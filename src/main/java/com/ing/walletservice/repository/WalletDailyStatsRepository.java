@@ -0,0 +1,24 @@
+package com.ing.walletservice.repository;
+
+import com.ing.walletservice.entity.WalletDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WalletDailyStatsRepository extends JpaRepository<WalletDailyStats, Long> {
+    
+    Optional<WalletDailyStats> findByWalletIdAndStatDate(Long walletId, LocalDate statDate);
+    
+    List<WalletDailyStats> findByWalletIdAndStatDateBetweenOrderByStatDateAsc(Long walletId, LocalDate from, LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM WalletDailyStats s WHERE s.walletId BETWEEN :fromWalletId AND :toWalletId")
+    int deleteByWalletIdRange(@Param("fromWalletId") Long fromWalletId, @Param("toWalletId") Long toWalletId);
+}
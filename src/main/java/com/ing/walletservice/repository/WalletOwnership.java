@@ -0,0 +1,11 @@
+package com.ing.walletservice.repository;
+
+/**
+ * Wallet id and owning customer id, read without loading the wallet entity.
+ */
+public interface WalletOwnership {
+    
+    Long getWalletId();
+    
+    Long getCustomerId();
+}
@@ -2,7 +2,9 @@ package com.ing.walletservice.repository;
 
 import com.ing.walletservice.entity.Wallet;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,7 +15,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface WalletRepository extends JpaRepository<Wallet, Long> {
+public interface WalletRepository extends JpaRepository<Wallet, Long>, JpaSpecificationExecutor<Wallet> {
     
     List<Wallet> findByCustomerId(Long customerId);
     
@@ -27,4 +29,34 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT w FROM Wallet w WHERE w.id = :id")
     Optional<Wallet> findByIdForUpdate(@Param("id") Long id);
+    
+    // Ownership is checked against the wallet's customer_id column, so the customer is never joined or loaded
+    @Query("SELECT w FROM Wallet w WHERE w.id = :id AND w.customer.id = :customerId")
+    Optional<Wallet> findByIdAndCustomerId(@Param("id") Long id, @Param("customerId") Long customerId);
+    
+    /**
+     * Locks the wallet only if it belongs to the customer. A wallet of another customer matches
+     * no row, so nothing is locked for a request that is about to be rejected.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id = :id AND w.customer.id = :customerId")
+    Optional<Wallet> findByIdAndCustomerIdForUpdate(@Param("id") Long id, @Param("customerId") Long customerId);
+    
+    // Tells a missing wallet apart from someone else's after an ownership query came back empty
+    @Query("SELECT w.customer.id FROM Wallet w WHERE w.id = :id")
+    Optional<Long> findCustomerIdById(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id BETWEEN :fromId AND :toId")
+    List<Wallet> findByIdRangeForUpdate(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Query("SELECT w.id AS walletId, w.customer.id AS customerId FROM Wallet w " +
+           "WHERE w.id > :afterId ORDER BY w.id")
+    List<WalletOwnership> findOwnershipAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT MIN(w.id) FROM Wallet w")
+    Optional<Long> findMinId();
+    
+    @Query("SELECT MAX(w.id) FROM Wallet w")
+    Optional<Long> findMaxId();
 }
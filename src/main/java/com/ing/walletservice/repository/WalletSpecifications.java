@@ -0,0 +1,65 @@
+package com.ing.walletservice.repository;
+
+import com.ing.walletservice.entity.Wallet;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Specification building blocks for the employee wallet listing.
+ * Like {@link TransactionSpecifications}, each factory returns null for a missing value.
+ */
+public final class WalletSpecifications {
+    
+    private WalletSpecifications() {}
+    
+    public static Specification<Wallet> hasCurrency(Wallet.Currency currency) {
+        return currency == null ? null : (root, query, cb) -> cb.equal(root.get("currency"), currency);
+    }
+    
+    public static Specification<Wallet> balanceAtLeast(BigDecimal minBalance) {
+        return minBalance == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("balance"), minBalance);
+    }
+    
+    public static Specification<Wallet> balanceAtMost(BigDecimal maxBalance) {
+        return maxBalance == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("balance"), maxBalance);
+    }
+    
+    public static Specification<Wallet> activeForShopping(Boolean active) {
+        return active == null ? null : (root, query, cb) -> cb.equal(root.get("activeForShopping"), active);
+    }
+    
+    public static Specification<Wallet> activeForWithdraw(Boolean active) {
+        return active == null ? null : (root, query, cb) -> cb.equal(root.get("activeForWithdraw"), active);
+    }
+    
+    /**
+     * Keyset condition for the page after the given id in id order.
+     */
+    public static Specification<Wallet> idAfter(Long id, Sort.Direction direction) {
+        if (id == null) {
+            return null;
+        }
+        return (root, query, cb) -> direction.isAscending()
+                ? cb.greaterThan(root.get("id"), id)
+                : cb.lessThan(root.get("id"), id);
+    }
+    
+    /**
+     * Keyset condition for the page after the given (balance, id) position in balance order,
+     * with the id breaking ties between equal balances.
+     */
+    public static Specification<Wallet> balanceAfter(BigDecimal balance, Long id, Sort.Direction direction) {
+        if (balance == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> direction.isAscending()
+                ? cb.or(cb.greaterThan(root.get("balance"), balance),
+                        cb.and(cb.equal(root.get("balance"), balance), cb.greaterThan(root.get("id"), id)))
+                : cb.or(cb.lessThan(root.get("balance"), balance),
+                        cb.and(cb.equal(root.get("balance"), balance), cb.lessThan(root.get("id"), id)));
+    }
+}
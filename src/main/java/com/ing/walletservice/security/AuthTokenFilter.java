@@ -1,5 +1,8 @@
 package com.ing.walletservice.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,23 +23,41 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
     
     private final JwtUtils jwtUtils;
-    private final CustomUserDetailsService userDetailsService;
+    private final CachedUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationList tokenRevocationList;
+    private final ObservationRegistry observationRegistry;
     
-    public AuthTokenFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, CachedUserDetailsService userDetailsService,
+                           TokenVersionRegistry tokenVersionRegistry, TokenRevocationList tokenRevocationList,
+                           ObservationRegistry observationRegistry) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.tokenRevocationList = tokenRevocationList;
+        this.observationRegistry = observationRegistry;
     }
     
     @Override
     protected void doFilterInternal(@org.springframework.lang.NonNull HttpServletRequest request, 
                                    @org.springframework.lang.NonNull HttpServletResponse response,
                                    @org.springframework.lang.NonNull FilterChain filterChain) throws ServletException, IOException {
+        String jwt = parseJwt(request);
+        if (jwt != null) {
+            // Only token verification is observed; the rest of the chain is not part of this span
+            Observation.createNotStarted("wallet.auth.token", observationRegistry)
+                    .contextualName("AuthTokenFilter#authenticate")
+                    .observe(() -> authenticate(jwt, request));
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    private void authenticate(String jwt, HttpServletRequest request) {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwtUtils.verifyJwtToken(jwt);
+            UserDetails userDetails = claims != null ? loadPrincipal(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, 
                                                            userDetails.getAuthorities());
@@ -48,8 +69,30 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             logger.error("Cannot set user authentication for request to {}: {}", 
                         request.getRequestURI(), e.getMessage(), e);
         }
+    }
+    
+    /**
+     * Builds the principal from the token claims, or returns null when the token has been revoked.
+     * Tokens issued before the claims existed fall back to loading the customer.
+     */
+    private UserDetails loadPrincipal(Claims claims) {
+        if (tokenRevocationList.isRevoked(claims.getId())) {
+            logger.warn("Rejected revoked token {} for user {}", claims.getId(), claims.getSubject());
+            return null;
+        }
         
-        filterChain.doFilter(request, response);
+        Long customerId = claims.get(JwtUtils.CLAIM_CUSTOMER_ID, Long.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class);
+        
+        if (customerId == null || role == null || tokenVersion == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (!tokenVersionRegistry.isCurrent(customerId, tokenVersion)) {
+            logger.warn("Rejected revoked token (version {}) for user {}", tokenVersion, claims.getSubject());
+            return null;
+        }
+        return UserPrincipal.fromClaims(customerId, claims.getSubject(), role);
     }
     
     private String parseJwt(HttpServletRequest request) {
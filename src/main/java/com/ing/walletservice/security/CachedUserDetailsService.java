@@ -0,0 +1,65 @@
+package com.ing.walletservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ing.walletservice.event.CustomerCredentialsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Size-bounded, TTL cache of principals in front of {@link CustomUserDetailsService} for
+ * request authentication. Login keeps using {@link CustomUserDetailsService} directly so
+ * passwords are always verified against the stored hash.
+ *
+ * Cached principals carry no password. Entries are dropped as soon as a role or password
+ * change commits; the TTL bounds staleness for changes made outside the application.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics with cache=userDetails.
+ */
+@Service
+public class CachedUserDetailsService implements UserDetailsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CachedUserDetailsService.class);
+    
+    private final CustomUserDetailsService delegate;
+    private final Cache<String, UserPrincipal> principals;
+    
+    public CachedUserDetailsService(CustomUserDetailsService delegate, MeterRegistry meterRegistry,
+                                    @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${app.security.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.delegate = delegate;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "userDetails");
+    }
+    
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return principals.get(username, this::loadWithoutPassword);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCredentialsChanged(CustomerCredentialsChangedEvent event) {
+        principals.invalidate(event.getUsername());
+        logger.debug("Evicted cached principal of user {}", event.getUsername());
+    }
+    
+    private UserPrincipal loadWithoutPassword(String username) {
+        UserDetails loaded = delegate.loadUserByUsername(username);
+        UserPrincipal principal = (UserPrincipal) loaded;
+        return new UserPrincipal(principal.getId(), principal.getUsername(), null, principal.getAuthorities());
+    }
+}
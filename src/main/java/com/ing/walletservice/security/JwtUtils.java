@@ -1,5 +1,8 @@
 package com.ing.walletservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -9,50 +12,104 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Claims that let AuthTokenFilter build the principal without loading the customer
+    public static final String CLAIM_CUSTOMER_ID = "cid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
     
-    @Value("${jwt.expiration}")
-    private int jwtExpirationMs;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Key and parser are immutable and thread-safe, so they are built once
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    
+    // Verified claims keyed by SHA-256 of the token, each kept until the token expires.
+    // Null when the cache is disabled.
+    private final Cache<ByteBuffer, Claims> verifiedTokens;
+    
+    public JwtUtils(TokenVersionRegistry tokenVersionRegistry,
+                    @Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expiration}") int jwtExpirationMs,
+                    @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(Expiry.<ByteBuffer, Claims>creating((key, claims) ->
+                                Duration.between(Instant.now(), claims.getExpiration().toInstant())))
+                        .build()
+                : null;
     }
     
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateAccessToken(userPrincipal, UUID.randomUUID().toString(),
+                new Date(System.currentTimeMillis() + jwtExpirationMs));
+    }
+    
+    /**
+     * Issues an access token with the given id ({@code jti}), so it can later be revoked individually.
+     */
+    public String generateAccessToken(UserPrincipal userPrincipal, String tokenId, Date expiresAt) {
+        String role = userPrincipal.getAuthorities().iterator().next().getAuthority();
         
         return Jwts.builder()
+                .id(tokenId)
                 .subject(userPrincipal.getUsername())
+                .claim(CLAIM_CUSTOMER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, role)
+                .claim(CLAIM_TOKEN_VERSION, tokenVersionRegistry.currentVersion(userPrincipal.getId()))
                 .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .expiration(expiresAt)
+                .signWith(signingKey)
                 .compact();
     }
     
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    public int getJwtExpirationMs() {
+        return jwtExpirationMs;
     }
     
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the token once and returns its claims, or null when the token is invalid or expired.
+     * Tokens seen before are answered from the verified-claims cache without re-checking the signature.
+     */
+    public Claims verifyJwtToken(String authToken) {
+        if (verifiedTokens == null) {
+            return parseAndVerify(authToken);
+        }
+        ByteBuffer key = tokenHash(authToken);
+        Claims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parseAndVerify(authToken);
+        if (claims != null && claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
+    }
+    
+    private Claims parseAndVerify(String authToken) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            return jwtParser.parseSignedClaims(authToken).getPayload();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -65,6 +122,14 @@ public class JwtUtils {
             logger.error("JWT token validation failed: {}", e.getMessage());
         }
         
-        return false;
+        return null;
+    }
+    
+    private static ByteBuffer tokenHash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
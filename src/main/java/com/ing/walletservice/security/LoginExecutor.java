@@ -0,0 +1,84 @@
+package com.ing.walletservice.security;
+
+import com.ing.walletservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs login password verification on a dedicated, fixed-size pool with a bounded queue.
+ *
+ * BCrypt is deliberately slow, so a burst of logins on servlet threads would starve every
+ * other endpoint. Here at most {@code app.login.threads} hashes run at once and at most
+ * {@code app.login.queue-capacity} wait; anything beyond that is refused with 503 instead
+ * of queueing. Queue depth, queue wait and verification time are published as metrics.
+ */
+@Component
+public class LoginExecutor implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoginExecutor.class);
+    
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWait;
+    private final Timer verification;
+    
+    public LoginExecutor(AuthenticationManager authenticationManager, MeterRegistry meterRegistry,
+                         @Value("${app.login.threads:2}") int threads,
+                         @Value("${app.login.queue-capacity:64}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.queueWait = Timer.builder("login.queue.wait").publishPercentileHistogram().register(meterRegistry);
+        this.verification = Timer.builder("login.verification").publishPercentileHistogram().register(meterRegistry);
+        meterRegistry.gauge("login.queue.depth", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("login.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+    
+    /**
+     * Queues the credentials for verification. The returned future completes with the
+     * authenticated principal or with the {@code AuthenticationException} that rejected it.
+     *
+     * @throws ServiceUnavailableException if the pool and its queue are full
+     */
+    public CompletableFuture<Authentication> authenticate(Authentication credentials) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return authenticationManager.authenticate(credentials);
+                } finally {
+                    verification.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Login pool saturated, rejecting login for user {}", credentials.getName());
+            throw new ServiceUnavailableException("Too many concurrent logins, please retry shortly");
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
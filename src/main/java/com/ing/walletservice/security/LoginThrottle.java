@@ -0,0 +1,96 @@
+package com.ing.walletservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory login failure counters per username and per client IP.
+ *
+ * An identity that reaches its failure limit is locked out for the lockout period, and login
+ * attempts for it are rejected before any password hashing happens. Counters expire on their
+ * own once an identity stops failing, and both maps are size-bounded so a spray of random
+ * usernames cannot grow them without limit. State is per node and is lost on restart.
+ */
+@Component
+public class LoginThrottle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+    
+    private final Cache<String, Failures> usernameFailures;
+    private final Cache<String, Failures> ipFailures;
+    private final int maxUsernameFailures;
+    private final int maxIpFailures;
+    private final long lockoutMillis;
+    private final Counter lockouts;
+    
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.login.max-failures-per-username:5}") int maxUsernameFailures,
+                         @Value("${app.login.max-failures-per-ip:50}") int maxIpFailures,
+                         @Value("${app.login.lockout-seconds:900}") long lockoutSeconds,
+                         @Value("${app.login.tracked-identities:100000}") long trackedIdentities) {
+        this.maxUsernameFailures = maxUsernameFailures;
+        this.maxIpFailures = maxIpFailures;
+        this.lockoutMillis = Duration.ofSeconds(lockoutSeconds).toMillis();
+        this.usernameFailures = newCounterCache(lockoutSeconds, trackedIdentities);
+        this.ipFailures = newCounterCache(lockoutSeconds, trackedIdentities);
+        this.lockouts = meterRegistry.counter("login.lockouts");
+    }
+    
+    /**
+     * Returns the seconds until the username or IP may try again, or 0 if neither is locked out.
+     */
+    public long retryAfterSeconds(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        long lockedUntil = Math.max(lockedUntil(usernameFailures, username), lockedUntil(ipFailures, clientIp));
+        return lockedUntil > now ? Math.max(1, (lockedUntil - now + 999) / 1000) : 0;
+    }
+    
+    public void recordFailure(String username, String clientIp) {
+        recordFailure(usernameFailures, username, maxUsernameFailures);
+        recordFailure(ipFailures, clientIp, maxIpFailures);
+    }
+    
+    public void recordSuccess(String username) {
+        usernameFailures.invalidate(username);
+    }
+    
+    private void recordFailure(Cache<String, Failures> counters, String key, int maxFailures) {
+        if (key == null) {
+            return;
+        }
+        Failures failures = counters.get(key, k -> new Failures());
+        if (failures.count.incrementAndGet() == maxFailures) {
+            failures.lockedUntil = System.currentTimeMillis() + lockoutMillis;
+            // Rewriting the entry restarts its expiry so it outlives the lockout
+            counters.put(key, failures);
+            lockouts.increment();
+            logger.warn("Login locked out for {} after {} failures", key, maxFailures);
+        }
+    }
+    
+    private static long lockedUntil(Cache<String, Failures> counters, String key) {
+        Failures failures = key != null ? counters.getIfPresent(key) : null;
+        return failures != null ? failures.lockedUntil : 0;
+    }
+    
+    private static Cache<String, Failures> newCounterCache(long lockoutSeconds, long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(lockoutSeconds))
+                .build();
+    }
+    
+    private static final class Failures {
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile long lockedUntil;
+    }
+}
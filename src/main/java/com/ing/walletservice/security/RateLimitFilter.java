@@ -0,0 +1,106 @@
+package com.ing.walletservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.walletservice.config.RateLimitProperties;
+import com.ing.walletservice.dto.response.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-endpoint token-bucket limits after authentication. Authenticated requests are
+ * limited per customer id, anonymous ones per client IP. A limited request gets 429 with
+ * {@code Retry-After} and never reaches the controller or the connection pool.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    
+    private final List<RateLimitProperties.Rule> rules;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties.getRules(), new TokenBucketRateLimiter(
+                Duration.ofSeconds(properties.getIdleEvictionSeconds()), properties.getMaxBuckets()),
+                objectMapper, meterRegistry);
+    }
+    
+    RateLimitFilter(List<RateLimitProperties.Rule> rules, TokenBucketRateLimiter rateLimiter,
+                    ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rules = List.copyOf(rules);
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("rate.limit.buckets", rateLimiter, TokenBucketRateLimiter::size);
+    }
+    
+    @Override
+    protected void doFilterInternal(@org.springframework.lang.NonNull HttpServletRequest request, 
+                                   @org.springframework.lang.NonNull HttpServletResponse response,
+                                   @org.springframework.lang.NonNull FilterChain filterChain) throws ServletException, IOException {
+        int ruleIndex = matchingRule(request);
+        if (ruleIndex >= 0) {
+            RateLimitProperties.Rule rule = rules.get(ruleIndex);
+            String client = clientKey(request);
+            long waitNanos = rateLimiter.tryAcquire(ruleIndex + "|" + client, rule.getCapacity(),
+                    rule.getRefillPerSecond());
+            if (waitNanos > 0) {
+                reject(response, rule, client, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    private int matchingRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            if ((rule.getMethod() == null || rule.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(rule.getPath(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "customer:" + principal.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
+    private void reject(HttpServletResponse response, RateLimitProperties.Rule rule, String client,
+                        long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        meterRegistry.counter("rate.limit.rejected", "path", rule.getPath()).increment();
+        logger.warn("Rate limit exceeded for {} on {} {}", client, rule.getMethod(), rule.getPath());
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Rate limit exceeded, please retry later"));
+    }
+}
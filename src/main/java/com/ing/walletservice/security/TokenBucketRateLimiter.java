@@ -0,0 +1,68 @@
+package com.ing.walletservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets keyed by client, bounded by idle eviction.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the
+ * generic cell rate formulation of a token bucket): a request is admitted when the bucket
+ * is less than {@code capacity} intervals ahead of now, and admitting it advances the bucket
+ * by one interval with one CAS. Buckets live in a Caffeine map, whose internal striping
+ * keeps lookups contention-free, and disappear after they have been idle for a while; an
+ * evicted bucket would have refilled completely anyway.
+ */
+public class TokenBucketRateLimiter {
+    
+    private final Cache<String, AtomicLong> buckets;
+    private final Ticker ticker;
+    
+    public TokenBucketRateLimiter(Duration idleEviction, long maxBuckets) {
+        this(idleEviction, maxBuckets, Ticker.systemTicker());
+    }
+    
+    TokenBucketRateLimiter(Duration idleEviction, long maxBuckets, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .maximumSize(maxBuckets)
+                .ticker(ticker)
+                .build();
+    }
+    
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 when the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, int capacity, double refillPerSecond) {
+        long interval = (long) (1_000_000_000L / refillPerSecond);
+        long tolerance = interval * (capacity - 1L);
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = ticker.read();
+            long arrival = bucket.get();
+            long start = arrival == Long.MIN_VALUE ? now : Math.max(arrival, now);
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + interval)) {
+                return 0;
+            }
+        }
+    }
+    
+    public long size() {
+        return buckets.estimatedSize();
+    }
+    
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
@@ -0,0 +1,166 @@
+package com.ing.walletservice.security;
+
+import com.ing.walletservice.entity.RevokedAccessToken;
+import com.ing.walletservice.repository.RevokedAccessTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory set of revoked access token ids, consulted by {@link AuthTokenFilter} on every request.
+ *
+ * A Bloom filter sits in front of the exact set, so the common case (token not revoked) is
+ * answered from a few bit reads without hashing into the map. Revocations are persisted in
+ * {@code revoked_access_tokens}; the periodic purge drops expired ids and reloads the table,
+ * which is also how revocations made on other nodes arrive here.
+ */
+@Component
+public class TokenRevocationList implements SmartInitializingSingleton {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+    
+    private static final int HASH_FUNCTIONS = 7;
+    private static final int BITS_PER_ENTRY = 10;
+    
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final int expectedEntries;
+    
+    // Token id to expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    
+    public TokenRevocationList(RevokedAccessTokenRepository revokedAccessTokenRepository,
+                               @Value("${app.jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.bloomFilter = new BloomFilter(expectedEntries);
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+        logger.info("Loaded {} revoked access tokens", revoked.size());
+    }
+    
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && bloomFilter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+    
+    /**
+     * Revokes the access token until it expires. Persisted in the caller's transaction.
+     */
+    public void revoke(String tokenId, LocalDateTime expiresAt) {
+        revokedAccessTokenRepository.save(new RevokedAccessToken(tokenId, expiresAt));
+        synchronized (this) {
+            revoked.put(tokenId, toEpochMillis(expiresAt));
+            bloomFilter.add(tokenId);
+        }
+    }
+    
+    public int size() {
+        return revoked.size();
+    }
+    
+    /**
+     * Drops ids of tokens that have expired anyway, picks up revocations from other nodes and
+     * rebuilds the Bloom filter so removed ids stop costing false positives.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval-ms:300000}")
+    @Transactional
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = revokedAccessTokenRepository.deleteExpired(now);
+        reload();
+        logger.debug("Purged {} expired revoked tokens, {} remain", deleted, revoked.size());
+    }
+    
+    private void reload() {
+        long now = System.currentTimeMillis();
+        for (RevokedAccessToken token : revokedAccessTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            revoked.put(token.getTokenId(), toEpochMillis(token.getExpiresAt()));
+        }
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+        
+        // Readers keep using the old filter until the new one is complete
+        synchronized (this) {
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+            revoked.keySet().forEach(rebuilt::add);
+            bloomFilter = rebuilt;
+        }
+    }
+    
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * Lock-free Bloom filter over a fixed bit array, with k indexes derived from two 64-bit hashes.
+     */
+    static final class BloomFilter {
+        
+        private final AtomicLongArray words;
+        private final long bitCount;
+        
+        BloomFilter(int expectedEntries) {
+            int wordCount = Math.max(1, (int) (((long) expectedEntries * BITS_PER_ENTRY + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+        }
+        
+        void add(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+        
+        boolean mightContain(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        // 64-bit FNV-1a over the UTF-8 bytes, finished with a mixer for better bit spread
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+        
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
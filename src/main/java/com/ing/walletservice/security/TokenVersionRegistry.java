@@ -0,0 +1,60 @@
+package com.ing.walletservice.security;
+
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.CustomerTokenVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of customer token versions, used to reject revoked JWTs without a DB read.
+ *
+ * Only customers whose tokens were ever revoked have an entry; everyone else is at version 0,
+ * so the map stays small. Versions are persisted on the customer row and reloaded at startup.
+ */
+@Component
+public class TokenVersionRegistry implements SmartInitializingSingleton {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+    
+    private final CustomerRepository customerRepository;
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    
+    public TokenVersionRegistry(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (CustomerTokenVersion revoked : customerRepository.findRevokedTokenVersions()) {
+            versions.put(revoked.getCustomerId(), revoked.getTokenVersion());
+        }
+        logger.info("Loaded token versions for {} customers", versions.size());
+    }
+    
+    public int currentVersion(Long customerId) {
+        return versions.getOrDefault(customerId, 0);
+    }
+    
+    public boolean isCurrent(Long customerId, int tokenVersion) {
+        return tokenVersion >= currentVersion(customerId);
+    }
+    
+    /**
+     * Invalidates every token issued to the customer so far. Must be called whenever a
+     * customer's role or password changes, since both are trusted from the token afterwards.
+     */
+    @Transactional
+    public int revokeTokens(Long customerId) {
+        customerRepository.incrementTokenVersion(customerId);
+        int version = customerRepository.findTokenVersion(customerId).orElse(0);
+        versions.merge(customerId, version, Math::max);
+        logger.info("Revoked tokens of customer {} (token version now {})", customerId, version);
+        return version;
+    }
+}
@@ -36,6 +36,14 @@ public class UserPrincipal implements UserDetails {
         );
     }
     
+    /**
+     * Builds the principal from verified JWT claims. The password is not part of the token
+     * and is never needed once the request is authenticated.
+     */
+    public static UserPrincipal fromClaims(Long id, String username, String role) {
+        return new UserPrincipal(id, username, null, Collections.singleton(new SimpleGrantedAuthority(role)));
+    }
+    
     public Long getId() {
         return id;
     }
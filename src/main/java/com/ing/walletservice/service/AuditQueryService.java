@@ -0,0 +1,102 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.dto.request.AuditSearchRequest;
+import com.ing.walletservice.dto.response.AuditEventResponse;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
+import com.ing.walletservice.entity.AuditRecord;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.AuditRecordRepository;
+import com.ing.walletservice.repository.AuditRecordSpecifications;
+import com.ing.walletservice.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Employee search over the {@code audit_events} table, newest first with keyset paging on
+ * the id. Rows reach the table asynchronously through the audit pipeline, so an event
+ * becomes searchable one writer batch after it happened.
+ */
+@Service
+public class AuditQueryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditQueryService.class);
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private final AuditRecordRepository auditRecordRepository;
+    private final AuditLogger auditLogger;
+    
+    public AuditQueryService(AuditRecordRepository auditRecordRepository, AuditLogger auditLogger) {
+        this.auditRecordRepository = auditRecordRepository;
+        this.auditLogger = auditLogger;
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<AuditEventResponse> searchEvents(AuditSearchRequest request, String cursor, int size,
+                                                                Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        
+        if (!isEmployee) {
+            logger.warn("Non-employee user {} attempted to search audit events", userPrincipal.getUsername());
+            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), "audit events", "search audit events");
+            throw new UnauthorizedException("Only employees can search audit events");
+        }
+        
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        
+        Specification<AuditRecord> specification = Specification.allOf(
+                AuditRecordSpecifications.hasWalletId(request.getWalletId()),
+                AuditRecordSpecifications.hasTransactionId(request.getTransactionId()),
+                AuditRecordSpecifications.hasUsername(request.getUsername()),
+                AuditRecordSpecifications.hasEventType(request.getEventType()),
+                AuditRecordSpecifications.occurredFrom(request.getFrom()),
+                AuditRecordSpecifications.occurredTo(request.getTo()),
+                AuditRecordSpecifications.idBefore(decodeCursor(cursor)));
+        
+        List<AuditRecord> records = auditRecordRepository.findBy(specification,
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(pageSize + 1).all());
+        
+        boolean hasNext = records.size() > pageSize;
+        List<AuditRecord> page = hasNext ? records.subList(0, pageSize) : records;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1).getId()) : null;
+        
+        logger.info("Audit search by {} returned {} events, hasNext: {}", userPrincipal.getUsername(), page.size(), hasNext);
+        
+        return new CursorPagedResponse<>(page.stream().map(AuditEventResponse::new).collect(Collectors.toList()),
+                pageSize, nextCursor);
+    }
+    
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.response.BalanceAsOfResponse;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.entity.WalletBalanceCheckpoint;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletBalanceCheckpointRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers "what were the balances of this wallet at time T" from periodic checkpoints.
+ *
+ * A checkpoint is never a copy of the live wallet row: it is the previous checkpoint with the
+ * transactions in between replayed by {@link BalanceReplay}, the same code that serves queries.
+ * Checkpoints are written up to a settle lag behind now so transactions still in flight
+ * cannot commit a change that falls before an already written checkpoint.
+ */
+@Service
+public class BalanceCheckpointService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCheckpointService.class);
+    
+    // Lower bound for history scans of wallets that have no checkpoint yet
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final WalletBalanceCheckpointRepository checkpointRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final WalletAccess walletAccess;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.checkpoints.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.checkpoints.settle-lag-minutes:5}")
+    private long settleLagMinutes;
+    
+    @Value("${app.checkpoints.chunk-size:500}")
+    private int chunkSize;
+    
+    public BalanceCheckpointService(WalletBalanceCheckpointRepository checkpointRepository,
+                                    TransactionRepository transactionRepository,
+                                    WalletRepository walletRepository, WalletAccess walletAccess,
+                                    PlatformTransactionManager transactionManager) {
+        this.checkpointRepository = checkpointRepository;
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.walletAccess = walletAccess;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Transactional(readOnly = true)
+    public BalanceAsOfResponse getBalanceAsOf(Long walletId, LocalDateTime asOf, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        
+        Wallet wallet = (isEmployee
+                ? walletRepository.findById(walletId)
+                : walletRepository.findByIdAndCustomerId(walletId, userPrincipal.getId()))
+                .orElseThrow(() -> walletAccess.notAccessible(walletId, userPrincipal, "read historical balance of wallet " + walletId,
+                        "You can only view balances of your own wallets"));
+        
+        WalletBalanceCheckpoint checkpoint = checkpointRepository
+                .findFirstByWalletIdAndCheckpointTimeLessThanEqualOrderByCheckpointTimeDesc(walletId, asOf)
+                .orElse(null);
+        LocalDateTime since = checkpoint != null ? checkpoint.getCheckpointTime() : null;
+        
+        BalanceReplay replay = checkpoint != null
+                ? new BalanceReplay(checkpoint.getBalance(), checkpoint.getUsableBalance())
+                : new BalanceReplay(BigDecimal.ZERO, BigDecimal.ZERO);
+        List<Transaction> changes = transactionRepository.findBalanceChangesBetween(walletId, walletId,
+                since != null ? since : BEGINNING, asOf);
+        changes.forEach(transaction -> replay.apply(transaction, since, asOf));
+        
+        logger.info("Balance of wallet {} as of {} replayed {} transactions from checkpoint {}",
+                walletId, asOf, changes.size(), since);
+        
+        return new BalanceAsOfResponse(walletId, wallet.getCurrency(), asOf,
+                replay.getBalance(), replay.getUsableBalance(), since, changes.size());
+    }
+    
+    @Scheduled(initialDelayString = "${app.checkpoints.interval-ms:3600000}",
+               fixedDelayString = "${app.checkpoints.interval-ms:3600000}")
+    public void writeScheduledCheckpoints() {
+        if (enabled) {
+            writeCheckpoints(LocalDateTime.now().minusMinutes(settleLagMinutes));
+        }
+    }
+    
+    /**
+     * Writes a checkpoint at {@code until} for every wallet whose balances changed since its
+     * latest checkpoint, one wallet id chunk per transaction. Returns the number written.
+     */
+    public int writeCheckpoints(LocalDateTime until) {
+        Long minId = walletRepository.findMinId().orElse(null);
+        Long maxId = walletRepository.findMaxId().orElse(null);
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+        
+        int written = 0;
+        for (long chunkStart = minId; chunkStart <= maxId; chunkStart += chunkSize) {
+            long fromId = chunkStart;
+            long toId = Math.min(chunkStart + chunkSize - 1, maxId);
+            Integer chunkWritten = transactionTemplate.execute(status -> writeChunk(fromId, toId, until));
+            written += chunkWritten != null ? chunkWritten : 0;
+        }
+        
+        logger.info("Wrote {} balance checkpoints at {}", written, until);
+        return written;
+    }
+    
+    private int writeChunk(Long fromId, Long toId, LocalDateTime until) {
+        Map<Long, WalletBalanceCheckpoint> latest = checkpointRepository.findLatestByWalletIdRange(fromId, toId)
+                .stream()
+                .collect(Collectors.toMap(WalletBalanceCheckpoint::getWalletId, Function.identity()));
+        
+        // Each wallet is scanned from its own latest checkpoint; only wallets without one read their full history
+        List<Transaction> changes = new ArrayList<>(
+                transactionRepository.findBalanceChangesSinceLatestCheckpoint(fromId, toId, until));
+        changes.addAll(transactionRepository.findBalanceChangesWithoutCheckpoint(fromId, toId, until));
+        
+        Map<Long, List<Transaction>> changesByWallet = new HashMap<>();
+        for (Transaction transaction : changes) {
+            changesByWallet.computeIfAbsent(transaction.getWallet().getId(), id -> new ArrayList<>()).add(transaction);
+        }
+        
+        List<WalletBalanceCheckpoint> checkpoints = new ArrayList<>();
+        changesByWallet.forEach((walletId, walletChanges) -> {
+            WalletBalanceCheckpoint previous = latest.get(walletId);
+            if (previous != null && !previous.getCheckpointTime().isBefore(until)) {
+                return;
+            }
+            LocalDateTime since = previous != null ? previous.getCheckpointTime() : null;
+            BalanceReplay replay = previous != null
+                    ? new BalanceReplay(previous.getBalance(), previous.getUsableBalance())
+                    : new BalanceReplay(BigDecimal.ZERO, BigDecimal.ZERO);
+            boolean changed = false;
+            for (Transaction transaction : walletChanges) {
+                changed |= replay.apply(transaction, since, until);
+            }
+            if (changed) {
+                checkpoints.add(new WalletBalanceCheckpoint(walletId, until,
+                        replay.getBalance(), replay.getUsableBalance()));
+            }
+        });
+        
+        checkpointRepository.saveAll(checkpoints);
+        return checkpoints.size();
+    }
+}
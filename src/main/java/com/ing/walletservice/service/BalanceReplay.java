@@ -0,0 +1,93 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Replays transactions onto a (balance, usable balance) pair with the same rules as
+ * {@code TransactionService.updateWalletBalancesForDeposit/Withdraw/Approval}.
+ *
+ * A transaction affects the wallet at up to two instants. At createdDate it applies its
+ * creation effect. Deposits and withdrawals approved automatically on creation never get a
+ * processedDate; those created PENDING apply their approval or denial at processedDate.
+ * Only effects whose instant falls in (since, until] are applied.
+ */
+final class BalanceReplay {
+    
+    private BigDecimal balance;
+    private BigDecimal usableBalance;
+    
+    BalanceReplay(BigDecimal balance, BigDecimal usableBalance) {
+        this.balance = balance;
+        this.usableBalance = usableBalance;
+    }
+    
+    /**
+     * Applies the transaction's effects that fall in (since, until]; a null since means the
+     * beginning of history. Returns whether anything was applied.
+     */
+    boolean apply(Transaction transaction, LocalDateTime since, LocalDateTime until) {
+        boolean decidedLater = transaction.getProcessedDate() != null;
+        boolean applied = false;
+        
+        if (within(transaction.getCreatedDate(), since, until)) {
+            Transaction.TransactionStatus createdStatus = decidedLater
+                    ? Transaction.TransactionStatus.PENDING : transaction.getStatus();
+            applyCreation(transaction, createdStatus);
+            applied = true;
+        }
+        if (decidedLater && within(transaction.getProcessedDate(), since, until)) {
+            applyDecision(transaction, transaction.getStatus());
+            applied = true;
+        }
+        return applied;
+    }
+    
+    BigDecimal getBalance() {
+        return balance;
+    }
+    
+    BigDecimal getUsableBalance() {
+        return usableBalance;
+    }
+    
+    private void applyCreation(Transaction transaction, Transaction.TransactionStatus status) {
+        BigDecimal amount = transaction.getAmount();
+        if (transaction.getType() == Transaction.TransactionType.DEPOSIT) {
+            // Deposits always add to balance; only approved ones are usable
+            balance = balance.add(amount);
+            if (status == Transaction.TransactionStatus.APPROVED) {
+                usableBalance = usableBalance.add(amount);
+            }
+        } else {
+            // Withdrawals always reserve usable balance; only approved ones leave the balance
+            usableBalance = usableBalance.subtract(amount);
+            if (status == Transaction.TransactionStatus.APPROVED) {
+                balance = balance.subtract(amount);
+            }
+        }
+    }
+    
+    private void applyDecision(Transaction transaction, Transaction.TransactionStatus newStatus) {
+        BigDecimal amount = transaction.getAmount();
+        if (transaction.getType() == Transaction.TransactionType.DEPOSIT) {
+            if (newStatus == Transaction.TransactionStatus.APPROVED) {
+                usableBalance = usableBalance.add(amount);
+            } else if (newStatus == Transaction.TransactionStatus.DENIED) {
+                balance = balance.subtract(amount);
+            }
+        } else {
+            if (newStatus == Transaction.TransactionStatus.APPROVED) {
+                balance = balance.subtract(amount);
+            } else if (newStatus == Transaction.TransactionStatus.DENIED) {
+                usableBalance = usableBalance.add(amount);
+            }
+        }
+    }
+    
+    private static boolean within(LocalDateTime instant, LocalDateTime since, LocalDateTime until) {
+        return instant != null && (since == null || instant.isAfter(since)) && !instant.isAfter(until);
+    }
+}
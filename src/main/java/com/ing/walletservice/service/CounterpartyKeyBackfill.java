@@ -0,0 +1,43 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the normalized counterparty key for transactions written before the column existed.
+ * New transactions get their key on insert, so after one run this only finds nothing to do.
+ */
+@Component
+public class CounterpartyKeyBackfill implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CounterpartyKeyBackfill.class);
+    
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.counterparty.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+    
+    public CounterpartyKeyBackfill(TransactionRepository transactionRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            Integer updated = transactionTemplate.execute(status -> transactionRepository.fillMissingOppositePartyKeys());
+            if (updated != null && updated > 0) {
+                logger.info("Filled counterparty keys for {} transactions", updated);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.event.CustomerCredentialsChangedEvent;
+import com.ing.walletservice.exception.ResourceNotFoundException;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.security.TokenVersionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The single place where a customer's role or password changes. Every change revokes the
+ * customer's access and refresh tokens and evicts their cached principal, since all of them
+ * trust the old values.
+ */
+@Service
+public class CustomerCredentialsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CustomerCredentialsService.class);
+    
+    private final CustomerRepository customerRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenService tokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public CustomerCredentialsService(CustomerRepository customerRepository, PasswordEncoder passwordEncoder,
+                                      TokenVersionRegistry tokenVersionRegistry, TokenService tokenService,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.customerRepository = customerRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.tokenService = tokenService;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @Transactional
+    public void changeRole(Long customerId, Customer.Role role) {
+        Customer customer = findCustomer(customerId);
+        customer.setRole(role);
+        customerRepository.save(customer);
+        credentialsChanged(customer);
+        logger.info("Role of customer {} changed to {}", customerId, role);
+    }
+    
+    @Transactional
+    public void changePassword(Long customerId, String newPassword) {
+        Customer customer = findCustomer(customerId);
+        customer.setPassword(passwordEncoder.encode(newPassword));
+        customerRepository.save(customer);
+        credentialsChanged(customer);
+        logger.info("Password of customer {} changed", customerId);
+    }
+    
+    private Customer findCustomer(Long customerId) {
+        return customerRepository.findById(customerId)
+                .orElseThrow(() -> {
+                    logger.error("Customer not found with ID: {}", customerId);
+                    return new ResourceNotFoundException("Customer not found");
+                });
+    }
+    
+    private void credentialsChanged(Customer customer) {
+        tokenVersionRegistry.revokeTokens(customer.getId());
+        tokenService.revokeAllRefreshTokens(customer.getId());
+        eventPublisher.publishEvent(new CustomerCredentialsChangedEvent(customer.getId(), customer.getUsername()));
+    }
+}
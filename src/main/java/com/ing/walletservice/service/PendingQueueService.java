@@ -0,0 +1,303 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.dto.response.PendingDashboardResponse;
+import com.ing.walletservice.dto.response.PendingTotalsResponse;
+import com.ing.walletservice.dto.response.PendingWalletResponse;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.PendingTransactionView;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of the pending approval queue.
+ *
+ * Counters are rebuilt from the database once at startup (before the web server accepts
+ * requests) and then maintained from committed {@link WalletTransactionEvent}s, so the
+ * dashboard never queries the transactions table. All counters are guarded by one lock
+ * so each dashboard read is a consistent snapshot across currency, wallet and age views.
+ *
+ * Pending amounts are tracked in per-minute creation slots for the last 24 hours; older
+ * slots are folded into a single accumulator, so an age-bucket read touches at most
+ * 1441 slots regardless of queue size.
+ *
+ * The per-currency totals are also published as the {@code wallet.pending.transactions}
+ * and {@code wallet.pending.amount} gauges.
+ */
+@Service
+public class PendingQueueService implements SmartInitializingSingleton {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PendingQueueService.class);
+    
+    private static final Wallet.Currency[] CURRENCIES = Wallet.Currency.values();
+    private static final long SLOT_WINDOW_MINUTES = 24 * 60;
+    
+    // Age bucket labels and their exclusive upper bounds in minutes; the last bucket is open-ended
+    private static final String[] AGE_BUCKETS = {"UNDER_1H", "1H_TO_4H", "4H_TO_24H", "OVER_24H"};
+    private static final long[] AGE_BUCKET_LIMITS = {60, 4 * 60, 24 * 60};
+    
+    private final TransactionRepository transactionRepository;
+    private final AuditLogger auditLogger;
+    
+    private final Object lock = new Object();
+    private final Totals currencyTotals = new Totals();
+    private final Map<Long, WalletTotals> walletTotals = new HashMap<>();
+    private final TreeMap<Long, Totals> minuteSlots = new TreeMap<>();
+    private final Totals olderTotals = new Totals();
+    private long foldedUpToMinute = Long.MIN_VALUE;
+    
+    public PendingQueueService(TransactionRepository transactionRepository, AuditLogger auditLogger,
+                               MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.auditLogger = auditLogger;
+        for (Wallet.Currency currency : CURRENCIES) {
+            int currencyIndex = currency.ordinal();
+            Gauge.builder("wallet.pending.transactions", this, service -> service.pendingCount(currencyIndex))
+                    .description("Transactions awaiting approval")
+                    .tag("currency", currency.name())
+                    .register(meterRegistry);
+            Gauge.builder("wallet.pending.amount", this, service -> service.pendingAmount(currencyIndex))
+                    .description("Amount awaiting approval")
+                    .tag("currency", currency.name())
+                    .register(meterRegistry);
+        }
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+    
+    /**
+     * Discards all counters and reloads them from the pending transactions in the database.
+     */
+    public void rebuild() {
+        List<PendingTransactionView> pending = transactionRepository.findViewsByStatus(
+                Transaction.TransactionStatus.PENDING);
+        synchronized (lock) {
+            currencyTotals.clear();
+            walletTotals.clear();
+            minuteSlots.clear();
+            olderTotals.clear();
+            foldedUpToMinute = Long.MIN_VALUE;
+            for (PendingTransactionView view : pending) {
+                apply(view.getWalletId(), view.getCurrency(), view.getAmount(), view.getCreatedDate(), 1);
+            }
+        }
+        logger.info("Pending queue counters rebuilt from {} pending transactions", pending.size());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWalletTransaction(WalletTransactionEvent event) {
+        int direction;
+        if (event.getPreviousStatus() == null && event.getStatus() == Transaction.TransactionStatus.PENDING) {
+            direction = 1;
+        } else if (event.getPreviousStatus() == Transaction.TransactionStatus.PENDING
+                && event.getStatus() != Transaction.TransactionStatus.PENDING) {
+            direction = -1;
+        } else {
+            return;
+        }
+        synchronized (lock) {
+            apply(event.getWalletId(), event.getCurrency(), event.getAmount(), event.getCreatedDate(), direction);
+        }
+    }
+    
+    public PendingDashboardResponse getDashboard(int topWallets, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        
+        if (!isEmployee) {
+            logger.warn("Non-employee user {} attempted to view the pending queue dashboard",
+                    userPrincipal.getUsername());
+            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), "transactions", "view pending dashboard");
+            throw new UnauthorizedException("Only employees can view the pending queue dashboard");
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        long nowMinute = toEpochMinute(now);
+        
+        synchronized (lock) {
+            foldExpiredSlots(nowMinute);
+            
+            Totals[] ageTotals = new Totals[AGE_BUCKETS.length];
+            for (int i = 0; i < ageTotals.length; i++) {
+                ageTotals[i] = new Totals();
+            }
+            ageTotals[AGE_BUCKETS.length - 1].addAll(olderTotals);
+            for (Map.Entry<Long, Totals> slot : minuteSlots.entrySet()) {
+                ageTotals[ageBucketIndex(nowMinute - slot.getKey())].addAll(slot.getValue());
+            }
+            
+            Map<String, Map<Wallet.Currency, PendingTotalsResponse>> byAgeBucket = new LinkedHashMap<>();
+            for (int i = 0; i < AGE_BUCKETS.length; i++) {
+                byAgeBucket.put(AGE_BUCKETS[i], ageTotals[i].toResponse());
+            }
+            
+            return new PendingDashboardResponse(currencyTotals.totalCount(), currencyTotals.toResponse(),
+                    byAgeBucket, topWallets(Math.max(0, topWallets)), now);
+        }
+    }
+    
+    private double pendingCount(int currencyIndex) {
+        synchronized (lock) {
+            return currencyTotals.counts[currencyIndex];
+        }
+    }
+    
+    private double pendingAmount(int currencyIndex) {
+        synchronized (lock) {
+            return currencyTotals.amounts[currencyIndex].doubleValue();
+        }
+    }
+    
+    private List<PendingWalletResponse> topWallets(int limit) {
+        if (limit == 0) {
+            return List.of();
+        }
+        Comparator<Map.Entry<Long, WalletTotals>> byCount = Comparator.comparingLong(e -> e.getValue().count);
+        PriorityQueue<Map.Entry<Long, WalletTotals>> top = new PriorityQueue<>(limit + 1, byCount);
+        for (Map.Entry<Long, WalletTotals> entry : walletTotals.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        return top.stream()
+                .sorted(byCount.reversed())
+                .map(e -> new PendingWalletResponse(e.getKey(), e.getValue().currency,
+                        e.getValue().count, e.getValue().amount))
+                .collect(Collectors.toList());
+    }
+    
+    private void apply(Long walletId, Wallet.Currency currency, BigDecimal amount,
+                       LocalDateTime createdDate, int direction) {
+        int currencyIndex = currency.ordinal();
+        BigDecimal signedAmount = direction > 0 ? amount : amount.negate();
+        
+        currencyTotals.add(currencyIndex, direction, signedAmount);
+        
+        WalletTotals wallet = walletTotals.computeIfAbsent(walletId, id -> new WalletTotals(currency));
+        wallet.count += direction;
+        wallet.amount = wallet.amount.add(signedAmount);
+        if (wallet.count <= 0) {
+            walletTotals.remove(walletId);
+        }
+        
+        long createdMinute = toEpochMinute(createdDate);
+        foldExpiredSlots(toEpochMinute(LocalDateTime.now()));
+        if (createdMinute <= foldedUpToMinute) {
+            olderTotals.add(currencyIndex, direction, signedAmount);
+        } else {
+            Totals slot = minuteSlots.computeIfAbsent(createdMinute, minute -> new Totals());
+            slot.add(currencyIndex, direction, signedAmount);
+            if (slot.totalCount() <= 0) {
+                minuteSlots.remove(createdMinute);
+            }
+        }
+    }
+    
+    private void foldExpiredSlots(long nowMinute) {
+        long watermark = nowMinute - SLOT_WINDOW_MINUTES;
+        if (watermark <= foldedUpToMinute) {
+            return;
+        }
+        Map<Long, Totals> expired = minuteSlots.headMap(watermark, true);
+        for (Totals slot : expired.values()) {
+            olderTotals.addAll(slot);
+        }
+        expired.clear();
+        foldedUpToMinute = watermark;
+    }
+    
+    private static int ageBucketIndex(long ageMinutes) {
+        for (int i = 0; i < AGE_BUCKET_LIMITS.length; i++) {
+            if (ageMinutes < AGE_BUCKET_LIMITS[i]) {
+                return i;
+            }
+        }
+        return AGE_BUCKETS.length - 1;
+    }
+    
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+    
+    /**
+     * Pending count and amount per currency, indexed by currency ordinal.
+     */
+    private static final class Totals {
+        private final long[] counts = new long[CURRENCIES.length];
+        private final BigDecimal[] amounts = new BigDecimal[CURRENCIES.length];
+        
+        Totals() {
+            clear();
+        }
+        
+        void add(int currencyIndex, long count, BigDecimal amount) {
+            counts[currencyIndex] += count;
+            amounts[currencyIndex] = amounts[currencyIndex].add(amount);
+        }
+        
+        void addAll(Totals other) {
+            for (int i = 0; i < CURRENCIES.length; i++) {
+                counts[i] += other.counts[i];
+                amounts[i] = amounts[i].add(other.amounts[i]);
+            }
+        }
+        
+        long totalCount() {
+            return Arrays.stream(counts).sum();
+        }
+        
+        void clear() {
+            Arrays.fill(counts, 0);
+            Arrays.fill(amounts, BigDecimal.ZERO);
+        }
+        
+        Map<Wallet.Currency, PendingTotalsResponse> toResponse() {
+            Map<Wallet.Currency, PendingTotalsResponse> response = new EnumMap<>(Wallet.Currency.class);
+            for (int i = 0; i < CURRENCIES.length; i++) {
+                response.put(CURRENCIES[i], new PendingTotalsResponse(counts[i], amounts[i]));
+            }
+            return response;
+        }
+    }
+    
+    private static final class WalletTotals {
+        private final Wallet.Currency currency;
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        
+        WalletTotals(Wallet.Currency currency) {
+            this.currency = currency;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.response.LoginResponse;
+import com.ing.walletservice.entity.RefreshToken;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.RefreshTokenRepository;
+import com.ing.walletservice.security.JwtUtils;
+import com.ing.walletservice.security.TokenRevocationList;
+import com.ing.walletservice.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues short-lived access tokens together with rotating, server-side refresh tokens.
+ *
+ * Each refresh revokes the presented refresh token and issues a new pair in the same family.
+ * Reusing a revoked refresh token revokes the family and every access token it produced.
+ * Access tokens are revoked through {@link TokenRevocationList}, so request authentication
+ * never reads the refresh token table.
+ */
+@Service
+public class TokenService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+    
+    private static final int REFRESH_TOKEN_BYTES = 32;
+    
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CustomerRepository customerRepository;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtUtils jwtUtils;
+    private final long refreshExpirationMs;
+    private final SecureRandom secureRandom = new SecureRandom();
+    
+    public TokenService(RefreshTokenRepository refreshTokenRepository, CustomerRepository customerRepository,
+                        TokenRevocationList tokenRevocationList, JwtUtils jwtUtils,
+                        @Value("${app.jwt.refresh-expiration-ms:604800000}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.customerRepository = customerRepository;
+        this.tokenRevocationList = tokenRevocationList;
+        this.jwtUtils = jwtUtils;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+    
+    @Transactional
+    public LoginResponse issueTokens(UserPrincipal userPrincipal) {
+        return issueTokens(userPrincipal, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Rotates the refresh token and returns a new token pair.
+     *
+     * @throws BadCredentialsException if the refresh token is unknown, expired or already used
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public LoginResponse refresh(String presentedToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(presentedToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        if (refreshTokenRepository.revokeIfActive(refreshToken.getId()) == 0) {
+            logger.warn("Reuse of refresh token detected for customer {}, revoking token family {}",
+                       refreshToken.getCustomerId(), refreshToken.getFamilyId());
+            revokeFamily(refreshToken.getFamilyId());
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+        
+        UserPrincipal userPrincipal = customerRepository.findById(refreshToken.getCustomerId())
+                .map(UserPrincipal::create)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        return issueTokens(userPrincipal, refreshToken.getFamilyId());
+    }
+    
+    /**
+     * Ends the session: revokes the refresh token family and the access token presented with it.
+     */
+    @Transactional
+    public void logout(String presentedToken, Claims accessTokenClaims) {
+        refreshTokenRepository.findByTokenHash(hash(presentedToken))
+                .ifPresent(refreshToken -> revokeFamily(refreshToken.getFamilyId()));
+        if (accessTokenClaims != null && accessTokenClaims.getId() != null
+                && !tokenRevocationList.isRevoked(accessTokenClaims.getId())) {
+            tokenRevocationList.revoke(accessTokenClaims.getId(), toLocalDateTime(accessTokenClaims.getExpiration()));
+        }
+    }
+    
+    /**
+     * Revokes every refresh token of the customer. Their access tokens are already cut off by
+     * the token version bump that accompanies a credential change.
+     */
+    @Transactional
+    public void revokeAllRefreshTokens(Long customerId) {
+        int revoked = refreshTokenRepository.revokeAllForCustomer(customerId);
+        logger.info("Revoked {} refresh tokens of customer {}", revoked, customerId);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval-ms:300000}")
+    @Transactional
+    public void deleteExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+    
+    private LoginResponse issueTokens(UserPrincipal userPrincipal, String familyId) {
+        long now = System.currentTimeMillis();
+        String accessTokenId = UUID.randomUUID().toString();
+        Date accessExpiresAt = new Date(now + jwtUtils.getJwtExpirationMs());
+        String accessToken = jwtUtils.generateAccessToken(userPrincipal, accessTokenId, accessExpiresAt);
+        
+        byte[] secret = new byte[REFRESH_TOKEN_BYTES];
+        secureRandom.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), userPrincipal.getId(), familyId,
+                accessTokenId, toLocalDateTime(accessExpiresAt),
+                LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs))));
+        
+        String role = userPrincipal.getAuthorities().iterator().next().getAuthority();
+        return new LoginResponse(accessToken, userPrincipal.getId(), userPrincipal.getUsername(), role,
+                refreshToken, jwtUtils.getJwtExpirationMs() / 1000);
+    }
+    
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+        for (RefreshToken token : refreshTokenRepository.findByFamilyIdAndAccessTokenExpiresAtAfter(
+                familyId, LocalDateTime.now())) {
+            if (!tokenRevocationList.isRevoked(token.getAccessTokenId())) {
+                tokenRevocationList.revoke(token.getAccessTokenId(), token.getAccessTokenExpiresAt());
+            }
+        }
+    }
+    
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+    
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
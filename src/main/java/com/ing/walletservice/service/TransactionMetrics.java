@@ -0,0 +1,67 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Business counters maintained from committed {@link WalletTransactionEvent}s:
+ * {@code wallet.transactions} counts created deposits and withdrawals by currency and
+ * initial status, {@code wallet.transaction.decisions} counts approvals and denials of
+ * pending transactions. All counters are registered up front and looked up by ordinal,
+ * so recording an event does not touch the registry.
+ */
+@Component
+public class TransactionMetrics {
+    
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+    private static final Wallet.Currency[] CURRENCIES = Wallet.Currency.values();
+    private static final Transaction.TransactionStatus[] STATUSES = Transaction.TransactionStatus.values();
+    
+    // [type][currency][status]
+    private final Counter[][][] created = new Counter[TYPES.length][CURRENCIES.length][STATUSES.length];
+    private final Counter[][][] decided = new Counter[TYPES.length][CURRENCIES.length][STATUSES.length];
+    
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        for (Transaction.TransactionType type : TYPES) {
+            for (Wallet.Currency currency : CURRENCIES) {
+                for (Transaction.TransactionStatus status : STATUSES) {
+                    created[type.ordinal()][currency.ordinal()][status.ordinal()] =
+                            Counter.builder("wallet.transactions")
+                                    .description("Deposits and withdrawals created")
+                                    .tag("type", type.name())
+                                    .tag("currency", currency.name())
+                                    .tag("status", status.name())
+                                    .register(meterRegistry);
+                    if (status != Transaction.TransactionStatus.PENDING) {
+                        decided[type.ordinal()][currency.ordinal()][status.ordinal()] =
+                                Counter.builder("wallet.transaction.decisions")
+                                        .description("Pending transactions approved or denied")
+                                        .tag("type", type.name())
+                                        .tag("currency", currency.name())
+                                        .tag("status", status.name())
+                                        .register(meterRegistry);
+                    }
+                }
+            }
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWalletTransaction(WalletTransactionEvent event) {
+        int type = event.getType().ordinal();
+        int currency = event.getCurrency().ordinal();
+        int status = event.getStatus().ordinal();
+        if (event.getPreviousStatus() == null) {
+            created[type][currency][status].increment();
+        } else if (event.getPreviousStatus() == Transaction.TransactionStatus.PENDING
+                && event.getStatus() != Transaction.TransactionStatus.PENDING) {
+            decided[type][currency][status].increment();
+        }
+    }
+}
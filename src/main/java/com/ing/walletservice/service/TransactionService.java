@@ -1,51 +1,93 @@
 package com.ing.walletservice.service;
 
 import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.diagnostics.ApprovalEvent;
+import com.ing.walletservice.diagnostics.DepositEvent;
+import com.ing.walletservice.diagnostics.WithdrawEvent;
 import com.ing.walletservice.dto.request.ApprovalRequest;
 import com.ing.walletservice.dto.request.DepositRequest;
+import com.ing.walletservice.dto.request.TransactionSearchRequest;
 import com.ing.walletservice.dto.request.WithdrawRequest;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
+import com.ing.walletservice.dto.response.PagedResponse;
 import com.ing.walletservice.dto.response.TransactionResponse;
 import com.ing.walletservice.entity.Transaction;
 import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletTransactionEvent;
 import com.ing.walletservice.exception.InsufficientBalanceException;
 import com.ing.walletservice.exception.ResourceNotFoundException;
 import com.ing.walletservice.exception.UnauthorizedException;
 import com.ing.walletservice.exception.WalletNotActiveException;
 import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.TransactionSpecifications;
 import com.ing.walletservice.repository.WalletRepository;
 import com.ing.walletservice.security.UserPrincipal;
 
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "wallet.service")
 public class TransactionService {
     
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
     
     private final TransactionRepository transactionRepository;
     private final WalletRepository walletRepository;
+    private final WalletOwnershipIndex walletOwnershipIndex;
+    private final WalletLockTimer walletLockTimer;
+    private final WalletAccess walletAccess;
     private final AuditLogger auditLogger;
+    private final WalletStatementService walletStatementService;
+    private final ApplicationEventPublisher eventPublisher;
     
     private static final BigDecimal APPROVAL_THRESHOLD = new BigDecimal("1000");
     
-    public TransactionService(TransactionRepository transactionRepository, WalletRepository walletRepository, AuditLogger auditLogger) {
+    // Search results are capped per page and bounded to a default date window so
+    // every search has a created_date predicate the composite indexes can use
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_WINDOW_DAYS = 30;
+    
+    // Shorter prefixes would match most of the table (every Turkish IBAN starts with "TR")
+    private static final int MIN_COUNTERPARTY_PREFIX_LENGTH = 4;
+    
+    public TransactionService(TransactionRepository transactionRepository, WalletRepository walletRepository,
+                              WalletOwnershipIndex walletOwnershipIndex, WalletLockTimer walletLockTimer,
+                              WalletAccess walletAccess, AuditLogger auditLogger,
+                              WalletStatementService walletStatementService,
+                              ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
         this.walletRepository = walletRepository;
+        this.walletOwnershipIndex = walletOwnershipIndex;
+        this.walletLockTimer = walletLockTimer;
+        this.walletAccess = walletAccess;
         this.auditLogger = auditLogger;
+        this.walletStatementService = walletStatementService;
+        this.eventPublisher = eventPublisher;
     }
     
     @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
     public TransactionResponse deposit(DepositRequest request, Authentication authentication) {
+        DepositEvent jfrEvent = new DepositEvent();
+        jfrEvent.begin();
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         boolean isEmployee = authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
@@ -53,21 +95,10 @@ public class TransactionService {
         logger.info("Processing deposit request: amount={}, walletId={}, user={}", 
                    request.getAmount(), request.getWalletId(), userPrincipal.getUsername());
         
-        // Use pessimistic locking to get the latest wallet state
-        Wallet wallet = walletRepository.findByIdForUpdate(request.getWalletId())
-                .orElseThrow(() -> {
-                    logger.error("Wallet not found with ID: {}", request.getWalletId());
-                    return new ResourceNotFoundException("Wallet not found");
-                });
-        
-        // Check if user can access this wallet
-        if (!isEmployee && !wallet.getCustomer().getId().equals(userPrincipal.getId())) {
-            logger.warn("User {} attempted to deposit to wallet {} owned by customer {}", 
-                       userPrincipal.getUsername(), request.getWalletId(), wallet.getCustomer().getId());
-            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), 
-                                            "wallet", "deposit to wallet " + request.getWalletId());
-            throw new UnauthorizedException("You can only deposit to your own wallets");
-        }
+        // Use pessimistic locking to get the latest wallet state; customers only lock their own wallets
+        Wallet wallet = lockWallet(request.getWalletId(), userPrincipal, isEmployee)
+                .orElseThrow(() -> walletAccess.notAccessible(request.getWalletId(), userPrincipal,
+                        "deposit to wallet " + request.getWalletId(), "You can only deposit to your own wallets"));
         
         // Determine transaction status based on amount
         Transaction.TransactionStatus status = request.getAmount().compareTo(APPROVAL_THRESHOLD) >= 0 
@@ -97,6 +128,10 @@ public class TransactionService {
         // Update wallet balances
         updateWalletBalancesForDeposit(wallet, request.getAmount(), status);
         
+        if (status == Transaction.TransactionStatus.APPROVED) {
+            walletStatementService.recordApproved(transaction);
+        }
+        
         logger.debug("After balance update: walletId={}, newBalance={}, newUsableBalance={}", 
                     wallet.getId(), wallet.getBalance(), wallet.getUsableBalance());
         
@@ -107,14 +142,20 @@ public class TransactionService {
                                    oldUsableBalance, wallet.getUsableBalance(), 
                                    "Deposit transaction", userPrincipal.getUsername());
         
+        eventPublisher.publishEvent(new WalletTransactionEvent(wallet, transaction, null));
+        
         logger.info("Deposit transaction {} created successfully with status {} for wallet {}", 
                    transaction.getId(), status, request.getWalletId());
         
+        jfrEvent.complete(wallet.getId(), request.getAmount(), status);
+        
         return new TransactionResponse(transaction);
     }
     
     @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
     public TransactionResponse withdraw(WithdrawRequest request, Authentication authentication) {
+        WithdrawEvent jfrEvent = new WithdrawEvent();
+        jfrEvent.begin();
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         boolean isEmployee = authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
@@ -122,21 +163,10 @@ public class TransactionService {
         logger.info("Processing withdrawal request: amount={}, walletId={}, user={}", 
                    request.getAmount(), request.getWalletId(), userPrincipal.getUsername());
         
-        // Use pessimistic locking to get the latest wallet state
-        Wallet wallet = walletRepository.findByIdForUpdate(request.getWalletId())
-                .orElseThrow(() -> {
-                    logger.error("Wallet not found with ID: {}", request.getWalletId());
-                    return new ResourceNotFoundException("Wallet not found");
-                });
-        
-        // Check if user can access this wallet
-        if (!isEmployee && !wallet.getCustomer().getId().equals(userPrincipal.getId())) {
-            logger.warn("User {} attempted to withdraw from wallet {} owned by customer {}", 
-                       userPrincipal.getUsername(), request.getWalletId(), wallet.getCustomer().getId());
-            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), 
-                                            "wallet", "withdraw from wallet " + request.getWalletId());
-            throw new UnauthorizedException("You can only withdraw from your own wallets");
-        }
+        // Use pessimistic locking to get the latest wallet state; customers only lock their own wallets
+        Wallet wallet = lockWallet(request.getWalletId(), userPrincipal, isEmployee)
+                .orElseThrow(() -> walletAccess.notAccessible(request.getWalletId(), userPrincipal,
+                        "withdraw from wallet " + request.getWalletId(), "You can only withdraw from your own wallets"));
         
         // Check wallet settings
         if (!wallet.getActiveForWithdraw()) {
@@ -177,6 +207,10 @@ public class TransactionService {
         // Update wallet balances
         updateWalletBalancesForWithdraw(wallet, request.getAmount(), status);
         
+        if (status == Transaction.TransactionStatus.APPROVED) {
+            walletStatementService.recordApproved(transaction);
+        }
+        
         auditLogger.logTransactionCreation(transaction.getId(), "WITHDRAW", request.getAmount(), 
                                           request.getWalletId(), status.name(), userPrincipal.getUsername());
         
@@ -184,9 +218,13 @@ public class TransactionService {
                                    oldUsableBalance, wallet.getUsableBalance(), 
                                    "Withdrawal transaction", userPrincipal.getUsername());
         
+        eventPublisher.publishEvent(new WalletTransactionEvent(wallet, transaction, null));
+        
         logger.info("Withdrawal transaction {} created successfully with status {} for wallet {}", 
                    transaction.getId(), status, request.getWalletId());
         
+        jfrEvent.complete(wallet.getId(), request.getAmount(), status);
+        
         return new TransactionResponse(transaction);
     }
     
@@ -196,12 +234,18 @@ public class TransactionService {
         boolean isEmployee = authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
         
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new ResourceNotFoundException("Wallet not found"));
-        
-        // Check if user can access this wallet
-        if (!isEmployee && !wallet.getCustomer().getId().equals(userPrincipal.getId())) {
-            throw new UnauthorizedException("You can only view transactions for your own wallets");
+        long indexedOwner = walletOwnershipIndex.ownerOf(walletId);
+        boolean accessible;
+        if (isEmployee) {
+            accessible = indexedOwner != WalletOwnershipIndex.UNKNOWN_OWNER || walletRepository.existsById(walletId);
+        } else if (indexedOwner != WalletOwnershipIndex.UNKNOWN_OWNER) {
+            accessible = indexedOwner == userPrincipal.getId();
+        } else {
+            accessible = walletRepository.findByIdAndCustomerId(walletId, userPrincipal.getId()).isPresent();
+        }
+        if (!accessible) {
+            throw walletAccess.notAccessible(walletId, userPrincipal, "list transactions of wallet " + walletId,
+                    "You can only view transactions for your own wallets");
         }
         
         List<Transaction> transactions = transactionRepository.findByWalletIdOrderByCreatedDateDesc(walletId);
@@ -210,8 +254,132 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public PagedResponse<TransactionResponse> searchTransactions(TransactionSearchRequest request, int page, int size,
+                                                                 Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        
+        if (!isEmployee) {
+            logger.warn("Non-employee user {} attempted to search transactions", userPrincipal.getUsername());
+            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), "transactions", "search transactions");
+            throw new UnauthorizedException("Only employees can search transactions");
+        }
+        
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must be zero or positive and size must be positive");
+        }
+        
+        LocalDateTime to = request.getTo();
+        LocalDateTime from = request.getFrom();
+        if (from == null) {
+            from = (to != null ? to : LocalDateTime.now()).minusDays(DEFAULT_SEARCH_WINDOW_DAYS);
+        }
+        if (to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (request.getMinAmount() != null && request.getMaxAmount() != null
+                && request.getMinAmount().compareTo(request.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("'minAmount' must not be greater than 'maxAmount'");
+        }
+        
+        Specification<Transaction> specification = Specification.allOf(
+                TransactionSpecifications.createdFrom(from),
+                TransactionSpecifications.createdTo(to),
+                TransactionSpecifications.hasType(request.getType()),
+                TransactionSpecifications.hasStatus(request.getStatus()),
+                TransactionSpecifications.hasOppositePartyType(request.getOppositePartyType()),
+                TransactionSpecifications.amountAtLeast(request.getMinAmount()),
+                TransactionSpecifications.amountAtMost(request.getMaxAmount()));
+        
+        PageRequest pageRequest = PageRequest.of(page, Math.min(size, MAX_SEARCH_PAGE_SIZE),
+                Sort.by(Sort.Direction.DESC, "createdDate"));
+        
+        logger.debug("Searching transactions for employee {}: from={}, to={}, type={}, status={}, page={}, size={}",
+                userPrincipal.getUsername(), from, to, request.getType(), request.getStatus(),
+                pageRequest.getPageNumber(), pageRequest.getPageSize());
+        
+        Slice<Transaction> transactions = transactionRepository.findBy(specification,
+                query -> query.slice(pageRequest));
+        
+        logger.info("Transaction search by {} returned {} results (hasNext={})",
+                userPrincipal.getUsername(), transactions.getNumberOfElements(), transactions.hasNext());
+        
+        return PagedResponse.of(transactions, TransactionResponse::new);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<TransactionResponse> searchByCounterparty(String counterparty, boolean prefix,
+                                                                     String cursor, int size,
+                                                                     Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        
+        if (!isEmployee) {
+            logger.warn("Non-employee user {} attempted a counterparty lookup", userPrincipal.getUsername());
+            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), "transactions", "counterparty lookup");
+            throw new UnauthorizedException("Only employees can look up transactions by counterparty");
+        }
+        
+        String key = Transaction.normalizeCounterparty(counterparty);
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Counterparty is required");
+        }
+        if (prefix && key.length() < MIN_COUNTERPARTY_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Counterparty prefix must have at least "
+                    + MIN_COUNTERPARTY_PREFIX_LENGTH + " characters");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        int pageSize = Math.min(size, MAX_SEARCH_PAGE_SIZE);
+        
+        Specification<Transaction> specification = Specification.allOf(
+                prefix ? TransactionSpecifications.counterpartyStartsWith(key)
+                        : TransactionSpecifications.counterpartyEquals(key),
+                counterpartyCursor(cursor));
+        // Newest first for an exact IBAN; for a prefix, grouped by IBAN and newest first within each
+        Sort sort = Sort.by(Sort.Direction.DESC, "oppositePartyKey").and(Sort.by(Sort.Direction.DESC, "id"));
+        
+        List<Transaction> transactions = transactionRepository.findBy(specification,
+                query -> query.sortBy(sort).limit(pageSize + 1).all());
+        
+        boolean hasNext = transactions.size() > pageSize;
+        List<Transaction> page = hasNext ? transactions.subList(0, pageSize) : transactions;
+        String nextCursor = null;
+        if (hasNext) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getOppositePartyKey() + ":" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        
+        logger.info("Counterparty lookup by {} ({} match) returned {} transactions, hasNext: {}",
+                userPrincipal.getUsername(), prefix ? "prefix" : "exact", page.size(), hasNext);
+        
+        return new CursorPagedResponse<>(page.stream().map(TransactionResponse::new).collect(Collectors.toList()),
+                pageSize, nextCursor);
+    }
+    
+    private static Specification<Transaction> counterpartyCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf(':');
+            return TransactionSpecifications.counterpartyBefore(position.substring(0, separator),
+                    Long.valueOf(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
     @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
     public TransactionResponse approveTransaction(ApprovalRequest request, Authentication authentication) {
+        ApprovalEvent jfrEvent = new ApprovalEvent();
+        jfrEvent.begin();
         // Only employees can approve transactions
         boolean isEmployee = authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
@@ -247,12 +415,17 @@ public class TransactionService {
         final Transaction finalTransaction = transactionRepository.save(transaction);
         
         // Update wallet balances based on approval decision
-        Wallet wallet = walletRepository.findByIdForUpdate(finalTransaction.getWallet().getId()).orElseThrow();
+        Long walletId = finalTransaction.getWallet().getId();
+        Wallet wallet = walletLockTimer.lock(walletId, () -> walletRepository.findByIdForUpdate(walletId)).orElseThrow();
         BigDecimal oldBalance = wallet.getBalance();
         BigDecimal oldUsableBalance = wallet.getUsableBalance();
         
         updateWalletBalancesForApproval(finalTransaction, request.getStatus(), wallet);
         
+        if (request.getStatus() == Transaction.TransactionStatus.APPROVED) {
+            walletStatementService.recordApproved(finalTransaction);
+        }
+        
         auditLogger.logTransactionApproval(finalTransaction.getId(), oldStatus.name(), 
                                          request.getStatus().name(), finalTransaction.getAmount(), 
                                          userPrincipal.getUsername());
@@ -261,12 +434,28 @@ public class TransactionService {
                                    oldUsableBalance, wallet.getUsableBalance(), 
                                    "Transaction approval: " + request.getStatus(), userPrincipal.getUsername());
         
+        eventPublisher.publishEvent(new WalletTransactionEvent(wallet, finalTransaction, oldStatus));
+        
         logger.info("Transaction {} status changed from {} to {} by employee {}", 
                    finalTransaction.getId(), oldStatus, request.getStatus(), userPrincipal.getUsername());
         
+        jfrEvent.complete(finalTransaction.getId(), wallet.getId(), finalTransaction.getAmount(), request.getStatus());
+        
         return new TransactionResponse(finalTransaction);
     }
     
+    private Optional<Wallet> lockWallet(Long walletId, UserPrincipal userPrincipal, boolean isEmployee) {
+        if (isEmployee) {
+            return walletLockTimer.lock(walletId, () -> walletRepository.findByIdForUpdate(walletId));
+        }
+        // Another customer's wallet is rejected from the ownership index without touching the database
+        if (walletOwnershipIndex.isOwnedByOther(walletId, userPrincipal.getId())) {
+            return Optional.empty();
+        }
+        return walletLockTimer.lock(walletId,
+                () -> walletRepository.findByIdAndCustomerIdForUpdate(walletId, userPrincipal.getId()));
+    }
+
     private void updateWalletBalancesForDeposit(Wallet wallet, BigDecimal amount, 
                                               Transaction.TransactionStatus status) {
         if (status == Transaction.TransactionStatus.APPROVED) {
@@ -0,0 +1,51 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.exception.ResourceNotFoundException;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides why a wallet-scoped ownership query came back empty. The services load wallets
+ * with the caller's customer id in the query, so an empty result is either a missing wallet
+ * (404) or someone else's (403, audited); this is the single place that tells them apart.
+ */
+@Component
+public class WalletAccess {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WalletAccess.class);
+    
+    private final WalletRepository walletRepository;
+    private final WalletOwnershipIndex walletOwnershipIndex;
+    private final AuditLogger auditLogger;
+    
+    public WalletAccess(WalletRepository walletRepository, WalletOwnershipIndex walletOwnershipIndex,
+                        AuditLogger auditLogger) {
+        this.walletRepository = walletRepository;
+        this.walletOwnershipIndex = walletOwnershipIndex;
+        this.auditLogger = auditLogger;
+    }
+    
+    /**
+     * Builds the exception for a wallet the ownership query did not return: 404 when it does not
+     * exist, 403 (audited) when it belongs to another customer. The owner comes from the ownership
+     * index when it knows the wallet, otherwise from the database.
+     */
+    public RuntimeException notAccessible(Long walletId, UserPrincipal userPrincipal, String action, String message) {
+        long indexedOwner = walletOwnershipIndex.ownerOf(walletId);
+        Long ownerId = indexedOwner != WalletOwnershipIndex.UNKNOWN_OWNER
+                ? Long.valueOf(indexedOwner)
+                : walletRepository.findCustomerIdById(walletId).orElse(null);
+        if (ownerId == null) {
+            logger.error("Wallet not found with ID: {}", walletId);
+            return new ResourceNotFoundException("Wallet not found");
+        }
+        logger.warn("User {} attempted to {} owned by customer {}", userPrincipal.getUsername(), action, ownerId);
+        auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), "wallet", action);
+        return new UnauthorizedException(message);
+    }
+}
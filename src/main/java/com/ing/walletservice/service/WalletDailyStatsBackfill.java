@@ -0,0 +1,135 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.WalletDailyStats;
+import com.ing.walletservice.repository.DailyTransactionTotals;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletDailyStatsRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds wallet_daily_stats from transaction history.
+ *
+ * The wallet id space is split into fixed-size chunks that are processed in parallel,
+ * each in its own transaction. A chunk locks its wallets first so live deposits,
+ * withdrawals and approvals on those wallets wait until the rebuilt rows are committed.
+ */
+@Component
+public class WalletDailyStatsBackfill implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WalletDailyStatsBackfill.class);
+    
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletDailyStatsRepository walletDailyStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.rollups.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+    
+    @Value("${app.rollups.backfill-threads:4}")
+    private int backfillThreads;
+    
+    @Value("${app.rollups.backfill-chunk-size:500}")
+    private int chunkSize;
+    
+    public WalletDailyStatsBackfill(WalletRepository walletRepository, TransactionRepository transactionRepository,
+                                    WalletDailyStatsRepository walletDailyStatsRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.walletDailyStatsRepository = walletDailyStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+    
+    /**
+     * Rebuilds every wallet's rollups and returns the number of rollup rows written.
+     */
+    public int backfill() {
+        Long minId = walletRepository.findMinId().orElse(null);
+        Long maxId = walletRepository.findMaxId().orElse(null);
+        if (minId == null || maxId == null) {
+            logger.info("Rollup backfill skipped: no wallets");
+            return 0;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        AtomicInteger rowsWritten = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, backfillThreads));
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+                long chunkFrom = fromId;
+                long chunkTo = Math.min(maxId, fromId + chunkSize - 1);
+                chunks.add(executor.submit(() -> rowsWritten.addAndGet(backfillChunk(chunkFrom, chunkTo))));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollup backfill failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        logger.info("Rollup backfill completed: wallets {}..{}, {} rows written in {} ms",
+                minId, maxId, rowsWritten.get(), System.currentTimeMillis() - startTime);
+        return rowsWritten.get();
+    }
+    
+    private int backfillChunk(long fromWalletId, long toWalletId) {
+        Integer written = transactionTemplate.execute(status -> {
+            walletRepository.findByIdRangeForUpdate(fromWalletId, toWalletId);
+            walletDailyStatsRepository.deleteByWalletIdRange(fromWalletId, toWalletId);
+            
+            Map<String, WalletDailyStats> rollups = new HashMap<>();
+            for (DailyTransactionTotals totals : transactionRepository.sumByWalletAndDay(
+                    Transaction.TransactionStatus.APPROVED, fromWalletId, toWalletId)) {
+                Long walletId = totals.getWalletId();
+                LocalDate statDate = totals.getStatDate();
+                WalletDailyStats stats = rollups.computeIfAbsent(walletId + ":" + statDate,
+                        key -> new WalletDailyStats(walletId, statDate));
+                if (totals.getType() == Transaction.TransactionType.DEPOSIT) {
+                    stats.addDeposit(totals.getTransactionCount(), totals.getTotalAmount());
+                } else {
+                    stats.addWithdraw(totals.getTransactionCount(), totals.getTotalAmount());
+                }
+            }
+            
+            walletDailyStatsRepository.saveAll(rollups.values());
+            return rollups.size();
+        });
+        
+        logger.debug("Rollup backfill chunk {}..{} wrote {} rows", fromWalletId, toWalletId, written);
+        return written == null ? 0 : written;
+    }
+}
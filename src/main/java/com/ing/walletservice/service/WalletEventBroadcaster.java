@@ -0,0 +1,241 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.response.WalletEventResponse;
+import com.ing.walletservice.dto.response.WalletResponse;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import com.ing.walletservice.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans committed wallet changes out to Server-Sent Events subscribers.
+ *
+ * Publishing never blocks: the committing thread only offers the event to each subscriber's
+ * bounded queue and a small dispatcher pool does the socket writes. A subscriber whose queue
+ * is full is too slow to keep up and is disconnected; the client reconnects and gets a fresh
+ * snapshot. Open streams hold no request thread, so a node can keep thousands of them.
+ * Nor do they hold a database connection: the snapshot is read in its own transaction and
+ * open-in-view is off, so its connection goes back to the pool before the stream starts.
+ */
+@Service
+public class WalletEventBroadcaster implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WalletEventBroadcaster.class);
+    
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Executor dispatcher;
+    private final ScheduledExecutorService heartbeat;
+    
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    
+    @Autowired
+    public WalletEventBroadcaster(@Value("${app.sse.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${app.sse.buffer-size:32}") int bufferSize,
+                                  @Value("${app.sse.timeout-ms:1800000}") long timeoutMillis,
+                                  @Value("${app.sse.heartbeat-ms:30000}") long heartbeatMillis,
+                                  @Value("${app.sse.dispatcher-threads:4}") int dispatcherThreads) {
+        this(maxSubscribers, bufferSize, timeoutMillis, heartbeatMillis,
+                Executors.newFixedThreadPool(dispatcherThreads, daemonThreads("wallet-sse-")));
+    }
+    
+    WalletEventBroadcaster(int maxSubscribers, int bufferSize, long timeoutMillis, long heartbeatMillis,
+                           Executor dispatcher) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.dispatcher = dispatcher;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("wallet-sse-heartbeat-"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Opens a stream for the wallet and sends the current wallet state as its first event.
+     *
+     * The subscriber is registered before the snapshot is read, so a change that commits
+     * while the snapshot is being loaded is queued behind it rather than lost. Events queued
+     * that way are held until the snapshot is in place; one of them may already be reflected
+     * in the snapshot, which is harmless because every event carries the resulting balances.
+     */
+    public SseEmitter subscribe(Long walletId, Supplier<WalletResponse> snapshot) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open event streams, retry later");
+        }
+        
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(walletId, emitter, bufferSize);
+        
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        
+        subscribers.computeIfAbsent(walletId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        try {
+            subscriber.snapshot = SseEmitter.event().name("snapshot").data(snapshot.get());
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        subscriber.ready = true;
+        schedule(subscriber);
+        
+        logger.debug("Event stream opened for wallet {} ({} subscribers)", walletId, subscriberCount.get());
+        return emitter;
+    }
+    
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWalletTransaction(WalletTransactionEvent event) {
+        Set<Subscriber> walletSubscribers = subscribers.get(event.getWalletId());
+        if (walletSubscribers == null || walletSubscribers.isEmpty()) {
+            return;
+        }
+        WalletEventResponse payload = new WalletEventResponse(event);
+        for (Subscriber subscriber : walletSubscribers) {
+            enqueue(subscriber, SseEmitter.event()
+                    .name("transaction")
+                    .id(String.valueOf(event.getTransactionId()))
+                    .data(payload));
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+    
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+    
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            logger.info("Dropping slow event stream subscriber for wallet {}: buffer of {} events is full",
+                    subscriber.walletId, bufferSize);
+            close(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        // Until the snapshot is read, events stay queued behind it
+        if (subscriber.ready && subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder snapshot = subscriber.snapshot;
+            if (snapshot != null) {
+                subscriber.snapshot = null;
+                subscriber.emitter.send(snapshot);
+            }
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Event stream for wallet {} closed by client: {}", subscriber.walletId, e.getMessage());
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before draining was reset
+        if (!subscriber.closed.get() && !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+    
+    private void sendHeartbeat() {
+        subscribers.values().forEach(set -> set.forEach(
+                subscriber -> enqueue(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+    
+    private void close(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+    
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriber.queue.clear();
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.walletId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        return true;
+    }
+    
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static final class Subscriber {
+        private final Long walletId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile SseEmitter.SseEventBuilder snapshot;
+        private volatile boolean ready;
+        
+        Subscriber(Long walletId, SseEmitter emitter, int bufferSize) {
+            this.walletId = walletId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
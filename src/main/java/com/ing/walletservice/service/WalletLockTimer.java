@@ -0,0 +1,54 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.diagnostics.HotWalletTracker;
+import com.ing.walletservice.diagnostics.WalletLockWaitEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times the pessimistic wallet lock queries ({@code SELECT ... FOR UPDATE}). The measured
+ * time is dominated by waiting for a concurrent transaction on the same wallet to commit,
+ * so the {@code wallet.lock.acquire} histogram is the lock contention signal. Each lock
+ * is also a {@link WalletLockWaitEvent} in flight recordings and is counted per wallet by
+ * the {@link HotWalletTracker}.
+ */
+@Component
+public class WalletLockTimer {
+    
+    private final Timer lockAcquire;
+    private final HotWalletTracker hotWalletTracker;
+    
+    public WalletLockTimer(MeterRegistry meterRegistry, HotWalletTracker hotWalletTracker) {
+        this.hotWalletTracker = hotWalletTracker;
+        this.lockAcquire = Timer.builder("wallet.lock.acquire")
+                .description("Time to acquire the row lock on a wallet")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    public <T extends Optional<?>> T lock(Long walletId, Supplier<T> lockQuery) {
+        WalletLockWaitEvent event = new WalletLockWaitEvent();
+        event.begin();
+        long start = System.nanoTime();
+        T wallet = null;
+        try {
+            wallet = lockQuery.get();
+            return wallet;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lockAcquire.record(elapsed, TimeUnit.NANOSECONDS);
+            hotWalletTracker.record(walletId, elapsed);
+            event.end();
+            if (event.shouldCommit()) {
+                event.walletId = walletId != null ? walletId : 0;
+                event.acquired = wallet != null && wallet.isPresent();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.event.WalletCreatedEvent;
+import com.ing.walletservice.repository.WalletOwnership;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.util.LongLongHashMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory map from wallet id to owning customer id, used to authorize wallet-scoped requests
+ * without a database read.
+ *
+ * Loaded at startup by paging through the wallets table and kept current from
+ * {@link WalletCreatedEvent}s. Wallet ownership never changes, so a known owner is always
+ * right; a wallet the index does not know yet (created on another node, or just now) returns
+ * {@link #UNKNOWN_OWNER} and callers fall back to the ownership-checked query. Lookups are
+ * optimistic reads that only take the lock when they race with an insert.
+ */
+@Component
+public class WalletOwnershipIndex implements SmartInitializingSingleton {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WalletOwnershipIndex.class);
+    
+    public static final long UNKNOWN_OWNER = LongLongHashMap.NO_VALUE;
+    
+    private final WalletRepository walletRepository;
+    private final int loadChunkSize;
+    private final StampedLock lock = new StampedLock();
+    private final LongLongHashMap owners = new LongLongHashMap(0);
+    
+    public WalletOwnershipIndex(WalletRepository walletRepository, MeterRegistry meterRegistry,
+                                @Value("${app.wallet-ownership.load-chunk-size:10000}") int loadChunkSize) {
+        this.walletRepository = walletRepository;
+        this.loadChunkSize = loadChunkSize;
+        meterRegistry.gauge("wallet.ownership.entries", this, WalletOwnershipIndex::size);
+        meterRegistry.gauge("wallet.ownership.memory.bytes", this, WalletOwnershipIndex::memoryBytes);
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.currentTimeMillis();
+        long stamp = lock.writeLock();
+        try {
+            owners.ensureCapacity(Math.toIntExact(walletRepository.count()));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        
+        long afterId = 0L;
+        List<WalletOwnership> chunk;
+        do {
+            chunk = walletRepository.findOwnershipAfter(afterId, Limit.of(loadChunkSize));
+            stamp = lock.writeLock();
+            try {
+                for (WalletOwnership ownership : chunk) {
+                    owners.put(ownership.getWalletId(), ownership.getCustomerId());
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getWalletId();
+            }
+        } while (chunk.size() == loadChunkSize);
+        
+        logger.info("Loaded ownership of {} wallets in {} ms ({} bytes)", size(),
+                System.currentTimeMillis() - started, memoryBytes());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWalletCreated(WalletCreatedEvent event) {
+        remember(event.getWalletId(), event.getCustomerId());
+    }
+    
+    public void remember(long walletId, long customerId) {
+        // Most calls re-confirm a known owner and should not contend for the write lock
+        if (ownerOf(walletId) == customerId) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            owners.put(walletId, customerId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Returns the customer owning the wallet, or {@link #UNKNOWN_OWNER} if the index does not know it.
+     */
+    public long ownerOf(long walletId) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                long owner = owners.get(walletId);
+                if (lock.validate(stamp)) {
+                    return owner;
+                }
+            } catch (RuntimeException e) {
+                // Torn read during a rehash; retried under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return owners.get(walletId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * True only when the wallet is known to belong to a different customer.
+     */
+    public boolean isOwnedByOther(long walletId, long customerId) {
+        long owner = ownerOf(walletId);
+        return owner != UNKNOWN_OWNER && owner != customerId;
+    }
+    
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return owners.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return owners.memoryBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
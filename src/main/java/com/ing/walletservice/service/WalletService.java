@@ -2,38 +2,59 @@ package com.ing.walletservice.service;
 
 import com.ing.walletservice.audit.AuditLogger;
 import com.ing.walletservice.dto.request.CreateWalletRequest;
+import com.ing.walletservice.dto.request.WalletSearchRequest;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
 import com.ing.walletservice.dto.response.WalletResponse;
 import com.ing.walletservice.entity.Customer;
 import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletCreatedEvent;
 import com.ing.walletservice.exception.ResourceNotFoundException;
 import com.ing.walletservice.exception.UnauthorizedException;
 import com.ing.walletservice.repository.CustomerRepository;
 import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.repository.WalletSpecifications;
 import com.ing.walletservice.security.UserPrincipal;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "wallet.service")
 public class WalletService {
 
     private static final Logger logger = LoggerFactory.getLogger(WalletService.class);
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
 
     private final WalletRepository walletRepository;
+    private final WalletOwnershipIndex walletOwnershipIndex;
     private final CustomerRepository customerRepository;
+    private final WalletAccess walletAccess;
     private final AuditLogger auditLogger;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public WalletService(WalletRepository walletRepository, CustomerRepository customerRepository, AuditLogger auditLogger) {
+    public WalletService(WalletRepository walletRepository, CustomerRepository customerRepository,
+            WalletOwnershipIndex walletOwnershipIndex, WalletAccess walletAccess, AuditLogger auditLogger,
+            ApplicationEventPublisher eventPublisher) {
         this.walletRepository = walletRepository;
+        this.walletOwnershipIndex = walletOwnershipIndex;
         this.customerRepository = customerRepository;
+        this.walletAccess = walletAccess;
         this.auditLogger = auditLogger;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
@@ -77,6 +98,8 @@ public class WalletService {
         auditLogger.logWalletCreation(customer.getId(), request.getWalletName(),
                 request.getCurrency().name(), userPrincipal.getUsername());
 
+        eventPublisher.publishEvent(new WalletCreatedEvent(wallet));
+
         logger.info("Wallet created successfully with ID: {} for customer: {}",
                 wallet.getId(), customer.getId());
 
@@ -123,6 +146,97 @@ public class WalletService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<WalletResponse> searchWallets(WalletSearchRequest request, int size,
+            Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+
+        if (!isEmployee) {
+            logger.warn("Non-employee user {} attempted to search all wallets", userPrincipal.getUsername());
+            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(), "wallets", "search all wallets");
+            throw new UnauthorizedException("Only employees can search all wallets");
+        }
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (request.getMinBalance() != null && request.getMaxBalance() != null
+                && request.getMinBalance().compareTo(request.getMaxBalance()) > 0) {
+            throw new IllegalArgumentException("'minBalance' must not be greater than 'maxBalance'");
+        }
+
+        WalletSearchRequest.SortField sortBy = request.getSortBy() != null
+                ? request.getSortBy() : WalletSearchRequest.SortField.ID;
+        Sort.Direction direction = request.getDirection() != null ? request.getDirection() : Sort.Direction.ASC;
+        int pageSize = Math.min(size, MAX_SEARCH_PAGE_SIZE);
+
+        // Ordering always ends with the id so equal balances page deterministically
+        Sort sort = sortBy == WalletSearchRequest.SortField.BALANCE
+                ? Sort.by(direction, "balance").and(Sort.by(direction, "id"))
+                : Sort.by(direction, "id");
+        Specification<Wallet> specification = Specification.allOf(
+                WalletSpecifications.hasCurrency(request.getCurrency()),
+                WalletSpecifications.balanceAtLeast(request.getMinBalance()),
+                WalletSpecifications.balanceAtMost(request.getMaxBalance()),
+                WalletSpecifications.activeForShopping(request.getActiveForShopping()),
+                WalletSpecifications.activeForWithdraw(request.getActiveForWithdraw()),
+                afterCursor(request.getCursor(), sortBy, direction));
+
+        logger.debug("Searching wallets for employee {}: currency={}, sortBy={}, direction={}, size={}",
+                userPrincipal.getUsername(), request.getCurrency(), sortBy, direction, pageSize);
+
+        // Fetch one extra row to learn whether another page exists without counting
+        List<Wallet> wallets = walletRepository.findBy(specification,
+                query -> query.sortBy(sort).limit(pageSize + 1).all());
+
+        boolean hasNext = wallets.size() > pageSize;
+        List<Wallet> page = hasNext ? wallets.subList(0, pageSize) : wallets;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1), sortBy, direction) : null;
+
+        logger.info("Employee {} retrieved {} wallets, hasNext: {}", userPrincipal.getUsername(), page.size(), hasNext);
+
+        return new CursorPagedResponse<>(page.stream().map(WalletResponse::new).collect(Collectors.toList()),
+                pageSize, nextCursor);
+    }
+
+    /**
+     * Cursors are opaque to clients: the sort they were issued for plus the last row's sort key.
+     */
+    private static String encodeCursor(Wallet last, WalletSearchRequest.SortField sortBy, Sort.Direction direction) {
+        String position = sortBy == WalletSearchRequest.SortField.BALANCE
+                ? last.getBalance().toPlainString() + ":" + last.getId()
+                : String.valueOf(last.getId());
+        String raw = sortBy + ":" + direction + ":" + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Specification<Wallet> afterCursor(String cursor, WalletSearchRequest.SortField sortBy,
+            Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        boolean balanceSort = sortBy == WalletSearchRequest.SortField.BALANCE;
+        if (parts.length != (balanceSort ? 4 : 3)
+                || !parts[0].equals(sortBy.name()) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        try {
+            return balanceSort
+                    ? WalletSpecifications.balanceAfter(new BigDecimal(parts[2]), Long.valueOf(parts[3]), direction)
+                    : WalletSpecifications.idAfter(Long.valueOf(parts[2]), direction);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     @Transactional(readOnly = true)
     public WalletResponse getWallet(Long walletId, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
@@ -131,20 +245,17 @@ public class WalletService {
 
         logger.debug("Retrieving wallet with ID: {} for user: {}", walletId, userPrincipal.getUsername());
 
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> {
-                    logger.error("Wallet not found with ID: {}", walletId);
-                    return new ResourceNotFoundException("Wallet not found");
-                });
-
-        // Check if user can access this wallet
-        if (!isEmployee && !wallet.getCustomer().getId().equals(userPrincipal.getId())) {
-            logger.warn("User {} attempted to access wallet {} owned by customer {}",
-                    userPrincipal.getUsername(), walletId, wallet.getCustomer().getId());
-            auditLogger.logUnauthorizedAccess(userPrincipal.getUsername(),
-                    "wallet", "access wallet " + walletId);
-            throw new UnauthorizedException("You can only access your own wallets");
+        Optional<Wallet> accessibleWallet;
+        if (isEmployee) {
+            accessibleWallet = walletRepository.findById(walletId);
+        } else if (walletOwnershipIndex.isOwnedByOther(walletId, userPrincipal.getId())) {
+            accessibleWallet = Optional.empty();
+        } else {
+            accessibleWallet = walletRepository.findByIdAndCustomerId(walletId, userPrincipal.getId());
         }
+        Wallet wallet = accessibleWallet
+                .orElseThrow(() -> walletAccess.notAccessible(walletId, userPrincipal, "access wallet " + walletId,
+                        "You can only access your own wallets"));
 
         logger.info("Wallet {} successfully retrieved for user {}", walletId, userPrincipal.getUsername());
         return new WalletResponse(wallet);
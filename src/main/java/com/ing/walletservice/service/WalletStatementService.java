@@ -0,0 +1,102 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.response.DailyStatsResponse;
+import com.ing.walletservice.dto.response.WalletStatementResponse;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.entity.WalletDailyStats;
+import com.ing.walletservice.repository.WalletDailyStatsRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-wallet daily rollups and serves statements from them.
+ * Statements never read the transactions table.
+ */
+@Service
+public class WalletStatementService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WalletStatementService.class);
+    
+    private static final long MAX_STATEMENT_DAYS = 366;
+    
+    private final WalletDailyStatsRepository walletDailyStatsRepository;
+    private final WalletRepository walletRepository;
+    private final WalletAccess walletAccess;
+    
+    public WalletStatementService(WalletDailyStatsRepository walletDailyStatsRepository,
+                                  WalletRepository walletRepository, WalletAccess walletAccess) {
+        this.walletDailyStatsRepository = walletDailyStatsRepository;
+        this.walletRepository = walletRepository;
+        this.walletAccess = walletAccess;
+    }
+    
+    /**
+     * Adds an approved transaction to its wallet's rollup for the day the balance changed.
+     * Must run inside the caller's transaction, which already holds the wallet row lock,
+     * so concurrent updates to the same (wallet, day) row are serialized.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordApproved(Transaction transaction) {
+        Long walletId = transaction.getWallet().getId();
+        LocalDate statDate = (transaction.getProcessedDate() != null
+                ? transaction.getProcessedDate() : transaction.getCreatedDate()).toLocalDate();
+        
+        WalletDailyStats stats = walletDailyStatsRepository.findByWalletIdAndStatDate(walletId, statDate)
+                .orElseGet(() -> new WalletDailyStats(walletId, statDate));
+        
+        if (transaction.getType() == Transaction.TransactionType.DEPOSIT) {
+            stats.addDeposit(1, transaction.getAmount());
+        } else {
+            stats.addWithdraw(1, transaction.getAmount());
+        }
+        
+        walletDailyStatsRepository.save(stats);
+        
+        logger.debug("Rollup updated: walletId={}, date={}, type={}, amount={}",
+                walletId, statDate, transaction.getType(), transaction.getAmount());
+    }
+    
+    @Transactional(readOnly = true)
+    public WalletStatementResponse getStatement(Long walletId, LocalDate from, LocalDate to,
+                                                Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_STATEMENT_DAYS) {
+            throw new IllegalArgumentException("Statement period must not exceed " + MAX_STATEMENT_DAYS + " days");
+        }
+        
+        Wallet wallet = (isEmployee
+                ? walletRepository.findById(walletId)
+                : walletRepository.findByIdAndCustomerId(walletId, userPrincipal.getId()))
+                .orElseThrow(() -> walletAccess.notAccessible(walletId, userPrincipal, "read statement of wallet " + walletId,
+                        "You can only view statements for your own wallets"));
+        
+        List<DailyStatsResponse> days = walletDailyStatsRepository
+                .findByWalletIdAndStatDateBetweenOrderByStatDateAsc(walletId, from, to)
+                .stream()
+                .map(DailyStatsResponse::new)
+                .collect(Collectors.toList());
+        
+        logger.info("Statement for wallet {} from {} to {} built from {} daily rollups",
+                walletId, from, to, days.size());
+        
+        return new WalletStatementResponse(walletId, wallet.getCurrency(), from, to, days);
+    }
+}
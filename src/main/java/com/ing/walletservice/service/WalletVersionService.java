@@ -0,0 +1,106 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletCreatedEvent;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import com.ing.walletservice.security.UserPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-wallet and per-customer change counters used to build strong ETags for wallet and
+ * transaction reads.
+ *
+ * Counters are bumped after the changing transaction commits, and readers take the ETag
+ * before loading the data. A tag can therefore only be older than the data it is sent with
+ * (a commit landing between taking the tag and the read), which costs the client one extra
+ * full response. Bumping before the commit would allow the reverse: a read between the bump
+ * and the commit would send old data under the new tag, and every later {@code If-None-Match}
+ * would keep that stale body alive. A random per-process epoch is part of every ETag so
+ * counters that restart from zero never match tags issued by a previous run.
+ *
+ * Only the after-commit listeners create counters; reads treat a missing counter as version 0,
+ * so requests for arbitrary ids cannot grow the maps.
+ *
+ * Counters only see changes made through this node's services, so this assumes a single
+ * application instance per database.
+ */
+@Service
+public class WalletVersionService {
+    
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    
+    private final ConcurrentMap<Long, AtomicLong> walletVersions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicLong> customerVersions = new ConcurrentHashMap<>();
+    
+    // Wallet ownership never changes, so owners learned from reads stay valid; new wallets
+    // are added by the index's own after-commit listener
+    private final WalletOwnershipIndex walletOwnershipIndex;
+    
+    public WalletVersionService(WalletOwnershipIndex walletOwnershipIndex) {
+        this.walletOwnershipIndex = walletOwnershipIndex;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWalletTransaction(WalletTransactionEvent event) {
+        bump(walletVersions, event.getWalletId());
+        bump(customerVersions, event.getCustomerId());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWalletCreated(WalletCreatedEvent event) {
+        bump(customerVersions, event.getCustomerId());
+    }
+    
+    public String walletETag(Long walletId) {
+        return "\"W-" + epoch + "-" + walletId + "-" + version(walletVersions, walletId) + "\"";
+    }
+    
+    public String transactionsETag(Long walletId) {
+        return "\"T-" + epoch + "-" + walletId + "-" + version(walletVersions, walletId) + "\"";
+    }
+    
+    public String walletListETag(Long customerId, Wallet.Currency currency, BigDecimal minBalance) {
+        String minBalanceKey = minBalance == null ? null : minBalance.stripTrailingZeros().toPlainString();
+        return "\"L-" + epoch + "-" + customerId + "-" + version(customerVersions, customerId)
+                + "-" + (currency == null ? "*" : currency.name())
+                + "-" + (minBalanceKey == null ? "*" : minBalanceKey) + "\"";
+    }
+    
+    public void rememberOwner(Long walletId, Long customerId) {
+        walletOwnershipIndex.remember(walletId, customerId);
+    }
+    
+    /**
+     * Whether the caller is known to be allowed to read the wallet without loading it.
+     * Unknown wallets return false so the caller falls back to the normal, checked read.
+     */
+    public boolean isKnownReadable(Long walletId, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        boolean isEmployee = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_EMPLOYEE"));
+        long ownerId = walletOwnershipIndex.ownerOf(walletId);
+        return ownerId != WalletOwnershipIndex.UNKNOWN_OWNER && (isEmployee || ownerId == userPrincipal.getId());
+    }
+    
+    int trackedVersions() {
+        return walletVersions.size() + customerVersions.size();
+    }
+    
+    private static void bump(ConcurrentMap<Long, AtomicLong> counters, Long id) {
+        counters.computeIfAbsent(id, key -> new AtomicLong()).incrementAndGet();
+    }
+    
+    private static long version(ConcurrentMap<Long, AtomicLong> counters, Long id) {
+        AtomicLong counter = counters.get(id);
+        return counter == null ? 0 : counter.get();
+    }
+}
@@ -4,15 +4,15 @@ import org.slf4j.Logger;
 import org.slf4j.MDC;
 
 /**
- * Utility class for structured logging with MDC (Mapped Diagnostic Context)
+ * Utility class for structured logging with MDC (Mapped Diagnostic Context).
+ * Request correlation comes from tracing, which puts {@code traceId} and {@code spanId}
+ * into the MDC for the duration of each span.
  */
 public class LoggingUtil {
     
     private static final String USER_ID = "userId";
     private static final String USERNAME = "username";
-    private static final String REQUEST_ID = "requestId";
     private static final String OPERATION = "operation";
-    private static final String CORRELATION_ID = "correlationId";
     
     /**
      * Set user context in MDC for logging
@@ -35,18 +35,6 @@ public class LoggingUtil {
         }
     }
     
-    /**
-     * Set request context in MDC for logging
-     */
-    public static void setRequestContext(String requestId, String correlationId) {
-        if (requestId != null) {
-            MDC.put(REQUEST_ID, requestId);
-        }
-        if (correlationId != null) {
-            MDC.put(CORRELATION_ID, correlationId);
-        }
-    }
-    
     /**
      * Clear all MDC context
      */
@@ -0,0 +1,127 @@
+package com.ing.walletservice.util;
+
+/**
+ * Open-addressing hash map from positive {@code long} keys to non-zero {@code long} values,
+ * stored in one primitive array of interleaved key/value pairs with linear probing.
+ *
+ * There is no boxing and no per-entry object, so an entry costs 16 bytes divided by the load
+ * factor, and a key and its value share a cache line. The table size is not restricted to
+ * powers of two, so a map pre-sized for a known number of entries stays close to its target
+ * load. Key 0 marks an empty slot and value 0 means "absent", so neither can be stored.
+ * Entries cannot be removed.
+ *
+ * Not thread-safe; callers must synchronize.
+ */
+public class LongLongHashMap {
+    
+    public static final long NO_VALUE = 0L;
+    
+    private static final double MAX_LOAD_FACTOR = 0.85;
+    private static final double PRESIZE_LOAD_FACTOR = 0.8;
+    private static final int MIN_CAPACITY = 16;
+    
+    // table[2 * slot] is the key, table[2 * slot + 1] its value
+    private long[] table;
+    private int size;
+    private int resizeThreshold;
+    
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+    
+    /**
+     * Returns the value mapped to the key, or {@link #NO_VALUE} if there is none.
+     */
+    public long get(long key) {
+        long[] table = this.table;
+        int capacity = table.length >>> 1;
+        for (int slot = slot(key, capacity); ; slot = slot + 1 == capacity ? 0 : slot + 1) {
+            long candidate = table[slot << 1];
+            if (candidate == key) {
+                return table[(slot << 1) + 1];
+            }
+            if (candidate == 0L) {
+                return NO_VALUE;
+            }
+        }
+    }
+    
+    /**
+     * Maps the key to the value, replacing any previous value.
+     */
+    public void put(long key, long value) {
+        if (key <= 0L || value == NO_VALUE) {
+            throw new IllegalArgumentException("Keys must be positive and values non-zero");
+        }
+        if (size >= resizeThreshold) {
+            rehash(capacity() + capacity() / 2);
+        }
+        if (insert(table, key, value)) {
+            size++;
+        }
+    }
+    
+    /**
+     * Makes room for the given total number of entries without further resizing.
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > capacity()) {
+            rehash(capacity);
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int capacity() {
+        return table.length >>> 1;
+    }
+    
+    /**
+     * Heap used by the backing array, excluding the array header.
+     */
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+    
+    private void rehash(int newCapacity) {
+        long[] oldTable = table;
+        allocate(newCapacity);
+        for (int i = 0; i < oldTable.length; i += 2) {
+            if (oldTable[i] != 0L) {
+                insert(table, oldTable[i], oldTable[i + 1]);
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        table = new long[capacity * 2];
+        resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+    }
+    
+    // Returns true when the key was not present before
+    private static boolean insert(long[] table, long key, long value) {
+        int capacity = table.length >>> 1;
+        for (int slot = slot(key, capacity); ; slot = slot + 1 == capacity ? 0 : slot + 1) {
+            long candidate = table[slot << 1];
+            if (candidate == 0L || candidate == key) {
+                table[slot << 1] = key;
+                table[(slot << 1) + 1] = value;
+                return candidate == 0L;
+            }
+        }
+    }
+    
+    private static int capacityFor(int expectedSize) {
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(expectedSize / PRESIZE_LOAD_FACTOR));
+    }
+    
+    // Mixes the key (ids are sequential) and maps the 32-bit hash onto [0, capacity) without a modulo
+    private static int slot(long key, int capacity) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (((h & 0xFFFFFFFFL) * capacity) >>> 32);
+    }
+}
@@ -0,0 +1,147 @@
+package com.ing.walletservice.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Space-saving heavy-hitters summary (Metwally et al.) over positive {@code long} keys with
+ * weighted updates, in a fixed number of counters.
+ *
+ * A tracked key adds the weight to its counter. An untracked key takes over the counter
+ * with the smallest count, inherits that count as its error and adds the weight. Any key
+ * whose true total exceeds {@code totalWeight / capacity} is guaranteed to be tracked, a
+ * counter never underestimates, and {@code count - error} is a lower bound on the true
+ * total.
+ *
+ * Counters are three parallel primitive arrays searched linearly: for the few dozen
+ * counters a top-K view needs, one pass over a few cache lines beats hashing, and the
+ * same pass finds the minimum for a takeover. Not thread-safe; callers must synchronize.
+ */
+public class SpaceSavingSketch {
+    
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+    private long totalWeight;
+    
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+    }
+    
+    /**
+     * Adds the weight to the key's counter and returns the counter's index.
+     */
+    public int add(long key, long weight) {
+        if (key <= 0L || weight < 0L) {
+            throw new IllegalArgumentException("Keys must be positive and weights non-negative");
+        }
+        totalWeight += weight;
+        int min = 0;
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                counts[i] += weight;
+                return i;
+            }
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = weight;
+            errors[size] = 0L;
+            return size++;
+        }
+        keys[min] = key;
+        errors[min] = counts[min];
+        counts[min] += weight;
+        return min;
+    }
+    
+    public long key(int index) {
+        return keys[index];
+    }
+    
+    /**
+     * Estimated total of the counter's key; never below the true total.
+     */
+    public long count(int index) {
+        return counts[index];
+    }
+    
+    /**
+     * Maximum overestimation of the counter's count.
+     */
+    public long error(int index) {
+        return errors[index];
+    }
+    
+    /**
+     * The {@code limit} counters with the highest counts, highest first.
+     */
+    public List<Entry> top(int limit) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> counts[i]).reversed());
+        List<Entry> top = new ArrayList<>(Math.min(limit, size));
+        for (int i = 0; i < Math.min(limit, size); i++) {
+            top.add(new Entry(keys[order[i]], counts[order[i]], errors[order[i]]));
+        }
+        return top;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int capacity() {
+        return keys.length;
+    }
+    
+    public long totalWeight() {
+        return totalWeight;
+    }
+    
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(counts, 0L);
+        Arrays.fill(errors, 0L);
+        size = 0;
+        totalWeight = 0L;
+    }
+    
+    public static final class Entry {
+        
+        private final long key;
+        private final long count;
+        private final long error;
+        
+        Entry(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+        
+        public long getKey() {
+            return key;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ing.walletservice;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate StatementInspector that records every SQL statement prepared by the
+ * session factory. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCapture implements StatementInspector {
+    
+    private static final List<String> statements = new ArrayList<>();
+    
+    @Override
+    public String inspect(String sql) {
+        synchronized (statements) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+    
+    public static void clear() {
+        synchronized (statements) {
+            statements.clear();
+        }
+    }
+    
+    public static List<String> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+    
+    /**
+     * Runs the action and returns the statements it prepared, e.g. to pin the number of
+     * queries a service call issues.
+     */
+    public static List<String> during(Runnable action) {
+        clear();
+        action.run();
+        return getStatements();
+    }
+}
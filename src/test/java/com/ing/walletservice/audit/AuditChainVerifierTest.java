@@ -0,0 +1,163 @@
+package com.ing.walletservice.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditChainVerifierTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void verify_UntouchedFileIsValidWithSealedSegments() throws Exception {
+        writeBatches(7, 0);
+
+        AuditChainVerifier.Report report = AuditChainVerifier.verify(directory, 4);
+
+        assertTrue(report.isValid(), () -> String.join("\n", report.getErrors()));
+        AuditChainVerifier.FileResult file = report.getFiles().get(0);
+        assertEquals(7, file.getBatches());
+        assertEquals(28, file.getEvents());
+        // Two full segments of three batches plus the remainder sealed on shutdown
+        assertEquals(3, file.getSegments());
+        assertEquals(0, file.getUnsealedBatches());
+    }
+
+    @Test
+    void verify_EditedEventIsDetected() throws Exception {
+        writeBatches(5, 0);
+        Path file = JsonlAuditFileSink.activeFile(directory);
+        String content = Files.readString(file);
+        Files.writeString(file, content.replaceFirst("\"amount\":1\\.00", "\"amount\":9.00"));
+
+        AuditChainVerifier.Report report = AuditChainVerifier.verify(directory, 2);
+
+        assertFalse(report.isValid());
+        assertTrue(report.getErrors().get(0).contains("batch 0 content does not match its hash"));
+    }
+
+    @Test
+    void verify_RemovedEventIsDetected() throws Exception {
+        writeBatches(4, 0);
+        Path file = JsonlAuditFileSink.activeFile(directory);
+        List<String> lines = new ArrayList<>(Files.readAllLines(file));
+        lines.remove(5);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        assertFalse(AuditChainVerifier.verify(directory, 2).isValid());
+    }
+
+    @Test
+    void verify_RestartedWriterContinuesTheChainAcrossFiles() throws Exception {
+        writeBatches(4, 0);
+        Files.move(JsonlAuditFileSink.activeFile(directory), directory.resolve("wallet-service-audit.2026-01-01.0.jsonl"));
+        writeBatches(2, 100);
+        writeBatches(2, 200);
+
+        AuditChainVerifier.Report report = AuditChainVerifier.verify(directory, 2);
+
+        assertTrue(report.isValid(), () -> String.join("\n", report.getErrors()));
+        assertEquals(2, report.getFiles().size());
+        assertEquals(4, report.getFiles().get(1).getFirstBatch());
+        assertEquals(7, report.getFiles().get(1).getLastBatch());
+    }
+
+    @Test
+    void verify_MissingBatchBetweenFilesBreaksTheChain() throws Exception {
+        writeBatches(3, 0);
+        Path first = directory.resolve("wallet-service-audit.2026-01-01.0.jsonl");
+        Files.move(JsonlAuditFileSink.activeFile(directory), first);
+        writeBatches(3, 100);
+        List<String> lines = new ArrayList<>(Files.readAllLines(first));
+        // Drop the last batch (four events and its chain record) before the sealing segment record
+        Files.write(first, lines.subList(0, lines.size() - 6), StandardCharsets.UTF_8);
+
+        AuditChainVerifier.Report report = AuditChainVerifier.verify(directory, 2);
+
+        assertFalse(report.isValid());
+        assertTrue(report.getErrors().stream().anyMatch(error -> error.contains("does not continue the chain")));
+    }
+
+    @Test
+    void verify_FailedWritesLeaveTheChainIntact() throws Exception {
+        AtomicBoolean failNextWrite = new AtomicBoolean();
+        JsonlAuditFileSink sink = new JsonlAuditFileSink(directory.toString(), 10, 90, false, 3) {
+            @Override
+            FileOutputStream openStream(Path path) throws IOException {
+                return new FileOutputStream(path.toFile(), true) {
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        if (failNextWrite.getAndSet(false)) {
+                            // Half of the batch reaches the disk before it fills up
+                            super.write(bytes, offset, length / 2);
+                            throw new IOException("No space left on device");
+                        }
+                        super.write(bytes, offset, length);
+                    }
+                };
+            }
+        };
+        Object unprintable = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("Cannot format");
+            }
+        };
+
+        sink.write(batch(0, null));
+        sink.write(batch(10, null));
+        failNextWrite.set(true);
+        assertThrows(IOException.class, () -> sink.write(batch(20, null)));
+        assertThrows(IllegalStateException.class, () -> sink.write(batch(30, unprintable)));
+        sink.write(batch(40, null));
+        sink.write(batch(50, null));
+        sink.destroy();
+
+        AuditChainVerifier.Report report = AuditChainVerifier.verify(directory, 1);
+
+        assertTrue(report.isValid(), () -> String.join("\n", report.getErrors()));
+        AuditChainVerifier.FileResult file = report.getFiles().get(0);
+        assertEquals(4, file.getBatches());
+        assertEquals(16, file.getEvents());
+        assertEquals(2, file.getSegments());
+        assertFalse(Files.readString(JsonlAuditFileSink.activeFile(directory)).contains("\"transactionId\":21"));
+    }
+
+    private static List<AuditEvent> batch(long firstTransactionId, Object extra) {
+        List<AuditEvent> batch = new ArrayList<>();
+        for (long transactionId = firstTransactionId + 1; transactionId <= firstTransactionId + 4; transactionId++) {
+            batch.add(new AuditEvent(System.currentTimeMillis(), AuditEvent.Type.TRANSACTION_CREATION,
+                    AuditEvent.Level.INFO, "Transaction created: {}", new Object[] {transactionId},
+                    new Object[] {"transactionId", transactionId, "amount", new BigDecimal("1.00"), "note", extra}, null));
+        }
+        return batch;
+    }
+
+    private void writeBatches(int batches, long firstTransactionId) throws IOException {
+        JsonlAuditFileSink sink = new JsonlAuditFileSink(directory.toString(), 10, 90, false, 3);
+        long transactionId = firstTransactionId;
+        for (int b = 0; b < batches; b++) {
+            List<AuditEvent> batch = new ArrayList<>();
+            for (int e = 0; e < 4; e++) {
+                transactionId++;
+                batch.add(new AuditEvent(System.currentTimeMillis(), AuditEvent.Type.TRANSACTION_CREATION,
+                        AuditEvent.Level.INFO, "Transaction created: {}", new Object[] {transactionId},
+                        new Object[] {"transactionId", transactionId, "amount", new BigDecimal("1.00")}, null));
+            }
+            sink.write(batch);
+        }
+        sink.destroy();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ing.walletservice.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditPipelineTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        MDC.clear();
+        if (pipeline != null) {
+            pipeline.destroy();
+        }
+    }
+
+    @Test
+    void concurrentPublishers_AllEventsWrittenAsJsonLines() throws Exception {
+        JsonlAuditFileSink sink = new JsonlAuditFileSink(directory.toString(), 10, 90, false, 1024);
+        pipeline = start(List.of(sink), 1024, 128, AuditPipeline.Backpressure.BLOCK);
+        AuditLogger auditLogger = new AuditLogger(pipeline);
+
+        ExecutorService publishers = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            publishers.submit(() -> {
+                for (int i = 0; i < 2500; i++) {
+                    auditLogger.logBalanceChange(7L, BigDecimal.ZERO, new BigDecimal("10.00"),
+                            BigDecimal.ZERO, new BigDecimal("10.00"), "DEPOSIT", "customer1");
+                }
+            });
+        }
+        publishers.shutdown();
+        assertTrue(publishers.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(pipeline.flush(Duration.ofSeconds(10)));
+        sink.destroy();
+
+        List<String> lines = Files.readAllLines(directory.resolve("wallet-service-audit.jsonl")).stream()
+                .filter(line -> !line.startsWith("{\"@chain\"") && !line.startsWith("{\"@segment\""))
+                .toList();
+        assertEquals(10_000, lines.size());
+        assertTrue(AuditChainVerifier.verify(directory, 2).isValid());
+        assertEquals(0, pipeline.droppedCount());
+        JsonNode first = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("BALANCE_CHANGE", first.get("eventType").asText());
+        assertEquals(7, first.get("walletId").asLong());
+        assertTrue(lines.get(0).contains("\"newBalance\":10.00"));
+        assertTrue(first.get("message").asText().startsWith("Wallet 7 balance changed: 0 -> 10.00"));
+    }
+
+    @Test
+    void dropPolicy_FullBufferDropsAndCountsEvents() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<AuditEvent> written = Collections.synchronizedList(new ArrayList<>());
+        AuditSink stalledSink = batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.addAll(batch);
+        };
+        pipeline = start(List.of(stalledSink), 4, 1, AuditPipeline.Backpressure.DROP);
+        AuditLogger auditLogger = new AuditLogger(pipeline);
+
+        for (int i = 0; i < 20; i++) {
+            auditLogger.logAuthenticationFailure("customer1", "Bad credentials");
+        }
+        release.countDown();
+
+        assertTrue(pipeline.flush(Duration.ofSeconds(10)));
+        assertTrue(pipeline.droppedCount() > 0);
+        assertEquals(20, written.size() + pipeline.droppedCount());
+    }
+
+    @Test
+    void auditLogger_KeepsCallerMdcAndCapturesIt() {
+        List<AuditEvent> written = Collections.synchronizedList(new ArrayList<>());
+        pipeline = start(List.of(written::addAll), 16, 16, AuditPipeline.Backpressure.BLOCK);
+        AuditLogger auditLogger = new AuditLogger(pipeline);
+        MDC.put("requestId", "req-42");
+
+        auditLogger.logWalletCreation(1L, "Main", "EUR", "customer1");
+
+        assertEquals("req-42", MDC.get("requestId"));
+        assertTrue(pipeline.flush(Duration.ofSeconds(10)));
+        AuditEvent event = written.get(0);
+        assertEquals(AuditEvent.Type.WALLET_CREATION, event.getType());
+        assertEquals("req-42", event.getContext().get("requestId"));
+        assertEquals("Main", event.getField("walletName"));
+    }
+
+    private AuditPipeline start(List<AuditSink> sinks, int capacity, int batchSize, AuditPipeline.Backpressure policy) {
+        AuditPipeline started = new AuditPipeline(sinks, new SimpleMeterRegistry(), capacity, batchSize, policy, 500, 5);
+        started.afterSingletonsInstantiated();
+        return started;
+    }
+}
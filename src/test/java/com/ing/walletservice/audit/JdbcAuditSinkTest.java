@@ -0,0 +1,134 @@
+package com.ing.walletservice.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcAuditSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch databaseBack = new CountDownLatch(1);
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger storedRows = new AtomicInteger();
+    private AuditPipeline pipeline;
+    private JdbcAuditSink store;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        databaseBack.countDown();
+        if (pipeline != null) {
+            pipeline.destroy();
+        }
+        store.destroy();
+    }
+
+    @Test
+    void stalledDatabase_DoesNotDropEventsFromTheFile() throws Exception {
+        store = start(2);
+        JsonlAuditFileSink file = new JsonlAuditFileSink(directory.toString(), 10, 90, false, 1024);
+        pipeline = new AuditPipeline(List.of(file, store), meterRegistry, 64, 16, AuditPipeline.Backpressure.BLOCK, 500, 5);
+        pipeline.afterSingletonsInstantiated();
+        AuditLogger auditLogger = new AuditLogger(pipeline);
+
+        for (int i = 0; i < 2000; i++) {
+            auditLogger.logAuthenticationFailure("customer1", "Bad credentials");
+        }
+
+        assertFalse(pipeline.flush(Duration.ofMillis(200)));
+        databaseBack.countDown();
+        assertTrue(pipeline.flush(Duration.ofSeconds(10)));
+        file.destroy();
+
+        assertEquals(0, pipeline.droppedCount());
+        long fileEvents = Files.readAllLines(directory.resolve("wallet-service-audit.jsonl")).stream()
+                .filter(line -> !AuditHashChain.isRecord(line))
+                .count();
+        assertEquals(2000, fileEvents);
+        double dropped = meterRegistry.get("audit.store.dropped").counter().count();
+        assertTrue(dropped > 0);
+        assertEquals(2000, storedRows.get() + (int) dropped);
+    }
+
+    @Test
+    void failedInsert_IsRetriedWithoutDuplicates() {
+        databaseBack.countDown();
+        failuresLeft.set(2);
+        store = start(4);
+
+        store.write(List.of(event(), event(), event()));
+
+        assertTrue(store.flush(Duration.ofSeconds(10)));
+        assertEquals(3, storedRows.get());
+        assertEquals(2.0, meterRegistry.get("audit.store.retries").counter().count());
+        assertEquals(0.0, meterRegistry.get("audit.store.dropped").counter().count());
+    }
+
+    private JdbcAuditSink start(int queueBatches) {
+        JdbcTemplate database = new JdbcTemplate() {
+            @Override
+            public int update(String sql, PreparedStatementSetter setter) {
+                try {
+                    databaseBack.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                    throw new DataAccessResourceFailureException("Connection refused");
+                }
+                int rows = sql.split("\\(\\?").length - 1;
+                storedRows.addAndGet(rows);
+                return rows;
+            }
+        };
+        JdbcAuditSink sink = new JdbcAuditSink(database, new NoOpTransactionManager(), new ObjectMapper(), meterRegistry,
+                100, queueBatches, 5, 1, 10);
+        sink.afterSingletonsInstantiated();
+        return sink;
+    }
+
+    private static AuditEvent event() {
+        return new AuditEvent(System.currentTimeMillis(), AuditEvent.Type.AUTH_FAILURE, AuditEvent.Level.WARN,
+                "Authentication failed for user {}", new Object[] {"customer1"}, new Object[] {"username", "customer1"},
+                null);
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
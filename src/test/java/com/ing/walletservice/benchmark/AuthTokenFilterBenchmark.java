@@ -0,0 +1,83 @@
+package com.ing.walletservice.benchmark;
+
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.RevokedAccessTokenRepository;
+import com.ing.walletservice.security.AuthTokenFilter;
+import com.ing.walletservice.security.CachedUserDetailsService;
+import com.ing.walletservice.security.JwtUtils;
+import com.ing.walletservice.security.TokenRevocationList;
+import com.ing.walletservice.security.TokenVersionRegistry;
+import com.ing.walletservice.security.UserPrincipal;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost AuthTokenFilter adds to every authenticated request, with and without
+ * the verified-token cache. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ing.walletservice.benchmark.AuthTokenFilterBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthTokenFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey12345678901234567890123456789012345";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"0", "10000"})
+    private int verifiedCacheSize;
+
+    private AuthTokenFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(Mockito.mock(CustomerRepository.class));
+        JwtUtils jwtUtils = new JwtUtils(tokenVersionRegistry, SECRET, 3_600_000, verifiedCacheSize);
+        filter = new AuthTokenFilter(jwtUtils, Mockito.mock(CachedUserDetailsService.class), tokenVersionRegistry,
+                new TokenRevocationList(Mockito.mock(RevokedAccessTokenRepository.class), 1000), ObservationRegistry.NOOP);
+
+        String token = jwtUtils.generateJwtToken(new TestAuthentication(new UserPrincipal(1L, "customer1",
+                "password", Collections.singleton(new SimpleGrantedAuthority("ROLE_CUSTOMER")))));
+        request = new MockHttpServletRequest("GET", "/api/wallets");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        // OncePerRequestFilter marks the request as filtered; clear it so every call runs the filter
+        request.removeAttribute(AuthTokenFilter.class.getName() + ".FILTERED");
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthTokenFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
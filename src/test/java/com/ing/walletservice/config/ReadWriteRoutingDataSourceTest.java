@@ -0,0 +1,119 @@
+package com.ing.walletservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReadWriteRoutingDataSource(new DriverManagerDataSource(),
+                new DriverManagerDataSource(), 60_000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_RoutesToReplica() {
+        authenticate("customer1");
+        beginTransaction(true);
+
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readWriteTransaction_RoutesToPrimary() {
+        authenticate("customer1");
+        beginTransaction(false);
+
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void noTransaction_RoutesToPrimary() {
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readAfterWrite_IsPinnedToPrimaryForSameUserOnly() {
+        authenticate("customer1");
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        commit();
+
+        beginTransaction(true);
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        authenticate("customer2");
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routingDataSource.determineCurrentLookupKey());
+
+        assertEquals(1.0, meterRegistry.get("wallet.datasource.routing").tag("reason", "pinned").counter().count());
+    }
+
+    @Test
+    void pinExpires_AfterWindow() throws InterruptedException {
+        routingDataSource = new ReadWriteRoutingDataSource(new DriverManagerDataSource(),
+                new DriverManagerDataSource(), 10, meterRegistry);
+        authenticate("customer1");
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        commit();
+
+        Thread.sleep(30);
+
+        beginTransaction(true);
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void writeNotYetCommitted_DoesNotPin() {
+        authenticate("customer1");
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+
+        beginTransaction(true);
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routingDataSource.determineCurrentLookupKey());
+
+        pending.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+    }
+}
@@ -0,0 +1,162 @@
+package com.ing.walletservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.dto.request.DepositRequest;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.JwtUtils;
+import com.ing.walletservice.security.UserPrincipal;
+import com.ing.walletservice.service.TransactionService;
+import com.ing.walletservice.service.WalletService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test that each transaction of a request is routed on its own, so a write that follows a
+ * read in the same request reaches the primary and pins its user once it commits
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:routingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    // The audit store writes from its own thread and would move the routing counters mid-request
+    "app.audit.store.enabled=false"
+})
+public class ReadWriteRoutingIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Wallet wallet;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.save(
+                new Customer("Routing", "User", "56565656565", "routinguser", "password", Customer.Role.CUSTOMER));
+        wallet = walletRepository.save(new Wallet(customer, "Routing Wallet", Wallet.Currency.EUR, true, true));
+        token = jwtUtils.generateJwtToken(new TestAuthentication(UserPrincipal.create(customer)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void readThenWriteInOneRequest_WriteGoesToPrimaryAndPinsAfterCommit() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                + "/test/wallets/" + wallet.getId() + "/read-then-deposit"))
+                        .header("Authorization", "Bearer " + token)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode routed = objectMapper.readTree(response.body());
+        assertEquals(1, routed.get("read").asInt());
+        assertEquals(1, routed.get("write").asInt());
+        assertEquals(1, routed.get("pinned").asInt());
+        assertEquals(0, new BigDecimal("100.00")
+                .compareTo(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()));
+    }
+
+    @TestConfiguration
+    static class ReadThenWriteConfig {
+
+        @Bean
+        ReadThenWriteController readThenWriteController(WalletService walletService,
+                                                        TransactionService transactionService,
+                                                        MeterRegistry meterRegistry) {
+            return new ReadThenWriteController(walletService, transactionService, meterRegistry);
+        }
+    }
+
+    /**
+     * Reads the wallet, deposits into it and reads it again within one request, and returns
+     * how many connections each routing reason handed out meanwhile.
+     */
+    @RestController
+    static class ReadThenWriteController {
+
+        private final WalletService walletService;
+        private final TransactionService transactionService;
+        private final MeterRegistry meterRegistry;
+
+        ReadThenWriteController(WalletService walletService, TransactionService transactionService,
+                                MeterRegistry meterRegistry) {
+            this.walletService = walletService;
+            this.transactionService = transactionService;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @PostMapping("/test/wallets/{walletId}/read-then-deposit")
+        Map<String, Double> readThenDeposit(@PathVariable Long walletId, Authentication authentication) {
+            Map<String, Double> before = routed();
+            walletService.getWallet(walletId, authentication);
+            transactionService.deposit(new DepositRequest(new BigDecimal("100.00"), walletId, "TR0001",
+                    Transaction.OppositePartyType.IBAN), authentication);
+            walletService.getWallet(walletId, authentication);
+            Map<String, Double> after = routed();
+            after.replaceAll((reason, count) -> count - before.get(reason));
+            return after;
+        }
+
+        private Map<String, Double> routed() {
+            Map<String, Double> counts = new LinkedHashMap<>();
+            for (String reason : new String[] {"read", "write", "pinned"}) {
+                counts.put(reason, meterRegistry.get("wallet.datasource.routing").tag("reason", reason)
+                        .counter().count());
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ing.walletservice.controller;
+
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.JwtUtils;
+import com.ing.walletservice.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test that open event streams do not keep database connections after their snapshot,
+ * so a node can hold more streams than it has pooled connections
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:eventstreamdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.datasource.hikari.maximum-pool-size=3",
+    "spring.datasource.hikari.connection-timeout=2000",
+    "app.datasource.replica.hikari.maximum-pool-size=3",
+    "app.datasource.replica.hikari.connection-timeout=2000"
+})
+public class WalletEventStreamTest {
+
+    private static final int STREAMS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ExecutorService readers = Executors.newFixedThreadPool(STREAMS);
+    private final List<Stream<String>> openStreams = new ArrayList<>();
+    private Wallet wallet;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.save(
+                new Customer("Stream", "User", "45454545454", "streamuser", "password", Customer.Role.CUSTOMER));
+        wallet = walletRepository.save(new Wallet(customer, "Stream Wallet", Wallet.Currency.EUR, true, true));
+        token = jwtUtils.generateJwtToken(new TestAuthentication(UserPrincipal.create(customer)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        synchronized (openStreams) {
+            openStreams.forEach(Stream::close);
+        }
+        readers.shutdownNow();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void moreStreamsThanPooledConnections_AllGetSnapshotsAndReadsStillSucceed() throws Exception {
+        List<Future<Boolean>> snapshots = new ArrayList<>();
+        for (int i = 0; i < STREAMS; i++) {
+            snapshots.add(readers.submit(this::openStreamAndAwaitSnapshot));
+        }
+        for (Future<Boolean> snapshot : snapshots) {
+            assertTrue(snapshot.get(20, TimeUnit.SECONDS));
+        }
+
+        for (int i = 0; i < STREAMS; i++) {
+            HttpResponse<String> response = client.send(request("/api/wallets/" + wallet.getId()).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+        }
+        assertEquals(0, replicaDataSource.getHikariPoolMXBean().getActiveConnections());
+    }
+
+    private boolean openStreamAndAwaitSnapshot() throws Exception {
+        HttpResponse<Stream<String>> response = client.send(
+                request("/api/wallets/" + wallet.getId() + "/events").header("Accept", "text/event-stream").build(),
+                HttpResponse.BodyHandlers.ofLines());
+        synchronized (openStreams) {
+            openStreams.add(response.body());
+        }
+        return response.statusCode() == 200 && response.body().anyMatch(line -> line.equals("event:snapshot"));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ing.walletservice.diagnostics;
+
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.service.WalletLockTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new FlightRecordingEndpoint(directory.toString(), "default", 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.destroy();
+    }
+
+    @Test
+    void recording_CapturesWalletEventsAndCanBeDownloaded() throws Exception {
+        assertEquals(200, endpoint.start(null).getStatus());
+        assertEquals(400, endpoint.start(null).getStatus());
+
+        DepositEvent deposit = new DepositEvent();
+        deposit.begin();
+        deposit.complete(7L, new BigDecimal("2500.00"), Transaction.TransactionStatus.PENDING);
+        new WalletLockTimer(new SimpleMeterRegistry(),
+                new HotWalletTracker(event -> { }, new SimpleMeterRegistry(), 16, 60, 0, 0)).lock(7L, Optional::empty);
+
+        assertEquals(200, endpoint.stop().getStatus());
+        String file = (String) endpoint.status().get("file");
+        WebEndpointResponse<?> download = endpoint.download(file);
+        assertEquals(200, download.getStatus());
+        assertEquals(404, endpoint.download("other.jfr").getStatus());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(directory.resolve(file));
+        RecordedEvent recordedDeposit = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.ing.walletservice.Deposit"))
+                .findFirst().orElseThrow();
+        assertEquals(7L, recordedDeposit.getLong("walletId"));
+        assertEquals("1K-10K", recordedDeposit.getString("amountBand"));
+        assertEquals("PENDING", recordedDeposit.getString("status"));
+        RecordedEvent lockWait = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.ing.walletservice.WalletLockWait"))
+                .findFirst().orElseThrow();
+        assertFalse(lockWait.getBoolean("acquired"));
+    }
+
+    @Test
+    void start_WithUnknownSettings_IsRejected() throws Exception {
+        assertEquals(400, endpoint.start("no-such-settings").getStatus());
+        assertEquals(400, endpoint.stop().getStatus());
+    }
+}
@@ -0,0 +1,89 @@
+package com.ing.walletservice.diagnostics;
+
+import com.ing.walletservice.event.HotWalletEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotWalletTrackerTest {
+
+    private final List<Object> events = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void walletCrossingRequestThreshold_IsAlertedOncePerWindow() {
+        HotWalletTracker tracker = new HotWalletTracker(events::add, meterRegistry, 8, 3600, 50, 0);
+
+        for (int i = 0; i < 200; i++) {
+            tracker.record(42L, 1_000);
+            tracker.record(100L + i, 1_000);
+        }
+
+        assertEquals(1, events.size());
+        HotWalletEvent event = (HotWalletEvent) events.get(0);
+        assertEquals(42L, event.getWalletId());
+        assertTrue(event.getRequests() >= 50);
+        assertEquals(1.0, meterRegistry.get("wallet.hot.alerts").counter().count());
+    }
+
+    @Test
+    void walletCrossingLockWaitThreshold_IsAlerted() {
+        HotWalletTracker tracker = new HotWalletTracker(events::add, meterRegistry, 8, 3600, 0, 100);
+
+        tracker.record(5L, TimeUnit.MILLISECONDS.toNanos(60));
+        tracker.record(6L, TimeUnit.MILLISECONDS.toNanos(150));
+        tracker.record(5L, TimeUnit.MILLISECONDS.toNanos(60));
+        tracker.record(null, TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertEquals(List.of(6L, 5L), events.stream().map(e -> ((HotWalletEvent) e).getWalletId()).toList());
+        assertEquals(120L, ((HotWalletEvent) events.get(1)).getLockWaitMillis());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_RanksWalletsByRequestsAndLockWait() {
+        HotWalletTracker tracker = new HotWalletTracker(events::add, meterRegistry, 8, 3600, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            tracker.record(1L, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        tracker.record(2L, TimeUnit.MILLISECONDS.toNanos(40));
+
+        Map<String, Object> report = tracker.report(1);
+
+        Map<String, Object> current = (Map<String, Object>) report.get("current");
+        assertEquals(4L, current.get("requests"));
+        List<Map<String, Object>> byRequests = (List<Map<String, Object>>) current.get("byRequests");
+        List<Map<String, Object>> byLockWait = (List<Map<String, Object>>) current.get("byLockWait");
+        assertEquals(1, byRequests.size());
+        assertEquals(1L, byRequests.get(0).get("walletId"));
+        assertEquals(2L, byLockWait.get(0).get("walletId"));
+        assertEquals(40L, byLockWait.get(0).get("lockWaitMs"));
+        assertNull(report.get("previous"));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_MergesStripesIntoOneRanking() {
+        HotWalletTracker tracker = new HotWalletTracker(events::add, meterRegistry, 32, 3600, 0, 0, 4);
+        for (long walletId = 1; walletId <= 32; walletId++) {
+            for (long i = 0; i < walletId; i++) {
+                tracker.record(walletId, 0);
+            }
+        }
+
+        Map<String, Object> report = tracker.report(3);
+
+        Map<String, Object> current = (Map<String, Object>) report.get("current");
+        assertEquals(4, report.get("stripes"));
+        assertEquals(528L, current.get("requests"));
+        List<Map<String, Object>> byRequests = (List<Map<String, Object>>) current.get("byRequests");
+        assertEquals(List.of(32L, 31L, 30L), byRequests.stream().map(w -> w.get("walletId")).toList());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ing.walletservice.diagnostics;
+
+import com.ing.walletservice.repository.WalletRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:querystatsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class QueryStatisticsEndpointTest {
+
+    @Autowired
+    private QueryStatisticsEndpoint queryStatisticsEndpoint;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @AfterEach
+    void tearDown() {
+        queryStatisticsEndpoint.configure(200L, true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_ListsExecutedQueriesWithParameterShape() {
+        queryStatisticsEndpoint.reset();
+
+        walletRepository.findByIdAndCustomerId(424242L, 1L);
+        walletRepository.findByIdAndCustomerId(434343L, 1L);
+
+        Map<String, Object> report = queryStatisticsEndpoint.report(null);
+        assertEquals(true, report.get("enabled"));
+        List<Map<String, Object>> queries = (List<Map<String, Object>>) report.get("queries");
+        Map<String, Object> query = queries.stream()
+                .filter(q -> ((String) q.get("query")).contains("w.customer.id = :customerId"))
+                .findFirst().orElseThrow();
+        assertEquals(2L, query.get("executions"));
+        assertEquals(0L, query.get("rows"));
+        assertEquals(List.of(":id", ":customerId"), query.get("parameters"));
+        assertFalse(((String) query.get("query")).contains("424242"));
+    }
+
+    @Test
+    void slowQueries_AreCountedAgainstRuntimeThresholdAndReset() {
+        queryStatisticsEndpoint.reset();
+        queryStatisticsEndpoint.configure(0L, null);
+
+        walletRepository.findByCustomerIdWithFilters(1L, null, null);
+
+        assertTrue((Long) queryStatisticsEndpoint.report(0).get("slowQueries") >= 1);
+
+        Map<String, Object> reset = queryStatisticsEndpoint.reset();
+        assertEquals(0L, reset.get("slowQueries"));
+        assertEquals(0L, reset.get("queryExecutions"));
+    }
+
+    @Test
+    void parameterShape_KeepsNamesInOrder() {
+        assertEquals(List.of(":id", ":customerId", "?1"),
+                QueryStatisticsFactory.parameterShape(
+                        "SELECT w FROM Wallet w WHERE w.id = :id AND w.customer.id = :customerId AND w.name <> ?1 OR w.id = :id"));
+        assertEquals(List.of("?", "?"), QueryStatisticsFactory.parameterShape(
+                "[CRITERIA] select w1_0.id from wallets w1_0 where w1_0.customer_id=? and w1_0.currency=?"));
+    }
+}
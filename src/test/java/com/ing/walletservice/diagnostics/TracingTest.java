@@ -0,0 +1,119 @@
+package com.ing.walletservice.diagnostics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.exception.ResourceNotFoundException;
+import com.ing.walletservice.security.UserPrincipal;
+import com.ing.walletservice.service.WalletService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureObservability
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:tracingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "app.tracing.directory=target/tracing-test"
+})
+public class TracingTest {
+
+    @Autowired
+    private TracingEndpoint tracingEndpoint;
+
+    @Autowired
+    private JsonlSpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private WalletService walletService;
+
+    @AfterEach
+    void tearDown() {
+        tracingEndpoint.setProbability(0.1);
+    }
+
+    @Test
+    void sampledRequest_ExportsServiceAndRepositorySpansOfOneTrace() throws Exception {
+        assertEquals(200, tracingEndpoint.setProbability(1.0).getStatus());
+        Customer employee = new Customer("Trace", "Employee", "78787878787", "traceemployee", "password",
+                Customer.Role.EMPLOYEE);
+        employee.setId(1L);
+        TestAuthentication authentication = new TestAuthentication(UserPrincipal.create(employee));
+
+        String[] traceId = new String[1];
+        Observation.createNotStarted("test.request", observationRegistry).observe(() -> {
+            traceId[0] = MDC.get("traceId");
+            assertThrows(ResourceNotFoundException.class, () -> walletService.getWallet(987654L, authentication));
+        });
+        assertNotNull(traceId[0]);
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        List<JsonNode> spans = new ArrayList<>();
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String line : Files.readAllLines(spanExporter.getFile())) {
+            JsonNode span = objectMapper.readTree(line);
+            if (span.get("traceId").asText().equals(traceId[0])) {
+                spans.add(span);
+            }
+        }
+        JsonNode service = spans.stream().filter(s -> s.get("name").asText().equals("wallet-service#get-wallet"))
+                .findFirst().orElseThrow();
+        JsonNode repository = spans.stream().filter(s -> s.get("name").asText().equals("wallet-repository#find-by-id"))
+                .findFirst().orElseThrow();
+        assertEquals("ERROR", service.get("status").asText());
+        assertEquals(service.get("spanId").asText(), repository.get("parentSpanId").asText());
+    }
+
+    @Test
+    void sampledFlagOfRemoteParent_IsNotTrusted() {
+        RuntimeSampler sampler = new RuntimeSampler(0.0);
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        Context remoteParent = Context.root().with(Span.wrap(SpanContext.createFromRemoteParent(
+                traceId, "00f067aa0ba902b7", TraceFlags.getSampled(), TraceState.getDefault())));
+        Context localParent = Context.root().with(Span.wrap(SpanContext.create(
+                traceId, "00f067aa0ba902b7", TraceFlags.getSampled(), TraceState.getDefault())));
+
+        assertEquals(SamplingDecision.DROP, sampler.shouldSample(remoteParent, traceId, "http post",
+                SpanKind.SERVER, Attributes.empty(), List.of()).getDecision());
+        assertEquals(SamplingDecision.RECORD_AND_SAMPLE, sampler.shouldSample(localParent, traceId, "wallet-service",
+                SpanKind.INTERNAL, Attributes.empty(), List.of()).getDecision());
+    }
+
+    @Test
+    void setProbability_OutOfRange_IsRejected() {
+        assertEquals(400, tracingEndpoint.setProbability(1.5).getStatus());
+        assertEquals(0.1, tracingEndpoint.status().get("probability"));
+    }
+}
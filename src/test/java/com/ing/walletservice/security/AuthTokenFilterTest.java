@@ -0,0 +1,167 @@
+package com.ing.walletservice.security;
+
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.RevokedAccessTokenRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    private static final String SECRET = "testSecretKey1234567890123456789012345678901234567890";
+
+    @Mock
+    private CachedUserDetailsService userDetailsService;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    private TokenVersionRegistry tokenVersionRegistry;
+    private TokenRevocationList tokenRevocationList;
+    private JwtUtils jwtUtils;
+    private AuthTokenFilter authTokenFilter;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionRegistry = new TokenVersionRegistry(customerRepository);
+        jwtUtils = new JwtUtils(tokenVersionRegistry, SECRET, 60_000, 100);
+        tokenRevocationList = new TokenRevocationList(revokedAccessTokenRepository, 1000);
+        authTokenFilter = new AuthTokenFilter(jwtUtils, userDetailsService, tokenVersionRegistry, tokenRevocationList,
+                ObservationRegistry.NOOP);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithClaims_AuthenticatesWithoutLoadingUser() throws Exception {
+        String token = issueToken(7L, "customer7", "ROLE_CUSTOMER");
+
+        Authentication authentication = filter(token);
+
+        assertNotNull(authentication);
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("customer7", principal.getUsername());
+        assertEquals("ROLE_CUSTOMER", principal.getAuthorities().iterator().next().getAuthority());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void revokedToken_IsNotAuthenticated() throws Exception {
+        String token = issueToken(7L, "customer7", "ROLE_EMPLOYEE");
+        when(customerRepository.findTokenVersion(7L)).thenReturn(Optional.of(1));
+
+        tokenVersionRegistry.revokeTokens(7L);
+
+        assertNull(filter(token));
+        verify(customerRepository).incrementTokenVersion(7L);
+    }
+
+    @Test
+    void tokenWithRevokedId_IsNotAuthenticated() throws Exception {
+        String token = issueToken(7L, "customer7", "ROLE_CUSTOMER");
+        String otherToken = issueToken(7L, "customer7", "ROLE_CUSTOMER");
+        String tokenId = jwtUtils.verifyJwtToken(token).getId();
+
+        tokenRevocationList.revoke(tokenId, LocalDateTime.now().plusMinutes(15));
+
+        assertTrue(tokenRevocationList.isRevoked(tokenId));
+        assertNull(filter(token));
+        assertNotNull(filter(otherToken));
+    }
+
+    @Test
+    void tokenIssuedAfterRevocation_IsAuthenticated() throws Exception {
+        when(customerRepository.findTokenVersion(7L)).thenReturn(Optional.of(1));
+        tokenVersionRegistry.revokeTokens(7L);
+
+        String token = issueToken(7L, "customer7", "ROLE_CUSTOMER");
+
+        assertNotNull(filter(token));
+    }
+
+    @Test
+    void tamperedToken_IsNotAuthenticatedEvenWhenOriginalIsCached() throws Exception {
+        String token = issueToken(7L, "customer7", "ROLE_CUSTOMER");
+        assertNotNull(filter(token));
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1])).replace("ROLE_CUSTOMER", "ROLE_EMPLOYEE")
+                        .getBytes());
+
+        assertNull(filter(parts[0] + "." + forgedPayload + "." + parts[2]));
+    }
+
+    @Test
+    void expiredToken_IsNotAuthenticated() throws Exception {
+        JwtUtils expiringJwtUtils = new JwtUtils(tokenVersionRegistry, SECRET, -1_000, 100);
+        String token = expiringJwtUtils.generateJwtToken(new TestAuthentication(new UserPrincipal(7L, "customer7",
+                "password", Collections.singleton(new SimpleGrantedAuthority("ROLE_CUSTOMER")))));
+
+        assertNull(filter(token));
+    }
+
+    @Test
+    void legacyTokenWithoutClaims_FallsBackToUserLookup() throws Exception {
+        String token = Jwts.builder()
+                .subject("customer7")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+        when(userDetailsService.loadUserByUsername("customer7")).thenReturn(new UserPrincipal(7L, "customer7",
+                "password", Collections.singleton(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+
+        Authentication authentication = filter(token);
+
+        assertNotNull(authentication);
+        verify(userDetailsService).loadUserByUsername("customer7");
+    }
+
+    private String issueToken(Long id, String username, String role) {
+        return jwtUtils.generateJwtToken(new TestAuthentication(new UserPrincipal(id, username, "password",
+                Collections.singleton(new SimpleGrantedAuthority(role)))));
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/wallets");
+        request.addHeader("Authorization", "Bearer " + token);
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ing.walletservice.security;
+
+import com.ing.walletservice.event.CustomerCredentialsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachedUserDetailsServiceTest {
+
+    @Mock
+    private CustomUserDetailsService delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachedUserDetailsService cachedUserDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachedUserDetailsService = new CachedUserDetailsService(delegate, meterRegistry, 100, 300);
+        when(delegate.loadUserByUsername("customer1")).thenReturn(new UserPrincipal(1L, "customer1", "hash",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+    }
+
+    @Test
+    void loadUserByUsername_RepeatedLookup_HitsDelegateOnceAndDropsPassword() {
+        UserDetails first = cachedUserDetailsService.loadUserByUsername("customer1");
+        UserDetails second = cachedUserDetailsService.loadUserByUsername("customer1");
+
+        assertSame(first, second);
+        assertNull(first.getPassword());
+        assertEquals(1L, ((UserPrincipal) first).getId());
+        verify(delegate, times(1)).loadUserByUsername("customer1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void onCredentialsChanged_EvictsCachedPrincipal() {
+        cachedUserDetailsService.loadUserByUsername("customer1");
+
+        cachedUserDetailsService.onCredentialsChanged(new CustomerCredentialsChangedEvent(1L, "customer1"));
+        cachedUserDetailsService.loadUserByUsername("customer1");
+
+        verify(delegate, times(2)).loadUserByUsername("customer1");
+    }
+}
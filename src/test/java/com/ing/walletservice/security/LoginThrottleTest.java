@@ -0,0 +1,88 @@
+package com.ing.walletservice.security;
+
+import com.ing.walletservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void recordFailure_ReachingUsernameLimit_LocksOutUsernameOnly() {
+        LoginThrottle throttle = new LoginThrottle(meterRegistry, 3, 100, 60, 1000);
+
+        throttle.recordFailure("customer1", "10.0.0.1");
+        throttle.recordFailure("customer1", "10.0.0.1");
+        assertEquals(0, throttle.retryAfterSeconds("customer1", "10.0.0.1"));
+
+        throttle.recordFailure("customer1", "10.0.0.1");
+
+        long retryAfter = throttle.retryAfterSeconds("customer1", "10.0.0.2");
+        assertTrue(retryAfter > 0 && retryAfter <= 60);
+        assertEquals(0, throttle.retryAfterSeconds("customer2", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("login.lockouts").counter().count());
+    }
+
+    @Test
+    void recordFailure_ReachingIpLimit_LocksOutEveryUsernameFromThatIp() {
+        LoginThrottle throttle = new LoginThrottle(meterRegistry, 100, 2, 60, 1000);
+
+        throttle.recordFailure("customer1", "10.0.0.1");
+        throttle.recordFailure("customer2", "10.0.0.1");
+
+        assertTrue(throttle.retryAfterSeconds("customer3", "10.0.0.1") > 0);
+        assertEquals(0, throttle.retryAfterSeconds("customer3", "10.0.0.2"));
+    }
+
+    @Test
+    void recordSuccess_ClearsUsernameFailures() {
+        LoginThrottle throttle = new LoginThrottle(meterRegistry, 2, 100, 60, 1000);
+
+        throttle.recordFailure("customer1", "10.0.0.1");
+        throttle.recordSuccess("customer1");
+        throttle.recordFailure("customer1", "10.0.0.1");
+
+        assertEquals(0, throttle.retryAfterSeconds("customer1", "10.0.0.1"));
+    }
+
+    @Test
+    void loginExecutor_QueueFull_RejectsWithServiceUnavailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AuthenticationManager blocking = credentials -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new BadCredentialsException("Bad credentials");
+        };
+        LoginExecutor executor = new LoginExecutor(blocking, meterRegistry, 1, 1);
+        try {
+            CompletableFuture<?> running = executor.authenticate(new UsernamePasswordAuthenticationToken("a", "x"));
+            CompletableFuture<?> queued = executor.authenticate(new UsernamePasswordAuthenticationToken("b", "x"));
+
+            assertThrows(ServiceUnavailableException.class,
+                    () -> executor.authenticate(new UsernamePasswordAuthenticationToken("c", "x")));
+            assertEquals(1.0, meterRegistry.get("login.queue.depth").gauge().value());
+
+            release.countDown();
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(BadCredentialsException.class, failure.getCause());
+            assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+}
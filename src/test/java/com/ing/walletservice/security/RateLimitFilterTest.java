@@ -0,0 +1,151 @@
+package com.ing.walletservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenBucketRateLimiter rateLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new TokenBucketRateLimiter(Duration.ofMinutes(10), 1000, nanos::get);
+        filter = new RateLimitFilter(List.of(
+                new RateLimitProperties.Rule("POST", "/api/transactions/deposit", 2, 1),
+                new RateLimitProperties.Rule(null, "/api/transactions/**", 100, 50)),
+                rateLimiter, new ObjectMapper(), meterRegistry);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void burstBeyondCapacity_IsRejectedWithRetryAfter() throws Exception {
+        authenticateAs(1L);
+
+        assertEquals(200, deposit("10.0.0.1").getStatus());
+        assertEquals(200, deposit("10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = deposit("10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Rate limit exceeded"));
+        assertEquals(1.0, meterRegistry.get("rate.limit.rejected").counter().count());
+    }
+
+    @Test
+    void bucketRefillsOverTime() throws Exception {
+        authenticateAs(1L);
+        deposit("10.0.0.1");
+        deposit("10.0.0.1");
+        assertEquals(429, deposit("10.0.0.1").getStatus());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(200, deposit("10.0.0.1").getStatus());
+        assertEquals(429, deposit("10.0.0.1").getStatus());
+    }
+
+    @Test
+    void bucketsAreKeyedByCustomerAndByIpWhenAnonymous() throws Exception {
+        authenticateAs(1L);
+        deposit("10.0.0.1");
+        deposit("10.0.0.1");
+        assertEquals(429, deposit("10.0.0.1").getStatus());
+
+        authenticateAs(2L);
+        assertEquals(200, deposit("10.0.0.1").getStatus());
+
+        SecurityContextHolder.clearContext();
+        assertEquals(200, deposit("10.0.0.2").getStatus());
+        assertEquals(200, deposit("10.0.0.2").getStatus());
+        assertEquals(429, deposit("10.0.0.2").getStatus());
+        assertEquals(200, deposit("10.0.0.3").getStatus());
+    }
+
+    @Test
+    void unmatchedPaths_AreNotLimited() throws Exception {
+        authenticateAs(1L);
+        deposit("10.0.0.1");
+        deposit("10.0.0.1");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/wallets");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < 10; i++) {
+            response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+        }
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void idleBuckets_AreEvicted() throws Exception {
+        authenticateAs(1L);
+        deposit("10.0.0.1");
+        assertEquals(1, rateLimiter.size());
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        rateLimiter.cleanUp();
+
+        assertEquals(0, rateLimiter.size());
+    }
+
+    @Test
+    void rulesWithoutRefillCapacityOrPath_FailValidation() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                new RateLimitProperties.Rule("POST", "/api/transactions/deposit", 20, 5),
+                new RateLimitProperties.Rule("POST", "/api/transactions/withdraw", 0, 0),
+                new RateLimitProperties.Rule(null, " ", 10, 1)));
+
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Set<String> invalid = factory.getValidator().validate(properties).stream()
+                    .map(violation -> violation.getPropertyPath().toString())
+                    .collect(Collectors.toSet());
+
+            assertEquals(Set.of("rules[1].capacity", "rules[1].refillPerSecond", "rules[2].path"), invalid);
+        }
+    }
+
+    private void authenticateAs(Long customerId) {
+        SecurityContextHolder.getContext().setAuthentication(new TestAuthentication(new UserPrincipal(customerId,
+                "customer" + customerId, null, Collections.singleton(new SimpleGrantedAuthority("ROLE_CUSTOMER")))));
+    }
+
+    private MockHttpServletResponse deposit(String clientIp) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.setRemoteAddr(clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
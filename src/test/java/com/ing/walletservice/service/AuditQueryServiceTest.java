@@ -0,0 +1,120 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.audit.AuditEvent;
+import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.audit.AuditPipeline;
+import com.ing.walletservice.dto.request.AuditSearchRequest;
+import com.ing.walletservice.dto.response.AuditEventResponse;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.AuditRecordRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:auditdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "app.audit.store.rows-per-insert=3"
+})
+public class AuditQueryServiceTest {
+
+    @Autowired
+    private AuditQueryService auditQueryService;
+
+    @Autowired
+    private AuditLogger auditLogger;
+
+    @Autowired
+    private AuditPipeline auditPipeline;
+
+    @Autowired
+    private AuditRecordRepository auditRecordRepository;
+
+    private Authentication employeeAuth;
+    private Authentication customerAuth;
+
+    @BeforeEach
+    void setUp() {
+        assertTrue(auditPipeline.flush(Duration.ofSeconds(10)));
+        auditRecordRepository.deleteAll();
+
+        Customer employee = new Customer("Audit", "Employee", "56565656565", "auditemployee", "password", Customer.Role.EMPLOYEE);
+        employee.setId(1000L);
+        Customer customer = new Customer("Audit", "Customer", "78787878787", "auditcustomer", "password", Customer.Role.CUSTOMER);
+        customer.setId(1001L);
+        employeeAuth = new TestAuthentication(UserPrincipal.create(employee));
+        customerAuth = new TestAuthentication(UserPrincipal.create(customer));
+    }
+
+    @Test
+    void searchEvents_FiltersByWalletAndPagesByKeyset() {
+        for (long transactionId = 1; transactionId <= 7; transactionId++) {
+            auditLogger.logTransactionCreation(transactionId, "DEPOSIT", new BigDecimal("10.00"), 42L, "APPROVED", "auditcustomer");
+        }
+        auditLogger.logTransactionCreation(8L, "DEPOSIT", new BigDecimal("10.00"), 43L, "APPROVED", "auditcustomer");
+        assertTrue(auditPipeline.flush(Duration.ofSeconds(10)));
+
+        AuditSearchRequest request = new AuditSearchRequest();
+        request.setWalletId(42L);
+        List<Long> transactionIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPagedResponse<AuditEventResponse> page = auditQueryService.searchEvents(request, cursor, 3, employeeAuth);
+            page.getContent().forEach(event -> transactionIds.add(event.getTransactionId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L, 2L, 1L), transactionIds);
+    }
+
+    @Test
+    void searchEvents_CombinesTransactionTypeUserAndTimeFilters() {
+        auditLogger.logTransactionCreation(21L, "WITHDRAW", new BigDecimal("5.00"), 50L, "PENDING", "auditcustomer");
+        auditLogger.logTransactionApproval(21L, "PENDING", "APPROVED", new BigDecimal("5.00"), "auditemployee");
+        auditLogger.logAuthenticationFailure("auditcustomer", "Bad credentials");
+        assertTrue(auditPipeline.flush(Duration.ofSeconds(10)));
+
+        AuditSearchRequest byTransaction = new AuditSearchRequest();
+        byTransaction.setTransactionId(21L);
+        byTransaction.setEventType(AuditEvent.Type.TRANSACTION_APPROVAL);
+        byTransaction.setFrom(LocalDateTime.now().minusMinutes(5));
+        byTransaction.setTo(LocalDateTime.now().plusMinutes(5));
+        List<AuditEventResponse> approvals = auditQueryService.searchEvents(byTransaction, null, 10, employeeAuth).getContent();
+        assertEquals(1, approvals.size());
+        assertEquals("auditemployee", approvals.get(0).getUsername());
+        assertTrue(approvals.get(0).getDetails().contains("\"newStatus\":\"APPROVED\""));
+
+        AuditSearchRequest byUser = new AuditSearchRequest();
+        byUser.setUsername("auditcustomer");
+        byUser.setEventType(AuditEvent.Type.AUTH_FAILURE);
+        assertEquals(1, auditQueryService.searchEvents(byUser, null, 10, employeeAuth).getContent().size());
+
+        AuditSearchRequest future = new AuditSearchRequest();
+        future.setFrom(LocalDateTime.now().plusHours(1));
+        assertTrue(auditQueryService.searchEvents(future, null, 10, employeeAuth).getContent().isEmpty());
+    }
+
+    @Test
+    void searchEvents_CustomerIsRejected() {
+        assertThrows(UnauthorizedException.class,
+                () -> auditQueryService.searchEvents(new AuditSearchRequest(), null, 10, customerAuth));
+    }
+}
@@ -0,0 +1,274 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.request.ApprovalRequest;
+import com.ing.walletservice.dto.request.DepositRequest;
+import com.ing.walletservice.dto.request.WithdrawRequest;
+import com.ing.walletservice.dto.response.BalanceAsOfResponse;
+import com.ing.walletservice.dto.response.TransactionResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.entity.WalletBalanceCheckpoint;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletBalanceCheckpointRepository;
+import com.ing.walletservice.repository.WalletDailyStatsRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test that point-in-time balances rebuilt from checkpoints and replay match what the wallet
+ * actually held after every deposit, withdrawal, approval and denial
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class BalanceCheckpointServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Autowired
+    private WalletBalanceCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private WalletDailyStatsRepository walletDailyStatsRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Wallet wallet;
+    private Authentication customerAuth;
+    private Authentication otherCustomerAuth;
+    private Authentication employeeAuth;
+    private final List<Snapshot> snapshots = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        Customer customer = customerRepository.save(
+                new Customer("Checkpoint", "User", "66666666666", "checkpointuser", "password", Customer.Role.CUSTOMER));
+        wallet = walletRepository.save(new Wallet(customer, "Checkpoint Wallet", Wallet.Currency.TRY, true, true));
+
+        customerAuth = authentication(customer.getId(), "checkpointuser", "ROLE_CUSTOMER");
+        otherCustomerAuth = authentication(customer.getId() + 1000, "otheruser", "ROLE_CUSTOMER");
+        employeeAuth = authentication(customer.getId() + 2000, "checkpointemployee", "ROLE_EMPLOYEE");
+        snapshots.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void replayFromBeginning_MatchesWalletAfterEveryChange() {
+        runHistory(null);
+
+        for (Snapshot snapshot : snapshots) {
+            BalanceAsOfResponse response = balanceCheckpointService.getBalanceAsOf(wallet.getId(), snapshot.at, customerAuth);
+            assertBalances(snapshot, response);
+            assertNull(response.getCheckpointTime());
+        }
+    }
+
+    @Test
+    void replayFromCheckpoints_MatchesWalletAfterEveryChange() {
+        List<LocalDateTime> checkpointTimes = new ArrayList<>();
+        runHistory(checkpointTimes);
+        checkpointTimes.add(LocalDateTime.now());
+        balanceCheckpointService.writeCheckpoints(checkpointTimes.get(checkpointTimes.size() - 1));
+
+        assertEquals(2, checkpointRepository.count());
+        for (Snapshot snapshot : snapshots) {
+            BalanceAsOfResponse response = balanceCheckpointService.getBalanceAsOf(wallet.getId(), snapshot.at, employeeAuth);
+            assertBalances(snapshot, response);
+            if (!snapshot.at.isBefore(checkpointTimes.get(0))) {
+                assertNotNull(response.getCheckpointTime());
+            }
+        }
+    }
+
+    @Test
+    void checkpointAtNow_EqualsLiveWallet() {
+        runHistory(null);
+
+        balanceCheckpointService.writeCheckpoints(LocalDateTime.now());
+
+        Wallet live = walletRepository.findById(wallet.getId()).orElseThrow();
+        WalletBalanceCheckpoint checkpoint = checkpointRepository.findAll().get(0);
+        assertEquals(0, live.getBalance().compareTo(checkpoint.getBalance()));
+        assertEquals(0, live.getUsableBalance().compareTo(checkpoint.getUsableBalance()));
+    }
+
+    @Test
+    void unchangedWallet_GetsNoNewCheckpoint() {
+        transactionService.deposit(depositRequest("100.00"), customerAuth);
+        LocalDateTime first = LocalDateTime.now();
+
+        assertEquals(1, balanceCheckpointService.writeCheckpoints(first));
+        assertEquals(0, balanceCheckpointService.writeCheckpoints(first.plusSeconds(1)));
+    }
+
+    @Test
+    void idleWalletInChunk_DoesNotMakeLaterRunsRescanHistory() {
+        walletRepository.save(new Wallet(wallet.getCustomer(), "Idle Wallet", Wallet.Currency.TRY, true, true));
+        for (int i = 0; i < 3; i++) {
+            transactionService.deposit(depositRequest("100.00"), customerAuth);
+        }
+        LocalDateTime first = LocalDateTime.now();
+        assertEquals(1, balanceCheckpointService.writeCheckpoints(first));
+        pause();
+        transactionService.deposit(depositRequest("50.00"), customerAuth);
+
+        long loadsBefore = transactionLoads();
+        assertEquals(1, balanceCheckpointService.writeCheckpoints(LocalDateTime.now()));
+
+        assertEquals(1, transactionLoads() - loadsBefore);
+    }
+
+    @Test
+    void getBalanceAsOf_ForOtherCustomerWallet_ShouldThrowUnauthorizedException() {
+        assertThrows(UnauthorizedException.class,
+                () -> balanceCheckpointService.getBalanceAsOf(wallet.getId(), LocalDateTime.now(), otherCustomerAuth));
+    }
+
+    /**
+     * Runs a history covering every status path and records the wallet after each step.
+     * When checkpointTimes is given a checkpoint is written halfway through.
+     */
+    private void runHistory(List<LocalDateTime> checkpointTimes) {
+        snapshot();
+        transactionService.deposit(depositRequest("300.00"), customerAuth);
+        snapshot();
+        TransactionResponse pendingDeposit = transactionService.deposit(depositRequest("1500.00"), customerAuth);
+        snapshot();
+        decide(pendingDeposit, Transaction.TransactionStatus.APPROVED);
+        transactionService.withdraw(withdrawRequest("100.00"), customerAuth);
+        snapshot();
+        TransactionResponse pendingWithdraw = transactionService.withdraw(withdrawRequest("1200.00"), customerAuth);
+        snapshot();
+
+        if (checkpointTimes != null) {
+            checkpointTimes.add(LocalDateTime.now());
+            balanceCheckpointService.writeCheckpoints(checkpointTimes.get(0));
+            pause();
+        }
+
+        decide(pendingWithdraw, Transaction.TransactionStatus.DENIED);
+        TransactionResponse deniedDeposit = transactionService.deposit(depositRequest("2000.00"), customerAuth);
+        snapshot();
+        decide(deniedDeposit, Transaction.TransactionStatus.DENIED);
+        TransactionResponse approvedWithdraw = transactionService.withdraw(withdrawRequest("1100.00"), customerAuth);
+        snapshot();
+        decide(approvedWithdraw, Transaction.TransactionStatus.APPROVED);
+    }
+
+    private void decide(TransactionResponse transaction, Transaction.TransactionStatus status) {
+        snapshot();
+        transactionService.approveTransaction(new ApprovalRequest(transaction.getId(), status), employeeAuth);
+        snapshot();
+    }
+
+    private void snapshot() {
+        pause();
+        Wallet current = walletRepository.findById(wallet.getId()).orElseThrow();
+        snapshots.add(new Snapshot(LocalDateTime.now(), current.getBalance(), current.getUsableBalance()));
+        pause();
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(3);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long transactionLoads() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getEntityStatistics(Transaction.class.getName()).getLoadCount();
+    }
+
+    private void assertBalances(Snapshot expected, BalanceAsOfResponse actual) {
+        assertEquals(0, expected.balance.compareTo(actual.getBalance()),
+                "balance as of " + expected.at + ": expected " + expected.balance + " but was " + actual.getBalance());
+        assertEquals(0, expected.usableBalance.compareTo(actual.getUsableBalance()),
+                "usable balance as of " + expected.at + ": expected " + expected.usableBalance
+                        + " but was " + actual.getUsableBalance());
+    }
+
+    private void cleanUp() {
+        checkpointRepository.deleteAll();
+        walletDailyStatsRepository.deleteAll();
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    private DepositRequest depositRequest(String amount) {
+        return new DepositRequest(new BigDecimal(amount), wallet.getId(), "TR0001",
+                Transaction.OppositePartyType.IBAN);
+    }
+
+    private WithdrawRequest withdrawRequest(String amount) {
+        return new WithdrawRequest(new BigDecimal(amount), wallet.getId(), "TR0002",
+                Transaction.OppositePartyType.IBAN);
+    }
+
+    private Authentication authentication(Long id, String username, String role) {
+        Collection<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+        UserPrincipal principal = new UserPrincipal(id, username, "password", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private static final class Snapshot {
+        private final LocalDateTime at;
+        private final BigDecimal balance;
+        private final BigDecimal usableBalance;
+
+        Snapshot(LocalDateTime at, BigDecimal balance, BigDecimal usableBalance) {
+            this.at = at;
+            this.balance = balance;
+            this.usableBalance = usableBalance;
+        }
+    }
+}
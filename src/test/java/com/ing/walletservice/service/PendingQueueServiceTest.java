@@ -0,0 +1,158 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.audit.AuditPipeline;
+import com.ing.walletservice.dto.response.PendingDashboardResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.PendingTransactionView;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PendingQueueServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private PendingQueueService pendingQueueService;
+    private SimpleMeterRegistry meterRegistry;
+
+    private Wallet usdWallet;
+    private Wallet eurWallet;
+    private Authentication employeeAuthentication;
+    private Authentication customerAuthentication;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pendingQueueService = new PendingQueueService(transactionRepository, new AuditLogger(new AuditPipeline(List.of(), new SimpleMeterRegistry(), 1024, 64, AuditPipeline.Backpressure.DROP, 0, 5)), meterRegistry);
+
+        Customer customer = new Customer("John", "Doe", "12345678901", "customer1", "password", Customer.Role.CUSTOMER);
+        customer.setId(1L);
+
+        usdWallet = new Wallet(customer, "USD Wallet", Wallet.Currency.USD, true, true);
+        usdWallet.setId(1L);
+        eurWallet = new Wallet(customer, "EUR Wallet", Wallet.Currency.EUR, true, true);
+        eurWallet.setId(2L);
+
+        employeeAuthentication = new TestAuthentication(new UserPrincipal(2L, "employee1", "password",
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_EMPLOYEE"))));
+        customerAuthentication = new TestAuthentication(new UserPrincipal(1L, "customer1", "password",
+                Collections.singleton(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+    }
+
+    @Test
+    void createdPendingTransactions_AreCountedByCurrencyWalletAndAge() {
+        pendingQueueService.onWalletTransaction(created(usdWallet, 1L, "1500.00", LocalDateTime.now()));
+        pendingQueueService.onWalletTransaction(created(usdWallet, 2L, "2000.00", LocalDateTime.now().minusHours(2)));
+        pendingQueueService.onWalletTransaction(created(eurWallet, 3L, "5000.00", LocalDateTime.now().minusDays(3)));
+
+        PendingDashboardResponse dashboard = pendingQueueService.getDashboard(10, employeeAuthentication);
+
+        assertEquals(3, dashboard.getTotalCount());
+        assertEquals(2, dashboard.getByCurrency().get(Wallet.Currency.USD).getCount());
+        assertEquals(0, new BigDecimal("3500.00").compareTo(dashboard.getByCurrency().get(Wallet.Currency.USD).getAmount()));
+        assertEquals(1, dashboard.getByAgeBucket().get("UNDER_1H").get(Wallet.Currency.USD).getCount());
+        assertEquals(1, dashboard.getByAgeBucket().get("1H_TO_4H").get(Wallet.Currency.USD).getCount());
+        assertEquals(1, dashboard.getByAgeBucket().get("OVER_24H").get(Wallet.Currency.EUR).getCount());
+        assertEquals(2, dashboard.getTopWallets().size());
+        assertEquals(1L, dashboard.getTopWallets().get(0).getWalletId());
+    }
+
+    @Test
+    void processedTransactions_AreRemovedFromCounters() {
+        LocalDateTime createdDate = LocalDateTime.now().minusMinutes(5);
+        pendingQueueService.onWalletTransaction(created(usdWallet, 1L, "1500.00", createdDate));
+        pendingQueueService.onWalletTransaction(processed(usdWallet, 1L, "1500.00", createdDate,
+                Transaction.TransactionStatus.APPROVED));
+
+        PendingDashboardResponse dashboard = pendingQueueService.getDashboard(10, employeeAuthentication);
+
+        assertEquals(0, dashboard.getTotalCount());
+        assertEquals(0, dashboard.getByAgeBucket().get("UNDER_1H").get(Wallet.Currency.USD).getCount());
+        assertTrue(dashboard.getTopWallets().isEmpty());
+    }
+
+    @Test
+    void pendingGauges_FollowCurrencyTotals() {
+        LocalDateTime createdDate = LocalDateTime.now();
+        pendingQueueService.onWalletTransaction(created(usdWallet, 1L, "1500.00", createdDate));
+        pendingQueueService.onWalletTransaction(created(usdWallet, 2L, "2000.00", createdDate));
+        pendingQueueService.onWalletTransaction(processed(usdWallet, 1L, "1500.00", createdDate,
+                Transaction.TransactionStatus.DENIED));
+
+        assertEquals(1.0, meterRegistry.get("wallet.pending.transactions").tag("currency", "USD").gauge().value());
+        assertEquals(2000.0, meterRegistry.get("wallet.pending.amount").tag("currency", "USD").gauge().value());
+        assertEquals(0.0, meterRegistry.get("wallet.pending.transactions").tag("currency", "EUR").gauge().value());
+    }
+
+    @Test
+    void autoApprovedTransactions_AreIgnored() {
+        Transaction transaction = new Transaction(usdWallet, new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT,
+                Transaction.OppositePartyType.IBAN, "TR1", Transaction.TransactionStatus.APPROVED);
+        pendingQueueService.onWalletTransaction(new WalletTransactionEvent(usdWallet, transaction, null));
+
+        assertEquals(0, pendingQueueService.getDashboard(10, employeeAuthentication).getTotalCount());
+    }
+
+    @Test
+    void rebuild_LoadsPendingTransactionsFromRepository() {
+        PendingTransactionView view = new PendingTransactionView() {
+            public Long getWalletId() { return 2L; }
+            public Wallet.Currency getCurrency() { return Wallet.Currency.EUR; }
+            public BigDecimal getAmount() { return new BigDecimal("1200.00"); }
+            public LocalDateTime getCreatedDate() { return LocalDateTime.now().minusHours(6); }
+        };
+        when(transactionRepository.findViewsByStatus(Transaction.TransactionStatus.PENDING)).thenReturn(List.of(view));
+
+        pendingQueueService.rebuild();
+
+        PendingDashboardResponse dashboard = pendingQueueService.getDashboard(10, employeeAuthentication);
+        assertEquals(1, dashboard.getTotalCount());
+        assertEquals(1, dashboard.getByAgeBucket().get("4H_TO_24H").get(Wallet.Currency.EUR).getCount());
+    }
+
+    @Test
+    void getDashboard_ByCustomer_ShouldThrowUnauthorizedException() {
+        assertThrows(UnauthorizedException.class,
+                () -> pendingQueueService.getDashboard(10, customerAuthentication));
+    }
+
+    private WalletTransactionEvent created(Wallet wallet, Long id, String amount, LocalDateTime createdDate) {
+        Transaction transaction = new Transaction(wallet, new BigDecimal(amount), Transaction.TransactionType.DEPOSIT,
+                Transaction.OppositePartyType.IBAN, "TR" + id, Transaction.TransactionStatus.PENDING);
+        transaction.setId(id);
+        transaction.setCreatedDate(createdDate);
+        return new WalletTransactionEvent(wallet, transaction, null);
+    }
+
+    private WalletTransactionEvent processed(Wallet wallet, Long id, String amount, LocalDateTime createdDate,
+                                             Transaction.TransactionStatus status) {
+        Transaction transaction = new Transaction(wallet, new BigDecimal(amount), Transaction.TransactionType.DEPOSIT,
+                Transaction.OppositePartyType.IBAN, "TR" + id, status);
+        transaction.setId(id);
+        transaction.setCreatedDate(createdDate);
+        return new WalletTransactionEvent(wallet, transaction, Transaction.TransactionStatus.PENDING);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.response.LoginResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.RevokedAccessTokenRepository;
+import com.ing.walletservice.security.JwtUtils;
+import com.ing.walletservice.security.TokenRevocationList;
+import com.ing.walletservice.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test refresh token rotation, reuse detection and logout against the token tables
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:tokendb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class TokenServiceTest {
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.findByUsername("tokenuser").orElseGet(() -> customerRepository.save(
+                new Customer("Token", "User", "55555555555", "tokenuser", "hash", Customer.Role.CUSTOMER)));
+        principal = UserPrincipal.create(customer);
+    }
+
+    @Test
+    void refresh_RotatesRefreshTokenAndKeepsCustomer() {
+        LoginResponse issued = tokenService.issueTokens(principal);
+
+        LoginResponse refreshed = tokenService.refresh(issued.getRefreshToken());
+
+        assertNotEquals(issued.getRefreshToken(), refreshed.getRefreshToken());
+        assertNotEquals(issued.getToken(), refreshed.getToken());
+        assertEquals(principal.getId(), refreshed.getId());
+        assertEquals("ROLE_CUSTOMER", refreshed.getRole());
+        assertEquals(jwtUtils.getJwtExpirationMs() / 1000, refreshed.getExpiresIn());
+        assertFalse(tokenRevocationList.isRevoked(accessTokenId(issued)));
+    }
+
+    @Test
+    void refresh_ReusedToken_RevokesFamilyAndItsAccessTokens() {
+        LoginResponse issued = tokenService.issueTokens(principal);
+        LoginResponse refreshed = tokenService.refresh(issued.getRefreshToken());
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(issued.getRefreshToken()));
+
+        assertTrue(tokenRevocationList.isRevoked(accessTokenId(issued)));
+        assertTrue(tokenRevocationList.isRevoked(accessTokenId(refreshed)));
+        assertTrue(revokedAccessTokenRepository.existsById(accessTokenId(refreshed)));
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(refreshed.getRefreshToken()));
+    }
+
+    @Test
+    void logout_RevokesPresentedAccessTokenAndRefreshToken() {
+        LoginResponse issued = tokenService.issueTokens(principal);
+        LoginResponse otherSession = tokenService.issueTokens(principal);
+
+        tokenService.logout(issued.getRefreshToken(), jwtUtils.verifyJwtToken(issued.getToken()));
+
+        assertTrue(tokenRevocationList.isRevoked(accessTokenId(issued)));
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(issued.getRefreshToken()));
+        assertFalse(tokenRevocationList.isRevoked(accessTokenId(otherSession)));
+        assertNotNull(tokenService.refresh(otherSession.getRefreshToken()));
+    }
+
+    @Test
+    void purge_KeepsUnexpiredRevocations() {
+        LoginResponse issued = tokenService.issueTokens(principal);
+        tokenService.logout(issued.getRefreshToken(), jwtUtils.verifyJwtToken(issued.getToken()));
+
+        tokenRevocationList.purge();
+
+        assertTrue(tokenRevocationList.isRevoked(accessTokenId(issued)));
+    }
+
+    @Test
+    void refresh_UnknownToken_IsRejected() {
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh("not-a-refresh-token"));
+    }
+
+    private String accessTokenId(LoginResponse response) {
+        return jwtUtils.verifyJwtToken(response.getToken()).getId();
+    }
+}
@@ -0,0 +1,70 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionMetrics transactionMetrics;
+    private Wallet wallet;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionMetrics = new TransactionMetrics(meterRegistry);
+        Customer customer = new Customer("John", "Doe", "12345678901", "customer1", "password", Customer.Role.CUSTOMER);
+        customer.setId(1L);
+        wallet = new Wallet(customer, "EUR Wallet", Wallet.Currency.EUR, true, true);
+        wallet.setId(1L);
+    }
+
+    @Test
+    void createdTransactions_AreCountedByTypeCurrencyAndStatus() {
+        transactionMetrics.onWalletTransaction(event(Transaction.TransactionType.DEPOSIT,
+                Transaction.TransactionStatus.APPROVED, null));
+        transactionMetrics.onWalletTransaction(event(Transaction.TransactionType.DEPOSIT,
+                Transaction.TransactionStatus.PENDING, null));
+        transactionMetrics.onWalletTransaction(event(Transaction.TransactionType.WITHDRAW,
+                Transaction.TransactionStatus.APPROVED, null));
+
+        assertEquals(1.0, count("wallet.transactions", "DEPOSIT", "APPROVED"));
+        assertEquals(1.0, count("wallet.transactions", "DEPOSIT", "PENDING"));
+        assertEquals(1.0, count("wallet.transactions", "WITHDRAW", "APPROVED"));
+        assertEquals(0.0, count("wallet.transaction.decisions", "DEPOSIT", "APPROVED"));
+    }
+
+    @Test
+    void decisions_AreCountedSeparatelyFromCreations() {
+        transactionMetrics.onWalletTransaction(event(Transaction.TransactionType.WITHDRAW,
+                Transaction.TransactionStatus.APPROVED, Transaction.TransactionStatus.PENDING));
+        transactionMetrics.onWalletTransaction(event(Transaction.TransactionType.WITHDRAW,
+                Transaction.TransactionStatus.DENIED, Transaction.TransactionStatus.PENDING));
+
+        assertEquals(1.0, count("wallet.transaction.decisions", "WITHDRAW", "APPROVED"));
+        assertEquals(1.0, count("wallet.transaction.decisions", "WITHDRAW", "DENIED"));
+        assertEquals(0.0, count("wallet.transactions", "WITHDRAW", "APPROVED"));
+    }
+
+    private double count(String name, String type, String status) {
+        return meterRegistry.get(name).tag("type", type).tag("currency", "EUR").tag("status", status)
+                .counter().count();
+    }
+
+    private WalletTransactionEvent event(Transaction.TransactionType type, Transaction.TransactionStatus status,
+                                         Transaction.TransactionStatus previousStatus) {
+        Transaction transaction = new Transaction(wallet, new BigDecimal("100.00"), type,
+                Transaction.OppositePartyType.IBAN, "TR1", status);
+        transaction.setId(1L);
+        return new WalletTransactionEvent(wallet, transaction, previousStatus);
+    }
+}
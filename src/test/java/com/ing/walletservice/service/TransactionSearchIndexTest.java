@@ -0,0 +1,237 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.SqlStatementCapture;
+import com.ing.walletservice.dto.request.TransactionSearchRequest;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies through H2 EXPLAIN that every supported search filter combination
+ * is answered from one of the composite transaction indexes instead of a table scan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:searchdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ing.walletservice.SqlStatementCapture"
+})
+public class TransactionSearchIndexTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Authentication employeeAuth;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = customerRepository.save(
+                new Customer("Search", "User", "88888888888", "searchuser", "password", Customer.Role.CUSTOMER));
+        Wallet wallet = walletRepository.save(new Wallet(customer, "Search Wallet", Wallet.Currency.EUR, true, true));
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Transaction transaction = new Transaction(wallet, BigDecimal.valueOf(10L + i * 25L),
+                    i % 2 == 0 ? Transaction.TransactionType.DEPOSIT : Transaction.TransactionType.WITHDRAW,
+                    i % 3 == 0 ? Transaction.OppositePartyType.PAYMENT : Transaction.OppositePartyType.IBAN,
+                    "TR" + i, Transaction.TransactionStatus.values()[i % 3]);
+            transaction.setCreatedDate(LocalDateTime.now().minusHours(i * 6L));
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+        jdbcTemplate.execute("ANALYZE");
+
+        Collection<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE"));
+        UserPrincipal employee = new UserPrincipal(999L, "searchemployee", "password", authorities);
+        employeeAuth = new UsernamePasswordAuthenticationToken(employee, null, authorities);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void defaultDateWindow_UsesIndex() {
+        assertSearchUsesIndex(request -> { });
+    }
+
+    @Test
+    void explicitDateRange_UsesIndex() {
+        assertSearchUsesIndex(request -> {
+            request.setFrom(LocalDateTime.now().minusDays(10));
+            request.setTo(LocalDateTime.now().minusDays(2));
+        });
+    }
+
+    @Test
+    void typeFilter_UsesIndex() {
+        assertSearchUsesIndex(request -> request.setType(Transaction.TransactionType.DEPOSIT));
+    }
+
+    @Test
+    void statusFilter_UsesIndex() {
+        assertSearchUsesIndex(request -> request.setStatus(Transaction.TransactionStatus.PENDING));
+    }
+
+    @Test
+    void oppositePartyTypeFilter_UsesIndex() {
+        assertSearchUsesIndex(request -> request.setOppositePartyType(Transaction.OppositePartyType.PAYMENT));
+    }
+
+    @Test
+    void amountRangeFilter_UsesIndex() {
+        assertSearchUsesIndex(request -> {
+            request.setMinAmount(new BigDecimal("100"));
+            request.setMaxAmount(new BigDecimal("2000"));
+        });
+    }
+
+    @Test
+    void statusAndTypeFilter_UsesIndex() {
+        assertSearchUsesIndex(request -> {
+            request.setStatus(Transaction.TransactionStatus.APPROVED);
+            request.setType(Transaction.TransactionType.WITHDRAW);
+        });
+    }
+
+    @Test
+    void allFilters_UsesIndex() {
+        assertSearchUsesIndex(request -> {
+            request.setFrom(LocalDateTime.now().minusDays(20));
+            request.setTo(LocalDateTime.now());
+            request.setType(Transaction.TransactionType.DEPOSIT);
+            request.setStatus(Transaction.TransactionStatus.APPROVED);
+            request.setOppositePartyType(Transaction.OppositePartyType.IBAN);
+            request.setMinAmount(new BigDecimal("10"));
+            request.setMaxAmount(new BigDecimal("5000"));
+        });
+    }
+
+    @Test
+    void pageSize_IsCapped() {
+        var result = transactionService.searchTransactions(new TransactionSearchRequest(), 0, 10_000, employeeAuth);
+
+        assertEquals(100, result.getSize());
+        assertTrue(result.getContent().size() <= 100);
+    }
+
+    @Test
+    void exactCounterparty_UsesPartyKeyIndex() {
+        SqlStatementCapture.clear();
+        var result = transactionService.searchByCounterparty("tr 150", false, null, 20, employeeAuth);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals("TR150", result.getContent().get(0).getOppositeParty());
+        assertCapturedSearchUsesIndex("IDX_TRANSACTIONS_PARTY_KEY");
+    }
+
+    @Test
+    void prefixCounterparty_UsesPartyKeyIndex() {
+        SqlStatementCapture.clear();
+        transactionService.searchByCounterparty("TR12", true, null, 20, employeeAuth);
+
+        assertCapturedSearchUsesIndex("IDX_TRANSACTIONS_PARTY_KEY");
+    }
+
+    @Test
+    void prefixCounterparty_PagesThroughAllMatches() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            var page = transactionService.searchByCounterparty("TR12", true, cursor, 4, employeeAuth);
+            page.getContent().forEach(transaction -> ids.add(transaction.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // TR12 and TR120..TR129
+        assertEquals(11, ids.size());
+        assertEquals(11, ids.stream().distinct().count());
+    }
+
+    @Test
+    void formattedCounterparty_MatchesNormalizedLookup() {
+        Wallet wallet = walletRepository.findAll().get(0);
+        transactionRepository.save(new Transaction(wallet, new BigDecimal("42.00"), Transaction.TransactionType.DEPOSIT,
+                Transaction.OppositePartyType.IBAN, "tr33 0006-1005 1978", Transaction.TransactionStatus.APPROVED));
+
+        var result = transactionService.searchByCounterparty("TR33000610051978", false, null, 20, employeeAuth);
+
+        assertEquals(1, result.getContent().size());
+    }
+
+    @Test
+    void shortCounterpartyPrefix_IsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.searchByCounterparty("TR", true, null, 20, employeeAuth));
+    }
+
+    private void assertSearchUsesIndex(Consumer<TransactionSearchRequest> filters) {
+        TransactionSearchRequest request = new TransactionSearchRequest();
+        filters.accept(request);
+
+        SqlStatementCapture.clear();
+        transactionService.searchTransactions(request, 0, 20, employeeAuth);
+
+        assertCapturedSearchUsesIndex("IDX_TRANSACTIONS_");
+    }
+
+    private void assertCapturedSearchUsesIndex(String indexName) {
+        String searchSql = SqlStatementCapture.getStatements().stream()
+                .filter(sql -> sql.toLowerCase().contains("from transactions"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No transaction search statement was captured"));
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + searchSql, String.class);
+
+        assertFalse(plan.contains("tableScan"), "Expected an index lookup but got:\n" + plan);
+        assertTrue(plan.contains(indexName), "Expected " + indexName + " in plan:\n" + plan);
+    }
+}
@@ -2,6 +2,8 @@ package com.ing.walletservice.service;
 
 import com.ing.walletservice.TestAuthentication;
 import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.audit.AuditPipeline;
+import com.ing.walletservice.diagnostics.HotWalletTracker;
 import com.ing.walletservice.dto.request.ApprovalRequest;
 import com.ing.walletservice.dto.request.DepositRequest;
 import com.ing.walletservice.dto.request.WithdrawRequest;
@@ -16,12 +18,15 @@ import com.ing.walletservice.exception.WalletNotActiveException;
 import com.ing.walletservice.repository.TransactionRepository;
 import com.ing.walletservice.repository.WalletRepository;
 import com.ing.walletservice.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -46,6 +51,19 @@ class TransactionServiceTest {
     @Mock
     private WalletRepository walletRepository;
     
+    @Mock
+    private WalletOwnershipIndex walletOwnershipIndex;
+    
+    @Mock
+    private WalletStatementService walletStatementService;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private WalletLockTimer walletLockTimer = new WalletLockTimer(new SimpleMeterRegistry(),
+            new HotWalletTracker(event -> { }, new SimpleMeterRegistry(), 16, 60, 0, 0));
+    
 
     @InjectMocks
     private TransactionService transactionService;
@@ -64,12 +82,15 @@ class TransactionServiceTest {
     @BeforeEach
     void setUp() {
         // Use reflection to set the AuditLogger since we can't mock it due to Java 24 compatibility issues
-        auditLogger = new AuditLogger();
+        auditLogger = new AuditLogger(new AuditPipeline(List.of(), new SimpleMeterRegistry(), 1024, 64, AuditPipeline.Backpressure.DROP, 0, 5));
         
         try {
             java.lang.reflect.Field auditLoggerField = TransactionService.class.getDeclaredField("auditLogger");
             auditLoggerField.setAccessible(true);
             auditLoggerField.set(transactionService, auditLogger);
+            java.lang.reflect.Field walletAccessField = TransactionService.class.getDeclaredField("walletAccess");
+            walletAccessField.setAccessible(true);
+            walletAccessField.set(transactionService, new WalletAccess(walletRepository, walletOwnershipIndex, auditLogger));
         } catch (Exception e) {
             throw new RuntimeException("Failed to inject AuditLogger", e);
         }
@@ -114,7 +135,7 @@ class TransactionServiceTest {
         DepositRequest request = new DepositRequest(new BigDecimal("500.00"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -122,7 +143,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -133,7 +154,7 @@ class TransactionServiceTest {
         DepositRequest request = new DepositRequest(new BigDecimal("15000.00"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -141,7 +162,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -152,7 +173,7 @@ class TransactionServiceTest {
         DepositRequest request = new DepositRequest(new BigDecimal("1000.00"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -160,7 +181,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -171,7 +192,7 @@ class TransactionServiceTest {
         DepositRequest request = new DepositRequest(new BigDecimal("999.99"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -179,7 +200,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -190,7 +211,8 @@ class TransactionServiceTest {
         DepositRequest request = new DepositRequest(new BigDecimal("500.00"), 999L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
+        when(walletRepository.findByIdAndCustomerIdForUpdate(999L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, 
@@ -208,7 +230,8 @@ class TransactionServiceTest {
         DepositRequest request = new DepositRequest(new BigDecimal("500.00"), 2L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(otherWallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(2L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(2L)).thenReturn(Optional.of(otherCustomer.getId()));
 
         // When & Then
         assertThrows(UnauthorizedException.class, 
@@ -240,7 +263,7 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("500.00"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -248,7 +271,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -260,7 +283,7 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("1500.00"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -268,7 +291,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -280,7 +303,7 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("1000.00"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -288,7 +311,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -299,7 +322,7 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("999.99"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         // When
@@ -307,7 +330,7 @@ class TransactionServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(walletRepository).findByIdForUpdate(1L);
+        verify(walletRepository).findByIdAndCustomerIdForUpdate(1L, 1L);
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletRepository).save(any(Wallet.class));
     }
@@ -318,7 +341,7 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("2000.00"), 1L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(1L, 1L)).thenReturn(Optional.of(wallet));
 
         // When & Then
         assertThrows(InsufficientBalanceException.class, 
@@ -331,7 +354,8 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("500.00"), 999L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
+        when(walletRepository.findByIdAndCustomerIdForUpdate(999L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, 
@@ -348,7 +372,8 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("500.00"), 2L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(otherWallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(2L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(2L)).thenReturn(Optional.of(otherCustomer.getId()));
 
         // When & Then
         assertThrows(UnauthorizedException.class, 
@@ -366,7 +391,7 @@ class TransactionServiceTest {
         WithdrawRequest request = new WithdrawRequest(new BigDecimal("500.00"), 2L, "TR123456789", 
                 Transaction.OppositePartyType.IBAN);
         
-        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(inactiveWallet));
+        when(walletRepository.findByIdAndCustomerIdForUpdate(2L, 1L)).thenReturn(Optional.of(inactiveWallet));
 
         // When & Then
         assertThrows(WalletNotActiveException.class, 
@@ -377,7 +402,7 @@ class TransactionServiceTest {
     void listTransactions_ForOwnWallet_ShouldReturnTransactions() {
         // Given
         List<Transaction> transactions = Arrays.asList(transaction);
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerId(1L, 1L)).thenReturn(Optional.of(wallet));
         when(transactionRepository.findByWalletIdOrderByCreatedDateDesc(1L)).thenReturn(transactions);
 
         // When
@@ -386,7 +411,7 @@ class TransactionServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(walletRepository).findById(1L); // Only called once for listTransactions (no distributed lock)
+        verify(walletRepository).findByIdAndCustomerId(1L, 1L);
         verify(transactionRepository).findByWalletIdOrderByCreatedDateDesc(1L);
     }
 
@@ -398,7 +423,8 @@ class TransactionServiceTest {
         Wallet otherWallet = new Wallet(otherCustomer, "Other Wallet", Wallet.Currency.USD, true, true);
         otherWallet.setId(2L);
         
-        when(walletRepository.findById(2L)).thenReturn(Optional.of(otherWallet));
+        when(walletRepository.findByIdAndCustomerId(2L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(2L)).thenReturn(Optional.of(otherCustomer.getId()));
 
         // When & Then
         assertThrows(UnauthorizedException.class, 
@@ -408,7 +434,8 @@ class TransactionServiceTest {
     @Test
     void listTransactions_WithNonExistentWallet_ShouldThrowResourceNotFoundException() {
         // Given
-        when(walletRepository.findById(999L)).thenReturn(Optional.empty());
+        when(walletRepository.findByIdAndCustomerId(999L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, 
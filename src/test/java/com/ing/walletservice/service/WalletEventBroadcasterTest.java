@@ -0,0 +1,157 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.response.WalletResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import com.ing.walletservice.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletEventBroadcasterTest {
+
+    private final List<Runnable> pendingDispatches = new ArrayList<>();
+
+    private WalletEventBroadcaster broadcaster;
+    private Wallet wallet;
+    private Wallet otherWallet;
+
+    @BeforeEach
+    void setUp() {
+        // Dispatches are held back so the test controls when subscribers drain their buffers
+        broadcaster = new WalletEventBroadcaster(2, 3, 60_000L, 3_600_000L, pendingDispatches::add);
+
+        Customer customer = new Customer("John", "Doe", "12345678901", "customer1", "password", Customer.Role.CUSTOMER);
+        customer.setId(1L);
+        wallet = new Wallet(customer, "USD Wallet", Wallet.Currency.USD, true, true);
+        wallet.setId(1L);
+        otherWallet = new Wallet(customer, "EUR Wallet", Wallet.Currency.EUR, true, true);
+        otherWallet.setId(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void subscribe_QueuesSnapshotAndCountsSubscriber() {
+        SseEmitter emitter = subscribe(wallet);
+
+        assertNotNull(emitter);
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1, pendingDispatches.size());
+    }
+
+    @Test
+    void subscribe_OverCapacity_Rejected() {
+        subscribe(wallet);
+        subscribe(wallet);
+
+        assertThrows(ServiceUnavailableException.class, () -> subscribe(wallet));
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void onWalletTransaction_OnlyReachesSubscribersOfThatWallet() {
+        subscribe(otherWallet);
+        runPendingDispatches();
+
+        broadcaster.onWalletTransaction(event(wallet, 10L));
+
+        assertTrue(pendingDispatches.isEmpty());
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void onWalletTransaction_SlowSubscriberDroppedWithoutBlocking() {
+        subscribe(wallet);
+
+        // Three events fill the buffer of three; the next event overflows it
+        broadcaster.onWalletTransaction(event(wallet, 10L));
+        broadcaster.onWalletTransaction(event(wallet, 11L));
+        broadcaster.onWalletTransaction(event(wallet, 12L));
+        assertEquals(1, broadcaster.getSubscriberCount());
+
+        broadcaster.onWalletTransaction(event(wallet, 13L));
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void onWalletTransaction_DrainedSubscriberKeepsReceiving() {
+        subscribe(wallet);
+
+        for (long id = 10; id < 20; id++) {
+            broadcaster.onWalletTransaction(event(wallet, id));
+            runPendingDispatches();
+        }
+
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void commitWhileSnapshotIsRead_IsStreamedAfterTheSnapshot() {
+        List<String> sent = new ArrayList<>();
+        WalletEventBroadcaster recording = new WalletEventBroadcaster(2, 3, 60_000L, 3_600_000L, pendingDispatches::add) {
+            @Override
+            SseEmitter newEmitter() {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        sent.add(String.valueOf(builder.build().iterator().next().getData()));
+                    }
+                };
+            }
+        };
+        try {
+            recording.subscribe(1L, () -> {
+                // A deposit commits after registration but before the snapshot is returned
+                recording.onWalletTransaction(event(wallet, 10L));
+                assertTrue(pendingDispatches.isEmpty());
+                return new WalletResponse(wallet);
+            });
+            runPendingDispatches();
+
+            assertEquals(2, sent.size());
+            assertTrue(sent.get(0).startsWith("event:snapshot"));
+            assertTrue(sent.get(1).contains("event:transaction"));
+        } finally {
+            recording.destroy();
+        }
+    }
+
+    @Test
+    void subscribe_SnapshotFailure_ReleasesTheSlot() {
+        assertThrows(IllegalStateException.class, () -> broadcaster.subscribe(1L, () -> {
+            throw new IllegalStateException("denied");
+        }));
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    private SseEmitter subscribe(Wallet target) {
+        return broadcaster.subscribe(target.getId(), () -> new WalletResponse(target));
+    }
+
+    private void runPendingDispatches() {
+        List<Runnable> dispatches = new ArrayList<>(pendingDispatches);
+        pendingDispatches.clear();
+        dispatches.forEach(Runnable::run);
+    }
+
+    private WalletTransactionEvent event(Wallet target, Long transactionId) {
+        Transaction transaction = new Transaction(target, new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT,
+                Transaction.OppositePartyType.IBAN, "TR123456789", Transaction.TransactionStatus.APPROVED);
+        transaction.setId(transactionId);
+        return new WalletTransactionEvent(target, transaction, null);
+    }
+}
@@ -0,0 +1,173 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.SqlStatementCapture;
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.dto.request.CreateWalletRequest;
+import com.ing.walletservice.dto.request.DepositRequest;
+import com.ing.walletservice.dto.request.WithdrawRequest;
+import com.ing.walletservice.dto.response.WalletResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.exception.ResourceNotFoundException;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the SQL issued by wallet-scoped service calls: ownership is checked inside the wallet
+ * query, the customers table is never read, and rejected calls take no lock.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:ownershipdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ing.walletservice.SqlStatementCapture"
+})
+public class WalletOwnershipQueryTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletOwnershipIndex walletOwnershipIndex;
+
+    private Wallet ownWallet;
+    private Wallet otherWallet;
+    private Authentication ownerAuth;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer owner = customerRepository.save(
+                new Customer("Wallet", "Owner", "12121212121", "walletowner", "password", Customer.Role.CUSTOMER));
+        Customer other = customerRepository.save(
+                new Customer("Other", "Owner", "34343434343", "otherowner", "password", Customer.Role.CUSTOMER));
+
+        ownWallet = new Wallet(owner, "Own", Wallet.Currency.TRY, true, true);
+        ownWallet.setBalance(new BigDecimal("500.00"));
+        ownWallet.setUsableBalance(new BigDecimal("500.00"));
+        ownWallet = walletRepository.save(ownWallet);
+        otherWallet = walletRepository.save(new Wallet(other, "Other", Wallet.Currency.TRY, true, true));
+
+        ownerAuth = new TestAuthentication(UserPrincipal.create(owner));
+    }
+
+    @Test
+    void getWallet_OwnWallet_IssuesOneQueryWithoutCustomerLoad() {
+        List<String> statements = SqlStatementCapture.during(() -> walletService.getWallet(ownWallet.getId(), ownerAuth));
+
+        assertEquals(1, statements.size(), () -> "Unexpected statements: " + statements);
+        assertTrue(lower(statements.get(0)).contains("customer_id=?"));
+        assertNoCustomerRead(statements);
+    }
+
+    @Test
+    void getWallet_OtherCustomersWallet_IsRejectedWithoutLoadingIt() {
+        List<String> statements = SqlStatementCapture.during(() -> assertThrows(UnauthorizedException.class,
+                () -> walletService.getWallet(otherWallet.getId(), ownerAuth)));
+
+        assertEquals(2, statements.size(), () -> "Unexpected statements: " + statements);
+        assertNoCustomerRead(statements);
+    }
+
+    @Test
+    void deposit_OwnWallet_LocksWithOwnershipPredicate() {
+        DepositRequest request = new DepositRequest(new BigDecimal("100.00"), ownWallet.getId(), "TR000000000000000000000001",
+                Transaction.OppositePartyType.IBAN);
+
+        List<String> statements = SqlStatementCapture.during(() -> transactionService.deposit(request, ownerAuth));
+
+        String lock = lower(statements.get(0));
+        assertTrue(lock.contains("customer_id=?") && lock.contains("for update"), lock);
+        assertEquals(1, statements.stream().filter(sql -> lower(sql).contains("for update")).count());
+        assertNoCustomerRead(statements);
+    }
+
+    @Test
+    void withdraw_OtherCustomersWallet_IsRejectedBeforeAnyRowIsLockedOrWritten() {
+        WithdrawRequest request = new WithdrawRequest(new BigDecimal("10.00"), otherWallet.getId(), "TR000000000000000000000001",
+                Transaction.OppositePartyType.IBAN);
+
+        List<String> statements = SqlStatementCapture.during(() -> assertThrows(UnauthorizedException.class,
+                () -> transactionService.withdraw(request, ownerAuth)));
+
+        // The ownership-scoped lock matches no row, then the owner lookup tells 403 from 404
+        assertEquals(2, statements.size(), () -> "Unexpected statements: " + statements);
+        assertTrue(lower(statements.get(0)).contains("customer_id=?"));
+        assertFalse(lower(statements.get(1)).contains("for update"));
+        assertTrue(statements.stream().noneMatch(sql -> lower(sql).startsWith("insert")
+                || lower(sql).startsWith("update")));
+    }
+
+    @Test
+    void withdraw_OtherCustomersIndexedWallet_IsRejectedWithoutAnyQuery() {
+        walletOwnershipIndex.remember(otherWallet.getId(), otherWallet.getCustomer().getId());
+        WithdrawRequest request = new WithdrawRequest(new BigDecimal("10.00"), otherWallet.getId(), "TR000000000000000000000001",
+                Transaction.OppositePartyType.IBAN);
+
+        List<String> statements = SqlStatementCapture.during(() -> assertThrows(UnauthorizedException.class,
+                () -> transactionService.withdraw(request, ownerAuth)));
+
+        assertTrue(statements.isEmpty(), () -> "Unexpected statements: " + statements);
+    }
+
+    @Test
+    void createWallet_IsIndexedAfterCommit() {
+        WalletResponse created = walletService.createWallet(
+                new CreateWalletRequest("Indexed", Wallet.Currency.EUR, true, true), ownerAuth);
+
+        assertEquals(ownWallet.getCustomer().getId(), walletOwnershipIndex.ownerOf(created.getId()));
+    }
+
+    @Test
+    void deposit_MissingWallet_IsNotFound() {
+        DepositRequest request = new DepositRequest(new BigDecimal("10.00"), otherWallet.getId() + 1000,
+                "TR000000000000000000000001", Transaction.OppositePartyType.IBAN);
+
+        List<String> statements = SqlStatementCapture.during(() -> assertThrows(ResourceNotFoundException.class,
+                () -> transactionService.deposit(request, ownerAuth)));
+
+        assertEquals(2, statements.size(), () -> "Unexpected statements: " + statements);
+    }
+
+    private static void assertNoCustomerRead(List<String> statements) {
+        assertTrue(statements.stream().noneMatch(sql -> lower(sql).matches("(?s).*\\bcustomers\\b.*")),
+                () -> "Customers table was read: " + statements);
+    }
+
+    private static String lower(String sql) {
+        return sql.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,216 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.SqlStatementCapture;
+import com.ing.walletservice.dto.request.WalletSearchRequest;
+import com.ing.walletservice.dto.response.CursorPagedResponse;
+import com.ing.walletservice.dto.response.WalletResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies keyset paging over all wallets and, through H2 EXPLAIN, that currency-scoped
+ * balance listings are answered from the (currency, balance) index.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:walletsearchdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ing.walletservice.SqlStatementCapture"
+})
+public class WalletSearchIndexTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Authentication employeeAuth;
+    private Authentication customerAuth;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = customerRepository.save(
+                new Customer("Wallet", "Search", "77777777777", "walletsearch", "password", Customer.Role.CUSTOMER));
+
+        List<Wallet> wallets = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Wallet wallet = new Wallet(customer, "Wallet " + i, Wallet.Currency.values()[i % 3], i % 4 != 0, true);
+            // Few distinct balances so ties have to be broken by id across page boundaries
+            wallet.setBalance(BigDecimal.valueOf((i * 7L) % 25 * 100L));
+            wallet.setUsableBalance(wallet.getBalance());
+            wallets.add(wallet);
+        }
+        walletRepository.saveAll(wallets);
+        jdbcTemplate.execute("ANALYZE");
+
+        Collection<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE"));
+        employeeAuth = new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(999L, "searchemployee", "password", authorities), null, authorities);
+        Collection<GrantedAuthority> customerAuthorities = List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"));
+        customerAuth = new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(customer.getId(), "walletsearch", "password", customerAuthorities),
+                null, customerAuthorities);
+    }
+
+    @AfterEach
+    void tearDown() {
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void largestWalletsOfCurrency_UsesCurrencyBalanceIndex() {
+        WalletSearchRequest request = balanceRequest(Sort.Direction.DESC);
+        request.setCurrency(Wallet.Currency.USD);
+
+        SqlStatementCapture.clear();
+        walletService.searchWallets(request, 10, employeeAuth);
+
+        String plan = explainSearch();
+        assertFalse(plan.contains("tableScan"), "Expected an index lookup but got:\n" + plan);
+        assertTrue(plan.contains("IDX_WALLETS_CURRENCY_BALANCE"), "Expected currency/balance index in plan:\n" + plan);
+    }
+
+    @Test
+    void balanceSort_PagesThroughEveryWalletInOrder() {
+        WalletSearchRequest request = balanceRequest(Sort.Direction.DESC);
+        request.setCurrency(Wallet.Currency.USD);
+
+        List<WalletResponse> collected = collectAllPages(request, 7);
+
+        List<WalletResponse> expected = walletRepository.findAll().stream()
+                .filter(wallet -> wallet.getCurrency() == Wallet.Currency.USD)
+                .map(WalletResponse::new)
+                .sorted(Comparator.comparing(WalletResponse::getBalance)
+                        .thenComparing(WalletResponse::getId).reversed())
+                .collect(Collectors.toList());
+        assertEquals(ids(expected), ids(collected));
+    }
+
+    @Test
+    void idSort_WithFlagsAndBalanceRange_PagesWithoutGapsOrDuplicates() {
+        WalletSearchRequest request = new WalletSearchRequest();
+        request.setActiveForShopping(true);
+        request.setMinBalance(new BigDecimal("500"));
+        request.setMaxBalance(new BigDecimal("1500"));
+
+        List<WalletResponse> collected = collectAllPages(request, 9);
+
+        List<Long> expected = walletRepository.findAll().stream()
+                .filter(wallet -> wallet.getActiveForShopping()
+                        && wallet.getBalance().compareTo(new BigDecimal("500")) >= 0
+                        && wallet.getBalance().compareTo(new BigDecimal("1500")) <= 0)
+                .map(Wallet::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, ids(collected));
+    }
+
+    @Test
+    void cursorFromDifferentSort_IsRejected() {
+        CursorPagedResponse<WalletResponse> first =
+                walletService.searchWallets(balanceRequest(Sort.Direction.DESC), 5, employeeAuth);
+
+        WalletSearchRequest request = new WalletSearchRequest();
+        request.setCursor(first.getNextCursor());
+
+        assertThrows(IllegalArgumentException.class, () -> walletService.searchWallets(request, 5, employeeAuth));
+    }
+
+    @Test
+    void malformedCursor_IsRejected() {
+        WalletSearchRequest request = new WalletSearchRequest();
+        request.setCursor("not-a-cursor");
+
+        assertThrows(IllegalArgumentException.class, () -> walletService.searchWallets(request, 5, employeeAuth));
+    }
+
+    @Test
+    void customer_IsRejected() {
+        assertThrows(UnauthorizedException.class,
+                () -> walletService.searchWallets(new WalletSearchRequest(), 5, customerAuth));
+    }
+
+    @Test
+    void pageSize_IsCapped() {
+        CursorPagedResponse<WalletResponse> result =
+                walletService.searchWallets(new WalletSearchRequest(), 10_000, employeeAuth);
+
+        assertEquals(100, result.getSize());
+        assertEquals(100, result.getContent().size());
+        assertTrue(result.isHasNext());
+    }
+
+    private List<WalletResponse> collectAllPages(WalletSearchRequest request, int size) {
+        List<WalletResponse> collected = new ArrayList<>();
+        CursorPagedResponse<WalletResponse> page;
+        do {
+            page = walletService.searchWallets(request, size, employeeAuth);
+            collected.addAll(page.getContent());
+            request.setCursor(page.getNextCursor());
+        } while (page.isHasNext());
+        return collected;
+    }
+
+    private WalletSearchRequest balanceRequest(Sort.Direction direction) {
+        WalletSearchRequest request = new WalletSearchRequest();
+        request.setSortBy(WalletSearchRequest.SortField.BALANCE);
+        request.setDirection(direction);
+        return request;
+    }
+
+    private List<Long> ids(List<WalletResponse> wallets) {
+        return wallets.stream().map(WalletResponse::getId).collect(Collectors.toList());
+    }
+
+    private String explainSearch() {
+        String searchSql = SqlStatementCapture.getStatements().stream()
+                .filter(sql -> sql.toLowerCase().contains("from wallets"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No wallet search statement was captured"));
+        return jdbcTemplate.queryForObject("EXPLAIN " + searchSql, String.class);
+    }
+}
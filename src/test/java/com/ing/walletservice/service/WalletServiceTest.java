@@ -2,6 +2,7 @@ package com.ing.walletservice.service;
 
 import com.ing.walletservice.TestAuthentication;
 import com.ing.walletservice.audit.AuditLogger;
+import com.ing.walletservice.audit.AuditPipeline;
 import com.ing.walletservice.dto.request.CreateWalletRequest;
 import com.ing.walletservice.dto.response.WalletResponse;
 import com.ing.walletservice.entity.Customer;
@@ -11,12 +12,14 @@ import com.ing.walletservice.exception.UnauthorizedException;
 import com.ing.walletservice.repository.CustomerRepository;
 import com.ing.walletservice.repository.WalletRepository;
 import com.ing.walletservice.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -39,9 +42,15 @@ class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private WalletOwnershipIndex walletOwnershipIndex;
+
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WalletService walletService;
 
@@ -59,12 +68,15 @@ class WalletServiceTest {
     void setUp() {
         // Use reflection to set the AuditLogger since we can't mock it due to Java 24
         // compatibility issues
-        auditLogger = new AuditLogger();
+        auditLogger = new AuditLogger(new AuditPipeline(List.of(), new SimpleMeterRegistry(), 1024, 64, AuditPipeline.Backpressure.DROP, 0, 5));
 
         try {
             java.lang.reflect.Field auditLoggerField = WalletService.class.getDeclaredField("auditLogger");
             auditLoggerField.setAccessible(true);
             auditLoggerField.set(walletService, auditLogger);
+            java.lang.reflect.Field walletAccessField = WalletService.class.getDeclaredField("walletAccess");
+            walletAccessField.setAccessible(true);
+            walletAccessField.set(walletService, new WalletAccess(walletRepository, walletOwnershipIndex, auditLogger));
         } catch (Exception e) {
             throw new RuntimeException("Failed to inject AuditLogger", e);
         }
@@ -193,7 +205,7 @@ class WalletServiceTest {
     @Test
     void getWallet_ForOwnWallet_ShouldReturnWallet() {
         // Given
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdAndCustomerId(1L, 1L)).thenReturn(Optional.of(wallet));
 
         // When
         WalletResponse response = walletService.getWallet(1L, customerAuthentication);
@@ -201,13 +213,14 @@ class WalletServiceTest {
         // Then
         assertNotNull(response);
         assertEquals(wallet.getId(), response.getId());
-        verify(walletRepository).findById(1L);
+        verify(walletRepository).findByIdAndCustomerId(1L, 1L);
     }
 
     @Test
     void getWallet_WithNonExistentWallet_ShouldThrowResourceNotFoundException() {
         // Given
-        when(walletRepository.findById(999L)).thenReturn(Optional.empty());
+        when(walletRepository.findByIdAndCustomerId(999L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class,
@@ -223,7 +236,8 @@ class WalletServiceTest {
         Wallet otherWallet = new Wallet(otherCustomer, "Other Wallet", Wallet.Currency.USD, true, true);
         otherWallet.setId(1L);
 
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(otherWallet));
+        when(walletRepository.findByIdAndCustomerId(1L, 1L)).thenReturn(Optional.empty());
+        when(walletRepository.findCustomerIdById(1L)).thenReturn(Optional.of(otherCustomer.getId()));
 
         // When & Then
         assertThrows(UnauthorizedException.class,
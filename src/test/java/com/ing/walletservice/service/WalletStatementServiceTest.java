@@ -0,0 +1,178 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.dto.request.ApprovalRequest;
+import com.ing.walletservice.dto.request.DepositRequest;
+import com.ing.walletservice.dto.request.WithdrawRequest;
+import com.ing.walletservice.dto.response.TransactionResponse;
+import com.ing.walletservice.dto.response.WalletStatementResponse;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.exception.UnauthorizedException;
+import com.ing.walletservice.repository.CustomerRepository;
+import com.ing.walletservice.repository.TransactionRepository;
+import com.ing.walletservice.repository.WalletDailyStatsRepository;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test for the incrementally maintained daily wallet rollups and their backfill
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class WalletStatementServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletStatementService walletStatementService;
+
+    @Autowired
+    private WalletDailyStatsBackfill walletDailyStatsBackfill;
+
+    @Autowired
+    private WalletDailyStatsRepository walletDailyStatsRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Wallet wallet;
+    private Authentication customerAuth;
+    private Authentication otherCustomerAuth;
+    private Authentication employeeAuth;
+
+    @BeforeEach
+    void setUp() {
+        walletDailyStatsRepository.deleteAll();
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        Customer customer = customerRepository.save(
+                new Customer("Stats", "User", "77777777777", "statsuser", "password", Customer.Role.CUSTOMER));
+        wallet = walletRepository.save(new Wallet(customer, "Stats Wallet", Wallet.Currency.TRY, true, true));
+
+        customerAuth = authentication(customer.getId(), "statsuser", "ROLE_CUSTOMER");
+        otherCustomerAuth = authentication(customer.getId() + 1000, "otheruser", "ROLE_CUSTOMER");
+        employeeAuth = authentication(customer.getId() + 2000, "statsemployee", "ROLE_EMPLOYEE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        walletDailyStatsRepository.deleteAll();
+        transactionRepository.deleteAll();
+        walletRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void approvedBalanceChanges_AreRolledUpIncrementally() {
+        transactionService.deposit(depositRequest("300.00"), customerAuth);
+        transactionService.deposit(depositRequest("200.00"), customerAuth);
+        transactionService.withdraw(withdrawRequest("50.00"), customerAuth);
+
+        // Pending deposit only counts once it is approved
+        TransactionResponse pending = transactionService.deposit(depositRequest("1500.00"), customerAuth);
+        assertEquals(2, statementForToday().getDepositCount());
+
+        transactionService.approveTransaction(
+                new ApprovalRequest(pending.getId(), Transaction.TransactionStatus.APPROVED), employeeAuth);
+
+        WalletStatementResponse statement = statementForToday();
+        assertEquals(3, statement.getDepositCount());
+        assertEquals(0, new BigDecimal("2000.00").compareTo(statement.getDepositTotal()));
+        assertEquals(1, statement.getWithdrawCount());
+        assertEquals(0, new BigDecimal("50.00").compareTo(statement.getWithdrawTotal()));
+        assertEquals(0, new BigDecimal("1950.00").compareTo(statement.getNetChange()));
+        assertEquals(1, statement.getDays().size());
+    }
+
+    @Test
+    void deniedTransactions_AreNotRolledUp() {
+        TransactionResponse pending = transactionService.deposit(depositRequest("5000.00"), customerAuth);
+        transactionService.approveTransaction(
+                new ApprovalRequest(pending.getId(), Transaction.TransactionStatus.DENIED), employeeAuth);
+
+        WalletStatementResponse statement = statementForToday();
+        assertEquals(0, statement.getDepositCount());
+        assertEquals(0, statement.getDays().size());
+    }
+
+    @Test
+    void backfill_RebuildsSameRollupsAsIncrementalPath() {
+        transactionService.deposit(depositRequest("300.00"), customerAuth);
+        transactionService.withdraw(withdrawRequest("100.00"), customerAuth);
+        TransactionResponse pending = transactionService.deposit(depositRequest("2500.00"), customerAuth);
+        transactionService.approveTransaction(
+                new ApprovalRequest(pending.getId(), Transaction.TransactionStatus.APPROVED), employeeAuth);
+
+        WalletStatementResponse incremental = statementForToday();
+
+        walletDailyStatsRepository.deleteAll();
+        walletDailyStatsBackfill.backfill();
+
+        WalletStatementResponse rebuilt = statementForToday();
+        assertEquals(incremental.getDepositCount(), rebuilt.getDepositCount());
+        assertEquals(0, incremental.getDepositTotal().compareTo(rebuilt.getDepositTotal()));
+        assertEquals(incremental.getWithdrawCount(), rebuilt.getWithdrawCount());
+        assertEquals(0, incremental.getWithdrawTotal().compareTo(rebuilt.getWithdrawTotal()));
+    }
+
+    @Test
+    void getStatement_ForOtherCustomerWallet_ShouldThrowUnauthorizedException() {
+        LocalDate today = LocalDate.now();
+        assertThrows(UnauthorizedException.class,
+                () -> walletStatementService.getStatement(wallet.getId(), today, today, otherCustomerAuth));
+    }
+
+    private WalletStatementResponse statementForToday() {
+        LocalDate today = LocalDate.now();
+        return walletStatementService.getStatement(wallet.getId(), today.minusDays(1), today, customerAuth);
+    }
+
+    private DepositRequest depositRequest(String amount) {
+        return new DepositRequest(new BigDecimal(amount), wallet.getId(), "TR0001",
+                Transaction.OppositePartyType.IBAN);
+    }
+
+    private WithdrawRequest withdrawRequest(String amount) {
+        return new WithdrawRequest(new BigDecimal(amount), wallet.getId(), "TR0002",
+                Transaction.OppositePartyType.IBAN);
+    }
+
+    private Authentication authentication(Long id, String username, String role) {
+        Collection<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+        UserPrincipal principal = new UserPrincipal(id, username, "password", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+}
@@ -0,0 +1,211 @@
+package com.ing.walletservice.service;
+
+import com.ing.walletservice.TestAuthentication;
+import com.ing.walletservice.entity.Customer;
+import com.ing.walletservice.entity.Transaction;
+import com.ing.walletservice.entity.Wallet;
+import com.ing.walletservice.event.WalletCreatedEvent;
+import com.ing.walletservice.event.WalletTransactionEvent;
+import com.ing.walletservice.repository.WalletRepository;
+import com.ing.walletservice.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletVersionServiceTest {
+
+    private WalletVersionService walletVersionService;
+    private Wallet wallet;
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        walletVersionService = new WalletVersionService(
+                new WalletOwnershipIndex(Mockito.mock(WalletRepository.class), new SimpleMeterRegistry(), 100));
+
+        Customer customer = new Customer("John", "Doe", "12345678901", "customer1", "password", Customer.Role.CUSTOMER);
+        customer.setId(1L);
+        wallet = new Wallet(customer, "Test Wallet", Wallet.Currency.USD, true, true);
+        wallet.setId(10L);
+
+        transaction = new Transaction(wallet, new BigDecimal("100.00"), Transaction.TransactionType.DEPOSIT,
+                Transaction.OppositePartyType.IBAN, "TR1", Transaction.TransactionStatus.APPROVED);
+        transaction.setId(100L);
+    }
+
+    @Test
+    void walletTransaction_ChangesWalletTransactionsAndListETags() {
+        String walletETag = walletVersionService.walletETag(10L);
+        String transactionsETag = walletVersionService.transactionsETag(10L);
+        String listETag = walletVersionService.walletListETag(1L, null, null);
+
+        assertEquals(walletETag, walletVersionService.walletETag(10L));
+
+        walletVersionService.onWalletTransaction(new WalletTransactionEvent(wallet, transaction, null));
+
+        assertNotEquals(walletETag, walletVersionService.walletETag(10L));
+        assertNotEquals(transactionsETag, walletVersionService.transactionsETag(10L));
+        assertNotEquals(listETag, walletVersionService.walletListETag(1L, null, null));
+    }
+
+    @Test
+    void walletCreation_ChangesOnlyListETag() {
+        String walletETag = walletVersionService.walletETag(10L);
+        String listETag = walletVersionService.walletListETag(1L, Wallet.Currency.USD, new BigDecimal("10"));
+
+        walletVersionService.onWalletCreated(new WalletCreatedEvent(wallet));
+
+        assertEquals(walletETag, walletVersionService.walletETag(10L));
+        assertNotEquals(listETag, walletVersionService.walletListETag(1L, Wallet.Currency.USD, new BigDecimal("10")));
+    }
+
+    @Test
+    void readBetweenPrepareAndCommit_GetsTheOldTagSoItIsNotServedStale() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TransactionalConfig.class)) {
+            WalletVersionService versions = context.getBean(WalletVersionService.class);
+            TestTransactionManager transactionManager = context.getBean(TestTransactionManager.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            String before = versions.walletETag(10L);
+            String[] readDuringCommit = new String[1];
+            // A concurrent GET that runs after the before-commit callbacks but before the
+            // commit still reads the old row, so it must still get the old tag
+            transactionManager.duringCommit = () -> readDuringCommit[0] = versions.walletETag(10L);
+
+            transactionTemplate.executeWithoutResult(status ->
+                    context.publishEvent(new WalletTransactionEvent(wallet, transaction, null)));
+
+            assertEquals(before, readDuringCommit[0]);
+            assertNotEquals(readDuringCommit[0], versions.walletETag(10L));
+
+            String committed = versions.walletETag(10L);
+            transactionTemplate.executeWithoutResult(status -> {
+                context.publishEvent(new WalletTransactionEvent(wallet, transaction, null));
+                status.setRollbackOnly();
+            });
+            assertEquals(committed, versions.walletETag(10L));
+        }
+    }
+
+    @Test
+    void rolledBackWalletCreation_LeavesNoOwnerBehind() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TransactionalConfig.class)) {
+            WalletVersionService versions = context.getBean(WalletVersionService.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(TestTransactionManager.class));
+            Authentication owner = authentication(1L, "ROLE_CUSTOMER");
+
+            transactionTemplate.executeWithoutResult(status -> {
+                context.publishEvent(new WalletCreatedEvent(wallet));
+                status.setRollbackOnly();
+            });
+            assertFalse(versions.isKnownReadable(10L, owner));
+
+            transactionTemplate.executeWithoutResult(status -> context.publishEvent(new WalletCreatedEvent(wallet)));
+            assertTrue(versions.isKnownReadable(10L, owner));
+        }
+    }
+
+    @Test
+    void walletListETag_DependsOnFiltersButNotOnScale() {
+        assertEquals(walletVersionService.walletListETag(1L, null, new BigDecimal("10")),
+                walletVersionService.walletListETag(1L, null, new BigDecimal("10.00")));
+        assertNotEquals(walletVersionService.walletListETag(1L, null, null),
+                walletVersionService.walletListETag(1L, Wallet.Currency.EUR, null));
+        assertNotEquals(walletVersionService.walletListETag(1L, Wallet.Currency.EUR, new BigDecimal("10")),
+                walletVersionService.walletListETag(1L, Wallet.Currency.EUR, new BigDecimal("10.5")));
+    }
+
+    @Test
+    void readsOfUnknownIds_DoNotCreateCounters() {
+        for (long id = 1; id <= 1000; id++) {
+            walletVersionService.walletETag(id);
+            walletVersionService.transactionsETag(id);
+            walletVersionService.walletListETag(id, null, null);
+        }
+
+        assertEquals(0, walletVersionService.trackedVersions());
+        String before = walletVersionService.walletETag(10L);
+        walletVersionService.onWalletTransaction(new WalletTransactionEvent(wallet, transaction, null));
+        assertNotEquals(before, walletVersionService.walletETag(10L));
+        assertEquals(2, walletVersionService.trackedVersions());
+    }
+
+    @Test
+    void isKnownReadable_OnlyForKnownOwnerOrEmployee() {
+        Authentication owner = authentication(1L, "ROLE_CUSTOMER");
+        Authentication otherCustomer = authentication(2L, "ROLE_CUSTOMER");
+        Authentication employee = authentication(3L, "ROLE_EMPLOYEE");
+
+        assertFalse(walletVersionService.isKnownReadable(10L, owner));
+        assertFalse(walletVersionService.isKnownReadable(10L, employee));
+
+        walletVersionService.rememberOwner(10L, 1L);
+
+        assertTrue(walletVersionService.isKnownReadable(10L, owner));
+        assertTrue(walletVersionService.isKnownReadable(10L, employee));
+        assertFalse(walletVersionService.isKnownReadable(10L, otherCustomer));
+    }
+
+    private Authentication authentication(Long id, String role) {
+        return new TestAuthentication(new UserPrincipal(id, "user" + id, "password",
+                Collections.singleton(new SimpleGrantedAuthority(role))));
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionalConfig {
+
+        @Bean
+        WalletOwnershipIndex walletOwnershipIndex() {
+            return new WalletOwnershipIndex(Mockito.mock(WalletRepository.class), new SimpleMeterRegistry(), 100);
+        }
+
+        @Bean
+        WalletVersionService walletVersionService(WalletOwnershipIndex walletOwnershipIndex) {
+            return new WalletVersionService(walletOwnershipIndex);
+        }
+
+        @Bean
+        TestTransactionManager transactionManager() {
+            return new TestTransactionManager();
+        }
+    }
+
+    static class TestTransactionManager extends AbstractPlatformTransactionManager {
+
+        Runnable duringCommit = () -> { };
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            duringCommit.run();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
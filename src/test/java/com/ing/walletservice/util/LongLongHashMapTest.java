@@ -0,0 +1,55 @@
+package com.ing.walletservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putAndGet_MatchesHashMapAcrossResizes() {
+        LongLongHashMap map = new LongLongHashMap(0);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long key = 1 + (random.nextLong() >>> 1) % 200_000;
+            long value = 1 + random.nextInt(1_000_000);
+            map.put(key, value);
+            expected.put(key, value);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value.longValue(), map.get(key)));
+        for (long key = 200_001; key < 201_000; key++) {
+            assertEquals(LongLongHashMap.NO_VALUE, map.get(key));
+        }
+    }
+
+    @Test
+    void presizedForSequentialIds_StaysUnderTwentyBytesPerEntry() {
+        int wallets = 1_000_000;
+        LongLongHashMap map = new LongLongHashMap(wallets);
+
+        for (long walletId = 1; walletId <= wallets; walletId++) {
+            map.put(walletId, 1 + walletId / 3);
+        }
+
+        assertEquals(wallets, map.size());
+        assertEquals(1 + 777_777 / 3, map.get(777_777));
+        assertTrue((double) map.memoryBytes() / wallets <= 20.0,
+                () -> "bytes per entry: " + (double) map.memoryBytes() / wallets);
+    }
+
+    @Test
+    void put_RejectsReservedKeyAndValue() {
+        LongLongHashMap map = new LongLongHashMap(16);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1L));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, LongLongHashMap.NO_VALUE));
+    }
+}
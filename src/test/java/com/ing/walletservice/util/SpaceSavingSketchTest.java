@@ -0,0 +1,57 @@
+package com.ing.walletservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void heavyHitters_AreTrackedWithinTheErrorBound() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(10) == 0 ? 7L : 100 + random.nextInt(5_000);
+            long weight = 1 + random.nextInt(3);
+            sketch.add(key, weight);
+            exact.merge(key, weight, Long::sum);
+        }
+
+        assertEquals(16, sketch.size());
+        assertEquals(exact.values().stream().mapToLong(Long::longValue).sum(), sketch.totalWeight());
+        List<SpaceSavingSketch.Entry> top = sketch.top(3);
+        assertEquals(7L, top.get(0).getKey());
+        for (SpaceSavingSketch.Entry entry : sketch.top(16)) {
+            long actual = exact.get(entry.getKey());
+            assertTrue(entry.getCount() >= actual);
+            assertTrue(entry.getCount() - entry.getError() <= actual);
+            assertTrue(entry.getError() <= sketch.totalWeight() / 16);
+        }
+    }
+
+    @Test
+    void untrackedKey_TakesOverTheSmallestCounter() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add(1L, 5);
+        sketch.add(2L, 3);
+
+        int index = sketch.add(3L, 1);
+
+        assertEquals(3L, sketch.key(index));
+        assertEquals(4L, sketch.count(index));
+        assertEquals(3L, sketch.error(index));
+        assertEquals(List.of(1L, 3L), sketch.top(5).stream().map(SpaceSavingSketch.Entry::getKey).toList());
+
+        sketch.clear();
+        assertEquals(0, sketch.size());
+        assertEquals(0L, sketch.totalWeight());
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(0L, 1));
+    }
+}